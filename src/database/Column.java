@@ -51,6 +51,15 @@ public class Column {
 		this.coulmnConstraints = "";
 	}
 	
+	/**
+	 * Getter for {@link #columnName}.
+	 * 
+	 * @return The column's name
+	 */
+	public String getColumnName() {
+		return columnName;
+	}
+	
 	/**
 	 * This overrided version of {@code toString} returns
 	 * the column's signature in SQL format.
@@ -0,0 +1,304 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ConnectionPool} class keeps a bounded number of
+ * database connections open, so that statements don't pay for
+ * opening the database file and reading its schema every time.
+ *
+ * <p>Connections are opened lazily, up to {@link #getPoolSize()}, and
+ * the {@link #CONNECTION_PRAGMAS} are applied once when a connection is
+ * opened. When all connections are in use, {@link #acquire()} waits for
+ * one to be released. The time spent waiting is recorded and exposed
+ * through the metric getters.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class ConnectionPool {
+	/**
+	 * The default maximum number of open connections.
+	 */
+	public static final int DEFAULT_POOL_SIZE = 4;
+
+	/**
+	 * The idle time, in nanoseconds, after which a connection is validated
+	 * with a query before being handed out again.
+	 */
+	public static final long VALIDATION_INTERVAL = 30_000_000_000L;
+
+	/**
+	 * The SQLite pragmas applied once to every newly opened connection.
+	 */
+	public static final String[] CONNECTION_PRAGMAS = new String[] {
+		"PRAGMA journal_mode = WAL;",
+		"PRAGMA synchronous = NORMAL;",
+		"PRAGMA temp_store = MEMORY;"
+	};
+
+	/**
+	 * The JDBC URL of the database.
+	 */
+	private final String databaseURL;
+
+	/**
+	 * The maximum number of open connections.
+	 */
+	private final int poolSize;
+
+	/**
+	 * The open connections that are not in use. The most recently
+	 * released connection is handed out first.
+	 */
+	private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+	/**
+	 * The number of open connections, idle or in use.
+	 */
+	private final AtomicInteger openConnectionsCount = new AtomicInteger();
+
+	/**
+	 * The number of times a connection was acquired.
+	 */
+	private final AtomicLong acquisitionsCount = new AtomicLong();
+
+	/**
+	 * The number of acquisitions that had to wait for a connection to be released.
+	 */
+	private final AtomicLong waitingAcquisitionsCount = new AtomicLong();
+
+	/**
+	 * The total time, in nanoseconds, spent acquiring connections.
+	 */
+	private final AtomicLong totalAcquisitionTime = new AtomicLong();
+
+	/**
+	 * The longest time, in nanoseconds, spent acquiring a connection.
+	 */
+	private final AtomicLong maximumAcquisitionTime = new AtomicLong();
+
+	/**
+	 * This constructor constructs the {@code ConnectionPool} object. No
+	 * connection is opened until one is acquired.
+	 *
+	 * @param databaseURL  The JDBC URL of the database.
+	 * @param poolSize  The maximum number of open connections.
+	 */
+	public ConnectionPool(String databaseURL, int poolSize) {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+		}
+		this.databaseURL = databaseURL;
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * This function hands out a valid connection, opening a new one if
+	 * none is idle and the pool is not full, or waiting for one to be
+	 * released otherwise. The connection must be given back using
+	 * {@link #release(PooledConnection)}, or {@link #discard(PooledConnection)}
+	 * if it is no longer usable.
+	 *
+	 * @return  A valid connection.
+	 *
+	 * @throws SQLException  If opening a connection fails, or if the waiting
+	 * thread is interrupted.
+	 */
+	public PooledConnection acquire() throws SQLException {
+		long startTime = System.nanoTime();
+		boolean waited = false;
+		while (true) {
+			PooledConnection connection = idleConnections.pollFirst();
+			if ((connection == null) && reserveConnectionSlot()) {
+				try {
+					connection = openConnection();
+				} catch (SQLException error) {
+					openConnectionsCount.decrementAndGet();
+					throw error;
+				}
+			}
+			if (connection == null) {
+				waited = true;
+				try {
+					connection = idleConnections.takeFirst();
+				} catch (InterruptedException error) {
+					Thread.currentThread().interrupt();
+					throw new SQLException("Interrupted while waiting for a database connection");
+				}
+			}
+			if (!connection.isValid(VALIDATION_INTERVAL)) {
+				discard(connection);
+				continue;
+			}
+			recordAcquisition(System.nanoTime() - startTime, waited);
+			return connection;
+		}
+	}
+
+	/**
+	 * This function gives a connection back to the pool, so it can be handed out again.
+	 *
+	 * @param connection  The connection acquired using {@link #acquire()}.
+	 */
+	public void release(PooledConnection connection) {
+		connection.markReleased();
+		idleConnections.offerFirst(connection);
+	}
+
+	/**
+	 * This function closes a connection that is no longer usable, and frees
+	 * its place in the pool.
+	 *
+	 * @param connection  The connection acquired using {@link #acquire()}.
+	 */
+	public void discard(PooledConnection connection) {
+		connection.close();
+		openConnectionsCount.decrementAndGet();
+	}
+
+	/**
+	 * This function closes all the idle connections. Connections that are in
+	 * use are closed when they are discarded.
+	 */
+	public void close() {
+		PooledConnection connection;
+		while ((connection = idleConnections.pollFirst()) != null) {
+			discard(connection);
+		}
+	}
+
+	/**
+	 * Getter for {@link #poolSize}.
+	 *
+	 * @return  The maximum number of open connections.
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Getter for {@link #openConnectionsCount}.
+	 *
+	 * @return  The number of open connections, idle or in use.
+	 */
+	public int getOpenConnectionsCount() {
+		return openConnectionsCount.get();
+	}
+
+	/**
+	 * This function returns the number of open connections that are not in use.
+	 *
+	 * @return  The number of idle connections.
+	 */
+	public int getIdleConnectionsCount() {
+		return idleConnections.size();
+	}
+
+	/**
+	 * Getter for {@link #acquisitionsCount}.
+	 *
+	 * @return  The number of times a connection was acquired.
+	 */
+	public long getAcquisitionsCount() {
+		return acquisitionsCount.get();
+	}
+
+	/**
+	 * Getter for {@link #waitingAcquisitionsCount}.
+	 *
+	 * @return  The number of acquisitions that had to wait for a connection.
+	 */
+	public long getWaitingAcquisitionsCount() {
+		return waitingAcquisitionsCount.get();
+	}
+
+	/**
+	 * Getter for {@link #totalAcquisitionTime}.
+	 *
+	 * @return  The total time, in nanoseconds, spent acquiring connections.
+	 */
+	public long getTotalAcquisitionTime() {
+		return totalAcquisitionTime.get();
+	}
+
+	/**
+	 * Getter for {@link #maximumAcquisitionTime}.
+	 *
+	 * @return  The longest time, in nanoseconds, spent acquiring a connection.
+	 */
+	public long getMaximumAcquisitionTime() {
+		return maximumAcquisitionTime.get();
+	}
+
+	/**
+	 * This function returns the average time spent acquiring a connection.
+	 *
+	 * @return  The average acquisition time in nanoseconds, 0 if no
+	 * connection was acquired yet.
+	 */
+	public long getAverageAcquisitionTime() {
+		long count = acquisitionsCount.get();
+		return (count == 0)? 0 : totalAcquisitionTime.get() / count;
+	}
+
+	/**
+	 * This function reserves a place for a new connection, only if
+	 * the pool is not full.
+	 *
+	 * @return  A boolean, true if a place was reserved, false otherwise.
+	 */
+	private boolean reserveConnectionSlot() {
+		int count = openConnectionsCount.get();
+		while (count < poolSize) {
+			if (openConnectionsCount.compareAndSet(count, count + 1)) {
+				return true;
+			}
+			count = openConnectionsCount.get();
+		}
+		return false;
+	}
+
+	/**
+	 * This function opens a new connection and applies the {@link #CONNECTION_PRAGMAS} to it.
+	 *
+	 * @return  The newly opened connection.
+	 *
+	 * @throws SQLException  If opening the connection or applying a pragma fails.
+	 */
+	private PooledConnection openConnection() throws SQLException {
+		Connection connection = DriverManager.getConnection(databaseURL);
+		try (Statement statement = connection.createStatement()) {
+			for (String pragma : CONNECTION_PRAGMAS) {
+				statement.execute(pragma);
+			}
+		} catch (SQLException error) {
+			connection.close();
+			throw error;
+		}
+		return new PooledConnection(connection);
+	}
+
+	/**
+	 * This function records the metrics of a single acquisition.
+	 *
+	 * @param acquisitionTime  The time, in nanoseconds, the acquisition took.
+	 * @param waited  Whether the acquisition had to wait for a connection to be released.
+	 */
+	private void recordAcquisition(long acquisitionTime, boolean waited) {
+		acquisitionsCount.incrementAndGet();
+		if (waited) {
+			waitingAcquisitionsCount.incrementAndGet();
+		}
+		totalAcquisitionTime.addAndGet(acquisitionTime);
+		maximumAcquisitionTime.accumulateAndGet(acquisitionTime, Math::max);
+	}
+}
@@ -0,0 +1,251 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The {@code DatabaseExecutor} class runs database work on a single
+ * dedicated thread, so that neither the Swing event thread nor the
+ * game thread ever waits on the database.
+ *
+ * <p>Reads are submitted using {@link #submitRead(Supplier)}, and their
+ * results are delivered through a {@link CompletableFuture}. Writes are
+ * submitted using {@link #submitWrite(String, Runnable)} into a write-behind
+ * queue, which is flushed {@link #WRITE_BEHIND_DELAY} milliseconds later.
+ * Writes that share a key while they are queued are coalesced, so only
+ * the last one is run, at the position of the first one.</p>
+ *
+ * <p>Every read or task first flushes the queued writes, so it always
+ * observes the writes submitted before it. Writes submitted from the
+ * database thread itself are run immediately, in order.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class DatabaseExecutor {
+	/**
+	 * The time, in milliseconds, that a write waits in the queue before
+	 * it is flushed, allowing later writes with the same key to replace it.
+	 */
+	public static final long WRITE_BEHIND_DELAY = 100;
+
+	/**
+	 * The name of the database thread.
+	 */
+	public static final String THREAD_NAME = "Database Executor";
+
+	/**
+	 * The executor that owns the database thread.
+	 */
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * The database thread, set once it starts.
+	 */
+	private volatile Thread databaseThread;
+
+	/**
+	 * The queued writes, by their key, in the order they were first submitted.
+	 */
+	private final LinkedHashMap<String, Runnable> pendingWrites = new LinkedHashMap<>();
+
+	/**
+	 * This variable determines if a flush of {@link #pendingWrites} is already scheduled.
+	 */
+	private boolean flushScheduled = false;
+
+	/**
+	 * A counter used to give unique keys to writes that are never coalesced.
+	 */
+	private long uniqueWritesCount = 0;
+
+	/**
+	 * The number of writes that were replaced by a later write with the same key.
+	 */
+	private long coalescedWritesCount = 0;
+
+	/**
+	 * This constructor constructs the {@code DatabaseExecutor} object and
+	 * its database thread. The thread is a daemon thread, so it doesn't
+	 * keep the program running; {@link #shutdown()} flushes the queued writes.
+	 */
+	public DatabaseExecutor() {
+		ScheduledThreadPoolExecutor threadPool = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(() -> {
+				databaseThread = Thread.currentThread();
+				runnable.run();
+			}, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		threadPool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		executor = threadPool;
+	}
+
+	/**
+	 * This function submits a read to the database thread.
+	 *
+	 * @param <T>  The type of the result of the read.
+	 * @param read  The read to run on the database thread.
+	 *
+	 * @return  A future that completes with the result of the read.
+	 */
+	public <T> CompletableFuture<T> submitRead(Supplier<T> read) {
+		return CompletableFuture.supplyAsync(() -> {
+			flushPendingWrites();
+			return read.get();
+		}, executor);
+	}
+
+	/**
+	 * This function submits a task that reads from and writes to the
+	 * database (and any state that depends on it) to the database thread.
+	 *
+	 * @param task  The task to run on the database thread.
+	 *
+	 * @return  A future that completes when the task is done.
+	 */
+	public CompletableFuture<Void> submitTask(Runnable task) {
+		return CompletableFuture.runAsync(() -> {
+			flushPendingWrites();
+			task.run();
+		}, executor);
+	}
+
+	/**
+	 * This function queues a write in the write-behind queue. If a write
+	 * with the same key is already queued, it is replaced by this one.
+	 *
+	 * <p>Any value the write depends on should be read before calling this
+	 * function, since the write is run later on the database thread.</p>
+	 *
+	 * @param key  The key that identifies what the write overwrites.
+	 * @param write  The write to run on the database thread.
+	 */
+	public void submitWrite(String key, Runnable write) {
+		if (isDatabaseThread()) {
+			flushPendingWrites();
+			runWrite(write);
+			return;
+		}
+		synchronized (pendingWrites) {
+			if (pendingWrites.put(key, write) != null) {
+				coalescedWritesCount++;
+			}
+			if (!flushScheduled) {
+				flushScheduled = true;
+				executor.schedule(this::flushPendingWrites, WRITE_BEHIND_DELAY, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * This function queues a write in the write-behind queue, that is
+	 * never coalesced with any other write.
+	 *
+	 * @param write  The write to run on the database thread.
+	 */
+	public void submitWrite(Runnable write) {
+		String key;
+		synchronized (pendingWrites) {
+			key = "#" + uniqueWritesCount++;
+		}
+		submitWrite(key, write);
+	}
+
+	/**
+	 * This function flushes the write-behind queue without waiting for its delay.
+	 *
+	 * @return  A future that completes when all the writes queued before this call are done.
+	 */
+	public CompletableFuture<Void> flush() {
+		return CompletableFuture.runAsync(this::flushPendingWrites, executor);
+	}
+
+	/**
+	 * This function checks if the calling thread is the database thread.
+	 *
+	 * @return  A boolean, true if the calling thread is the database thread, false otherwise.
+	 */
+	public boolean isDatabaseThread() {
+		return Thread.currentThread() == databaseThread;
+	}
+
+	/**
+	 * This function returns the number of writes waiting in the write-behind queue.
+	 *
+	 * @return  The number of queued writes.
+	 */
+	public int getPendingWritesCount() {
+		synchronized (pendingWrites) {
+			return pendingWrites.size();
+		}
+	}
+
+	/**
+	 * Getter for {@link #coalescedWritesCount}.
+	 *
+	 * @return  The number of writes that were replaced by a later write with the same key.
+	 */
+	public long getCoalescedWritesCount() {
+		synchronized (pendingWrites) {
+			return coalescedWritesCount;
+		}
+	}
+
+	/**
+	 * This function flushes the queued writes and stops the database thread,
+	 * waiting for the writes to be done. It is meant to be called when the
+	 * program exits.
+	 */
+	public void shutdown() {
+		flush();
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * This function runs all the queued writes on the calling thread,
+	 * which must be the database thread.
+	 */
+	private void flushPendingWrites() {
+		ArrayList<Runnable> writes;
+		synchronized (pendingWrites) {
+			if (pendingWrites.isEmpty()) {
+				return;
+			}
+			writes = new ArrayList<>(pendingWrites.values());
+			pendingWrites.clear();
+			flushScheduled = false;
+		}
+		for (Runnable write : writes) {
+			runWrite(write);
+		}
+	}
+
+	/**
+	 * This function runs a single write, so that a failing write doesn't
+	 * prevent the writes queued after it from running.
+	 *
+	 * @param write  The write to run.
+	 */
+	private void runWrite(Runnable write) {
+		try {
+			write.run();
+		} catch (RuntimeException error) {
+			System.out.println("Queued database write failed");
+			error.printStackTrace();
+		}
+	}
+}
@@ -2,10 +2,12 @@ package database;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import gameObjects.EntityDeclaration;
+import gameObjects.EntityRegistry;
 import gameObjects.GameObjectUtilities;
-import gameObjects.Monster;
-import gameObjects.Player;
 import main.Main;
 import media.MediaResource;
 import media.MediaUtilities;
@@ -31,12 +33,110 @@ public class DatabaseUtilities {
 	 */
 	public static String currentUser = "";
 	
+	/**
+	 * The values of the Game Data table for {@link #currentUser}, by attribute
+	 * name. They are all loaded at once by {@link #loadGameDataOfCurrentUser()}
+	 * when a level starts, and the dynamic objects read their attributes from
+	 * them when they are constructed, instead of querying one attribute at a time.
+	 */
+	public static volatile Map<String, Integer> currentUserGameData = new HashMap<>();
+	
 	/**
 	 * This {@code String} defines the basis for how any value found in
 	 * 'level_path' column of the Users Levels table should be derived.
 	 */
 	public static final String ORIGINAL_LEVEL_JSON_NAME = "mapBatchOne.json";
+	
+	/**
+	 * The cached passwords of the users in the Accounts table, by username.
+	 * A cached absent password means the user doesn't exist.
+	 */
+	public static final ReadThroughCache<String, String> accountsCache = new ReadThroughCache<>("accounts");
+	
+	/**
+	 * The cached rows of the Users Levels table, by username. The
+	 * cached rows are shared, and must not be modified.
+	 */
+	public static final ReadThroughCache<String, HashMap<String, Object>> usersLevelsCache =
+		new ReadThroughCache<>("users_levels");
+	
+	/**
+	 * The cached values of the Game Data table, by the key
+	 * built using {@link #getGameDataCacheKey(String, String)}.
+	 */
+	public static final ReadThroughCache<String, Integer> gameDataCache = new ReadThroughCache<>("game_data");
+	
+	/**
+	 * The name of the system property that selects the persistence engine.
+	 * When it is set to {@value #IN_MEMORY_PERSISTENCE}, the progress of the
+	 * players is kept in memory only, otherwise it is kept in the database file.
+	 */
+	public static final String PERSISTENCE_PROPERTY = "persistence";
+	
+	/**
+	 * The value of {@link #PERSISTENCE_PROPERTY} that selects the in-memory engine.
+	 */
+	public static final String IN_MEMORY_PERSISTENCE = "memory";
+	
+	/**
+	 * The engine that stores the progress of the players. It is created
+	 * on first use, unless it is set before using {@link #setPersistenceEngine(PersistenceEngine)}.
+	 */
+	private static volatile PersistenceEngine persistenceEngine;
   
+	/**
+	 * This function returns the engine that stores the progress of the
+	 * players, creating it on first use. The engine is selected using
+	 * the {@link #PERSISTENCE_PROPERTY} system property.
+	 * 
+	 * @return  The persistence engine.
+	 */
+	public static PersistenceEngine getPersistenceEngine() {
+		PersistenceEngine engine = persistenceEngine;
+		if (engine == null) {
+			synchronized (DatabaseUtilities.class) {
+				if (persistenceEngine == null) {
+					if (IN_MEMORY_PERSISTENCE.equals(System.getProperty(PERSISTENCE_PROPERTY))) {
+						persistenceEngine = new InMemoryPersistenceEngine();
+					}
+					else {
+						persistenceEngine = new SQLitePersistenceEngine();
+					}
+				}
+				engine = persistenceEngine;
+			}
+		}
+		return engine;
+	}
+	
+	/**
+	 * This function replaces the engine that stores the progress of the
+	 * players, and clears the caches filled from the previous one. It is
+	 * used by headless runs to select an {@link InMemoryPersistenceEngine},
+	 * and should be called before any other function of this class.
+	 * 
+	 * @param engine  The new persistence engine.
+	 */
+	public static void setPersistenceEngine(PersistenceEngine engine) {
+		synchronized (DatabaseUtilities.class) {
+			persistenceEngine = engine;
+		}
+		accountsCache.invalidateAll();
+		usersLevelsCache.invalidateAll();
+		gameDataCache.invalidateAll();
+	}
+	
+	/**
+	 * This function closes the persistence engine, if it was created.
+	 */
+	public static void closePersistenceEngine() {
+		synchronized (DatabaseUtilities.class) {
+			if (persistenceEngine != null) {
+				persistenceEngine.close();
+			}
+		}
+	}
+	
 	/**
 	 * This function builds the SQL CREATE statement for the Accounts table.
 	 *	 
@@ -66,34 +166,72 @@ public class DatabaseUtilities {
 	}
 	
 	/**
-	 * This function builds the SQL CREATE statement for the Game Data table.
+	 * This function builds the definition of the Game Data table. Every
+	 * user has at most one value per attribute, so the table is keyed by
+	 * (user_name, attribute_name), which also indexes its lookups.
 	 *	 
-	 * @return A {@code String}, the CREATE statement for the Game Data table in SQL format.
+	 * @return A {@link database.Table} object, the definition of the Game Data table.
 	 */
-	public static String getGameDataTableCreateStatement() {
+	public static Table getGameDataTable() {
 		Table gameData = new Table("game_data");
 		gameData.addColumn(new Column("user_name", "VARCHAR(20)", "NOT NULL"));
 		gameData.addColumn(new Column("attribute_name", "VARCHAR(20)", "NOT NULL"));
 		gameData.addColumn(new Column("attribute_value", "INT", "NOT NULL"));
-		return gameData.getCreateStatement();
+		gameData.addConstraint("PRIMARY KEY(user_name, attribute_name)");
+		return gameData;
+	}
+	
+	/**
+	 * This function builds the SQL CREATE statement for the Game Data table.
+	 *	 
+	 * @return A {@code String}, the CREATE statement for the Game Data table in SQL format.
+	 */
+	public static String getGameDataTableCreateStatement() {
+		return getGameDataTable().getCreateStatement();
+	}
+	
+	/**
+	 * This function lists the migrations of the database schema, in
+	 * increasing version order. A new migration must be appended with
+	 * the next version whenever the schema of an existing table changes,
+	 * since the CREATE statements only apply to new databases.
+	 * 
+	 * @return An {@code ArrayList} of the schema migrations.
+	 */
+	public static ArrayList<SchemaMigration> getSchemaMigrations() {
+		ArrayList<SchemaMigration> migrations = new ArrayList<>();
+		migrations.add(new SchemaMigration(1, "Key the Game Data table by (user_name, attribute_name)")
+			.addStatements(getGameDataTable().getRebuildStatements()));
+		return migrations;
 	}
   
 	/**
-	 * This function takes a username, and builds a SELECT statement in SQL format
-	 * to get the password of this username, using a {@link database.MySQLConnector} object.
+	 * This function takes a username, and gets the password of this username
+	 * from the {@link PersistenceEngine}. The password is read through
+	 * {@link #accountsCache}, so the engine is only asked the first time a
+	 * user is looked up.
 	 * 
 	 * @param username  The name of the user.
 	 * 
 	 * @return A {@code String}, the password of the specified user. If the user does
-	 * not exist, null is returned instead.
+	 * not exist, or if the password couldn't be read, null is returned instead.
 	 */
 	public static String getPasswordOfUser(String username) {
-		if (!usernameExistsInDatabase(username)) {
+		try {
+			return accountsCache.get(username, user->getPersistenceEngine().getPassword(user));
+		} catch(PersistenceException error) {
+			System.out.println(error.getMessage());
 			return null;
 		}
-		String statement = "SELECT user_password FROM accounts WHERE user_name = '" + username + "';";
-		ArrayList<HashMap<String, Object>> result = Main.connector.getQueryResult(statement);
-		return (String) result.get(0).get("user_password");
+	}
+	
+	/**
+	 * This function returns the names of all the users.
+	 * 
+	 * @return An {@code ArrayList} of the usernames, null if they couldn't be read.
+	 */
+	public static ArrayList<String> getUsernames() {
+		return getPersistenceEngine().getUsernames();
 	}
   
 	/**
@@ -131,51 +269,52 @@ public class DatabaseUtilities {
   
 	/**
 	 * This function takes a username, then checks if it exists in the database.
-	 * It creates a SELECT statement in SQL format to get the existing usernames
-	 * in the database, using a {@link database.MySQLConnector} object, then checks
-	 * if the user is among them.
+	 * A user exists if it has a password, so this is answered by the same
+	 * cached lookup as {@link #getPasswordOfUser(String)}.
 	 * 
 	 * @param username  A username.
 	 * 
 	 * @return  A boolean value, true if the username exists in the database, false otherwise.
 	 */
 	public static boolean usernameExistsInDatabase(String username) {
-		String statement = "SELECT user_name FROM accounts WHERE user_name = '" + username + "';";
-		ArrayList<HashMap<String, Object>> result = Main.connector.getQueryResult(statement);
-		for (int i = 0; i < result.size(); i++) {
-			if (((String)result.get(i).get("user_name")).equals(username)) {
-				return true;
-			}
-		}
-		return false;
+		return getPasswordOfUser(username) != null;
 	} 
 	
 	/**
 	 * This function takes the data of some user (username, password & account
-	 * creation date), and inserts that into the database in the Accounts table
-	 * using a {@link database.MySQLConnector} object, only if the user doesn't
-	 * already exist.
+	 * creation date), and inserts that into the Accounts table using the
+	 * {@link PersistenceEngine}, only if the user doesn't
+	 * already exist. The insert is queued on {@link main.Main#databaseExecutor}.
+	 * Once it is done, the user is added to {@link #accountsCache} and to the
+	 * users list of the Sign-In Menu, without reading them again.
 	 * 
 	 * @param username  The username of the user.
 	 * @param password  The password of the user.
 	 * @param date  The date of the user's account creation.
 	 */
 	public static void insertUserDataInAccounts(String username, String password, String date) {
-		if (usernameExistsInDatabase(username)) {
-			return;
-		}
-		String statement = "INSERT INTO ACCOUNTS VALUES ('" + username +"','" 
-			+ password + "','" + date + "');";
-        Main.connector.executeStatement(statement);
-        SignInPanel.users = Main.connector.getQueryResult(SignInPanel.USERS_STATEMENT);
-        SignInPanel.usersListUpdateFlag = true;
+		Main.databaseExecutor.submitWrite("accounts:" + username, ()->{
+			if (usernameExistsInDatabase(username)) {
+				return;
+			}
+			if (!getPersistenceEngine().insertAccount(username, password, date)) {
+				accountsCache.invalidate(username);
+				return;
+			}
+			accountsCache.put(username, password);
+			ArrayList<String> users = new ArrayList<>(SignInPanel.users);
+			users.add(username);
+			SignInPanel.users = users;
+			SignInPanel.usersListUpdateFlag = true;
+		});
 	}
 	
 	/**
 	 * This function copies the main JSON file defined by {@link #ORIGINAL_LEVEL_JSON_NAME}
 	 * to create a fresh and editable JSON file for a user. The username of the user is used
 	 * to make the name of the new file unique. These JSON file copies are used to store the
-	 * progress of individual players.
+	 * progress of individual players. The copy and the insert are queued on
+	 * {@link main.Main#databaseExecutor}.
 	 * 
 	 * @param username  The username of the user to create a JSON file copy for.
 	 */
@@ -183,125 +322,301 @@ public class DatabaseUtilities {
 		String newJSONFileName = DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME.substring(
 			0, DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME.length() - 5) + username + ".json";
 		
-		MediaUtilities.copyResourceWithTag(new MediaResource(ORIGINAL_LEVEL_JSON_NAME), username);
-		
-		String statement = "INSERT INTO users_levels(user_name, level_path) "
-			+ "VALUES('" + username + "','" + newJSONFileName + "');";
-		Main.connector.executeStatement(statement);
+		Main.databaseExecutor.submitWrite("users_levels:" + username, ()->{
+			MediaUtilities.copyResourceWithTag(new MediaResource(ORIGINAL_LEVEL_JSON_NAME), username);
+			
+			if (!getPersistenceEngine().insertUsersLevelsRow(username, newJSONFileName)) {
+				usersLevelsCache.invalidate(username);
+				return;
+			}
+			HashMap<String, Object> row = new HashMap<>();
+			row.put("user_name", username);
+			row.put("level_path", newJSONFileName);
+			row.put("new_game_pressed", "NO");
+			usersLevelsCache.put(username, row);
+		});
+	}
+	
+	/**
+	 * This function returns the row of a user in the Users Levels table,
+	 * read through {@link #usersLevelsCache}.
+	 * 
+	 * @param username  The username of the user.
+	 * 
+	 * @return  The row of the user, by column name, null if the user has none
+	 * or if it couldn't be read. The row is shared, and must not be modified.
+	 */
+	public static HashMap<String, Object> getUsersLevelsRowOfUser(String username) {
+		try {
+			return usersLevelsCache.get(username, user->getPersistenceEngine().getUsersLevelsRow(user));
+		} catch(PersistenceException error) {
+			System.out.println(error.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * This function returns the name of the JSON file that stores the
+	 * progress of a user, from the Users Levels table.
+	 * 
+	 * @param username  The username of the user.
+	 * 
+	 * @return  The name of the user's JSON file, null if the user has none.
+	 */
+	public static String getLevelPathOfUser(String username) {
+		HashMap<String, Object> row = getUsersLevelsRowOfUser(username);
+		return (row == null)? null : (String) row.get("level_path");
 	}
 	
 	/**
 	 * This function is used to track which players have clicked the 'New Game' button
 	 * at least once. By calling this function and specifying a username, the 'new_game_pressed'
 	 * field in the Users Levels table is marked with 'YES' for that user, signaling
-	 * that they have created at least one 'New Game' before.
+	 * that they have created at least one 'New Game' before. The update is queued on
+	 * {@link main.Main#databaseExecutor}, and replaces any queued {@link #markGameOver(String)}.
 	 * 
 	 * @param username  The username to set 'new_game_pressed' to 'YES' for.
 	 */
 	public static void markNewGameFieldPressed(String username) {
-		if (!usernameExistsInDatabase(username)) {
-			return;
-		}
-		String statement = "UPDATE users_levels SET new_game_pressed = 'YES' WHERE user_name = '"
-			+ username + "';";
-		Main.connector.executeStatement(statement);
+		Main.databaseExecutor.submitWrite("new_game_pressed:" + username, ()->{
+			setNewGamePressedOfUser(username, "YES");
+		});
 	}
 	
 	/**
 	 * This function is used to track which players finished or lost the game.
 	 * By calling this function and specifying a username, the 'new_game_pressed'
 	 * field in the Users Levels table is marked with 'NO' for that user, signaling
-	 * that they have finished or lost game.
+	 * that they have finished or lost game. The update is queued on
+	 * {@link main.Main#databaseExecutor}, and replaces any queued {@link #markNewGameFieldPressed(String)}.
 	 * 
 	 * @param username  The username to set 'new_game_pressed' to 'NO' for.
 	 */
 	public static void markGameOver(String username) {
-		if (!usernameExistsInDatabase(username)) {
+		Main.databaseExecutor.submitWrite("new_game_pressed:" + username, ()->{
+			setNewGamePressedOfUser(username, "NO");
+		});
+	}
+	
+	/**
+	 * This function sets the 'new_game_pressed' field of a user in the Users
+	 * Levels table, and updates {@link #usersLevelsCache} with it. Nothing is
+	 * written if the user has no row, or if the field already has that value.
+	 * 
+	 * @param username  The username to set the field for.
+	 * @param value  The new value of the field, 'YES' or 'NO'.
+	 */
+	private static void setNewGamePressedOfUser(String username, String value) {
+		HashMap<String, Object> row = getUsersLevelsRowOfUser(username);
+		if ((row == null) || value.equals(row.get("new_game_pressed"))) {
+			return;
+		}
+		if (!getPersistenceEngine().setNewGamePressed(username, value)) {
+			usersLevelsCache.invalidate(username);
 			return;
 		}
-		String statement = "UPDATE users_levels SET new_game_pressed = 'NO' WHERE user_name = '"
-			+ username + "';";
-		Main.connector.executeStatement(statement);
+		HashMap<String, Object> updatedRow = new HashMap<>(row);
+		updatedRow.put("new_game_pressed", value);
+		usersLevelsCache.put(username, updatedRow);
 	}
 	
 	/**
 	 * This function initializes the Game Data table with the
 	 * default values for a specified user. The 'attribute_name'
 	 * field's values are retrieved from every individual dynamic
-	 * object.
+	 * object declared by the current level. All the rows are written in a single transaction,
+	 * using {@link #upsertGameDataForUser(String, Map)}.
 	 * 
 	 * @param username  The username to initialize the Game Data table for.
 	 */
 	public static void initializeGameDataForUser(String username) {
-		String statement = "";
-		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-			if (GameObjectUtilities.dynamicObjects[i] instanceof Player) {
-			statement = "INSERT INTO game_data VALUES('" + username + "', '"
-					+ GameObjectUtilities.dynamicObjects[i].getName() + "Health', 7);";
-			}
-			else if (GameObjectUtilities.dynamicObjects[i] instanceof Monster) {
-				statement = "INSERT INTO game_data VALUES('" + username + "', '"
-					+ GameObjectUtilities.dynamicObjects[i].getName() + "Health', 3);";
-			}
-			Main.connector.executeStatement(statement);
-		}
+		upsertGameDataForUser(username, getDefaultGameData());
 	}
 	
 	/**
 	 * This function resets Game Data table to the default state prior
 	 * to any edit. It is done by going through all dynamic objects and
-	 * resetting their field values in the table.
+	 * resetting their field values in the table. All the rows are
+	 * written in a single transaction, using {@link #upsertGameDataForUser(String, Map)}.
 	 * 
 	 * @param username  The user to reset the Game Data table for.
 	 */
 	public static void resetGameDataForUser(String username) {
-		String statement = "";
-		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-			if (GameObjectUtilities.dynamicObjects[i] instanceof Player) {
-				statement = "UPDATE game_data SET attribute_value = 7 WHERE (user_name = '" + username 
-					+ "') AND (attribute_name = '" + GameObjectUtilities.dynamicObjects[i].getName() + "Health');";
-			}
-			else if (GameObjectUtilities.dynamicObjects[i] instanceof Monster) {
-				statement = "UPDATE game_data SET attribute_value = 3 WHERE (user_name = '" + username 
-					+ "') AND (attribute_name = '" + GameObjectUtilities.dynamicObjects[i].getName() + "Health');";
+		upsertGameDataForUser(username, getDefaultGameData());
+	}
+	
+	/**
+	 * This function builds the default attribute values of the dynamic objects
+	 * declared by the current level, which are the values of a new game (see
+	 * {@link EntityRegistry#getDefaultHealth(EntityDeclaration)}).
+	 * 
+	 * @return  The default values, by attribute name.
+	 */
+	private static LinkedHashMap<String, Integer> getDefaultGameData() {
+		LinkedHashMap<String, Integer> attributeValues = new LinkedHashMap<>();
+		for (EntityDeclaration declaration : GameObjectUtilities.getEntityDeclarations()) {
+			if (EntityRegistry.isEntityTypeRegistered(declaration.getType())) {
+				attributeValues.put(declaration.getName() + "Health", EntityRegistry.getDefaultHealth(declaration));
 			}
-			Main.connector.executeStatement(statement);
 		}
+		return attributeValues;
 	}
 	
 	/**
 	 * This function updates the Game Data table for a specific user
 	 * with the current values of the dynamic objects in the game.
+	 * The values are read immediately, and all the rows are written in
+	 * a single transaction, using {@link #upsertGameDataForUser(String, Map)}.
 	 * 
 	 * @param username  The username to update the Game Data table for.
 	 */
 	public static void updateGameDataAttributeValueForUser(String username) {
+		LinkedHashMap<String, Integer> attributeValues = new LinkedHashMap<>();
 		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
 			int health = GameObjectUtilities.dynamicObjects[i].getHealth();
-			String statement = "UPDATE game_data SET attribute_value = " + health +
-				" WHERE (user_name = '" + username + "') AND (attribute_name = '" + 
-				GameObjectUtilities.dynamicObjects[i].getName() + "Health');";
-			Main.connector.executeStatement(statement);
+			attributeValues.put(GameObjectUtilities.dynamicObjects[i].getName() + "Health", health);
 		}
+		upsertGameDataForUser(username, attributeValues);
+	}
+	
+	/**
+	 * This function writes attribute values of a user to the Game Data table,
+	 * inserting the missing rows and replacing the existing ones, in a single
+	 * transaction. The write is queued on {@link main.Main#databaseExecutor},
+	 * and replaces any queued write of the Game Data of the same user, since
+	 * every such write covers the same attributes.
+	 * 
+	 * @param username  The username to write the attribute values for.
+	 * @param attributeValues  The values to write, by attribute name.
+	 */
+	private static void upsertGameDataForUser(String username, Map<String, Integer> attributeValues) {
+		Main.databaseExecutor.submitWrite("game_data:" + username, ()->{
+			boolean committed = getPersistenceEngine().upsertGameData(username, attributeValues);
+			updateGameDataCache(username, committed, attributeValues);
+		});
 	}
 	
 	/**
 	 * This function returns the value of a specific attribute
-	 * from the Game Data table for a specified user.
+	 * from the Game Data table for a specified user. The value
+	 * is read through {@link #gameDataCache}.
 	 * 
 	 * @param username  The username to get the attribute value for.
 	 * @param attributeName  The attribute name to get the value of.
 	 * 
-	 * @return  The value of the specified attribute.
+	 * @return  The value of the specified attribute, -1 if it doesn't exist
+	 * or if it couldn't be read.
 	 */
 	public static int getGameDataAttributeValueForUser(String username, String attributeName) {
-		String statement = "SELECT attribute_value FROM game_data WHERE (user_name = '" 
-			+ username + "') AND (attribute_name = '" + attributeName + "');";
-		ArrayList<HashMap<String, Object>> result = Main.connector.getQueryResult(statement);
-		if (result.size() == 0) {
+		Integer value;
+		try {
+			value = gameDataCache.get(getGameDataCacheKey(username, attributeName),
+				key->getPersistenceEngine().getGameDataAttributeValue(username, attributeName));
+		} catch(PersistenceException error) {
+			System.out.println(error.getMessage());
+			return -1;
+		}
+		if (value == null) {
+			System.out.println("Attribute not found");
+			return -1;
+		}
+		return value;
+	}
+	
+	/**
+	 * This function loads all the values of the Game Data table for
+	 * {@link #currentUser} into {@link #currentUserGameData}, using a
+	 * single query. The loaded values are also put in {@link #gameDataCache}.
+	 * If the query fails, no value is loaded.
+	 */
+	public static void loadGameDataOfCurrentUser() {
+		String username = currentUser;
+		if (username.equals("")) {
+			currentUserGameData = new HashMap<>();
+			return;
+		}
+		HashMap<String, Integer> gameData = getPersistenceEngine().getGameData(username);
+		if (gameData == null) {
+			System.out.println("Game data of " + username + " could not be loaded");
+			gameData = new HashMap<>();
+		}
+		for (Map.Entry<String, Integer> attribute : gameData.entrySet()) {
+			gameDataCache.put(getGameDataCacheKey(username, attribute.getKey()), attribute.getValue());
+		}
+		currentUserGameData = gameData;
+	}
+	
+	/**
+	 * This function returns the value of a specific attribute of
+	 * {@link #currentUser}, from the values loaded in {@link #currentUserGameData}.
+	 * No query is run.
+	 * 
+	 * @param attributeName  The attribute name to get the value of.
+	 * 
+	 * @return  The value of the specified attribute, -1 if it wasn't loaded.
+	 */
+	public static int getCurrentUserGameDataAttributeValue(String attributeName) {
+		Integer value = currentUserGameData.get(attributeName);
+		if (value == null) {
 			System.out.println("Attribute not found");
 			return -1;
 		}
-		return (int) result.get(0).get("attribute_value");
+		return value;
+	}
+	
+	/**
+	 * This function builds the key of an attribute of a user in {@link #gameDataCache}.
+	 * 
+	 * @param username  The username of the user.
+	 * @param attributeName  The name of the attribute.
+	 * 
+	 * @return  The key of the attribute.
+	 */
+	private static String getGameDataCacheKey(String username, String attributeName) {
+		return username + "/" + attributeName;
+	}
+	
+	/**
+	 * This function updates {@link #gameDataCache} after a write to the
+	 * Game Data table. If the write succeeded, the written values are
+	 * cached, otherwise the written attributes are invalidated.
+	 * 
+	 * @param username  The username the values were written for.
+	 * @param committed  Whether the write succeeded.
+	 * @param attributeValues  The written values, by attribute name.
+	 */
+	private static void updateGameDataCache(String username, boolean committed, Map<String, Integer> attributeValues) {
+		for (Map.Entry<String, Integer> attribute : attributeValues.entrySet()) {
+			String key = getGameDataCacheKey(username, attribute.getKey());
+			if (committed) {
+				gameDataCache.put(key, attribute.getValue());
+			}
+			else {
+				gameDataCache.invalidate(key);
+			}
+		}
+	}
+	
+	/**
+	 * This function returns the hit and miss statistics of the database caches.
+	 * 
+	 * @return  A {@code String} with one line per cache.
+	 */
+	public static String getCachesStatistics() {
+		return accountsCache + System.lineSeparator() + usersLevelsCache + System.lineSeparator() + gameDataCache;
+	}
+	
+	/**
+	 * This function returns the statement metrics of the database, such as
+	 * the count, the p99 time and the rows returned of every statement.
+	 * 
+	 * @return  The metrics, null if the persistence engine doesn't use the database file.
+	 */
+	public static QueryMetrics getQueryMetrics() {
+		PersistenceEngine engine = getPersistenceEngine();
+		if (engine instanceof SQLitePersistenceEngine) {
+			return ((SQLitePersistenceEngine) engine).getConnector().getMetrics();
+		}
+		return null;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The {@code InMemoryPersistenceEngine} class keeps the progress of
+ * the players in memory only, without any disk access. It is meant for
+ * headless runs, such as soak tests and bulk simulations.
+ *
+ * <p>Every table is a {@link ConcurrentHashMap}, so reads never block
+ * and writes only contend on the same key. Rows are never modified in
+ * place; a changed row replaces the previous one, so a row handed out
+ * by a lookup is never changed afterwards.</p>
+ *
+ * <p>The whole store can be copied using {@link #snapshot()}, for
+ * example to restore the same starting state for every simulation.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class InMemoryPersistenceEngine implements PersistenceEngine {
+	/**
+	 * The passwords of the users, by username.
+	 */
+	private final ConcurrentHashMap<String, String> passwords = new ConcurrentHashMap<>();
+
+	/**
+	 * The account creation dates of the users, by username.
+	 */
+	private final ConcurrentHashMap<String, String> registerDates = new ConcurrentHashMap<>();
+
+	/**
+	 * The usernames in the order they were inserted.
+	 */
+	private final ConcurrentLinkedQueue<String> usernames = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The rows of the Users Levels table, by username.
+	 */
+	private final ConcurrentHashMap<String, HashMap<String, Object>> usersLevels = new ConcurrentHashMap<>();
+
+	/**
+	 * The attribute values of the Game Data table, by username, then by attribute name.
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> gameData = new ConcurrentHashMap<>();
+
+	/**
+	 * This constructor constructs an empty {@code InMemoryPersistenceEngine} object.
+	 */
+	public InMemoryPersistenceEngine() {}
+
+	/**
+	 * This constructor constructs a copy of another {@code InMemoryPersistenceEngine}
+	 * object. Writes done to the other object while it is being copied may or
+	 * may not be included.
+	 *
+	 * @param otherEngine  The engine to copy.
+	 */
+	public InMemoryPersistenceEngine(InMemoryPersistenceEngine otherEngine) {
+		for (String username : otherEngine.usernames) {
+			passwords.put(username, otherEngine.passwords.get(username));
+			registerDates.put(username, otherEngine.registerDates.get(username));
+			usernames.add(username);
+		}
+		usersLevels.putAll(otherEngine.usersLevels);
+		for (Map.Entry<String, ConcurrentHashMap<String, Integer>> userData : otherEngine.gameData.entrySet()) {
+			gameData.put(userData.getKey(), new ConcurrentHashMap<>(userData.getValue()));
+		}
+	}
+
+	/**
+	 * This function copies the whole store.
+	 *
+	 * @return  An independent copy of this engine.
+	 */
+	public InMemoryPersistenceEngine snapshot() {
+		return new InMemoryPersistenceEngine(this);
+	}
+
+	@Override
+	public Optional<String> getPassword(String username) {
+		return Optional.ofNullable(passwords.get(username));
+	}
+
+	@Override
+	public ArrayList<String> getUsernames() {
+		return new ArrayList<>(usernames);
+	}
+
+	@Override
+	public boolean insertAccount(String username, String password, String date) {
+		if (passwords.putIfAbsent(username, password) != null) {
+			return false;
+		}
+		registerDates.put(username, date);
+		usernames.add(username);
+		return true;
+	}
+
+	@Override
+	public Optional<HashMap<String, Object>> getUsersLevelsRow(String username) {
+		return Optional.ofNullable(usersLevels.get(username));
+	}
+
+	@Override
+	public boolean insertUsersLevelsRow(String username, String levelPath) {
+		HashMap<String, Object> row = new HashMap<>();
+		row.put("user_name", username);
+		row.put("level_path", levelPath);
+		row.put("new_game_pressed", "NO");
+		return usersLevels.putIfAbsent(username, row) == null;
+	}
+
+	@Override
+	public boolean setNewGamePressed(String username, String value) {
+		usersLevels.computeIfPresent(username, (user, row)->{
+			HashMap<String, Object> updatedRow = new HashMap<>(row);
+			updatedRow.put("new_game_pressed", value);
+			return updatedRow;
+		});
+		return true;
+	}
+
+	@Override
+	public Optional<Integer> getGameDataAttributeValue(String username, String attributeName) {
+		ConcurrentHashMap<String, Integer> userData = gameData.get(username);
+		return (userData == null)? Optional.empty() : Optional.ofNullable(userData.get(attributeName));
+	}
+
+	@Override
+	public HashMap<String, Integer> getGameData(String username) {
+		ConcurrentHashMap<String, Integer> userData = gameData.get(username);
+		return (userData == null)? new HashMap<>() : new HashMap<>(userData);
+	}
+	
+	@Override
+	public boolean upsertGameData(String username, Map<String, Integer> attributeValues) {
+		gameData.computeIfAbsent(username, user->new ConcurrentHashMap<>()).putAll(attributeValues);
+		return true;
+	}
+
+	@Override
+	public void close() {}
+}
@@ -1,17 +1,23 @@
 package database;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * The {@code MySQLConnector} class establishes the connection
  * with the database. And It executes queries and statements.
+ * 
+ * <p>Connections are kept open in a {@link ConnectionPool}, and
+ * are reused by every statement and query.</p>
+ * 
+ * <p>Every statement and query is timed, including the wait for a
+ * connection, and recorded in a {@link QueryMetrics}.</p>
  *
  * @author Edward Assaf
  * @author Batoul Khaleel
@@ -25,14 +31,37 @@ public class MySQLConnector {
 	public static final String localHostJConnectorURL = "jdbc:sqlite:the_islanders_curse.db";
 	
 	/**
-	 * This constructor initializes the database.
+	 * The pool of open connections to the database.
+	 */
+	private final ConnectionPool pool;
+	
+	/**
+	 * The timings and counts of every statement run, by statement shape.
+	 */
+	private final QueryMetrics metrics = new QueryMetrics();
+	
+	/**
+	 * This constructor initializes the database, with a connection
+	 * pool of the default size ({@link ConnectionPool#DEFAULT_POOL_SIZE}).
 	 */
 	public MySQLConnector() {
+		this(ConnectionPool.DEFAULT_POOL_SIZE);
+	}
+	
+	/**
+	 * This constructor initializes the database, with a connection
+	 * pool of a specified size.
+	 * 
+	 * @param poolSize  The maximum number of connections kept open.
+	 */
+	public MySQLConnector(int poolSize) {
+		pool = new ConnectionPool(localHostJConnectorURL, poolSize);
 		try {
 			Class.forName("org.sqlite.JDBC");
 			executeStatement(DatabaseUtilities.getAccountsTableCreateStatement());
 			executeStatement(DatabaseUtilities.getUsersLevelsTableCreateStatement());
 			executeStatement(DatabaseUtilities.getGameDataTableCreateStatement());
+			migrateSchema(DatabaseUtilities.getSchemaMigrations());
 	    } catch (ClassNotFoundException e) {
 	    	System.out.println("Database JDBC driver could not be used");
 	    }
@@ -41,67 +70,388 @@ public class MySQLConnector {
 	/**
 	 * This function takes a statement in SQL format, and executes it. The
 	 * statement should NOT return any results, as it is not retrievable using
-	 * this function. For that, use {@link #getQueryResult(String)}.
+	 * this function. For that, use {@link #getQueryResult(String, Object...)}.
+	 * 
+	 * <p>Values should not be concatenated into the statement. Instead, a
+	 * '?' placeholder is written in their place, and they are passed, in order,
+	 * as parameters. This way, the statement's text stays the same across calls,
+	 * and its prepared version is reused (see {@link PooledConnection}).</p>
 	 * 
 	 * @param statement  The statement in SQL format to be executed.
+	 * @param parameters  The values bound to the statement's placeholders, in order.
+	 * 
+	 * @return  A boolean, true if the statement was executed, false if it failed.
 	 */
-	public void executeStatement(String statement) {
+	public boolean executeStatement(String statement, Object... parameters) {
+		long startTime = System.nanoTime();
+		boolean succeeded = false;
+		PooledConnection connection = null;
 		try {
-			Connection connection = DriverManager.getConnection(localHostJConnectorURL);
-	        PreparedStatement statementExecuter = connection.prepareStatement(statement);
-	        statementExecuter.execute();
-	        statementExecuter.close();
-	        connection.close();
+			connection = pool.acquire();
+			PreparedStatement statementExecuter = connection.prepareStatement(statement);
+			bindParameters(statementExecuter, parameters);
+			statementExecuter.execute();
+			succeeded = true;
+			return true;
 		} catch(SQLException error) {
-	        System.out.println("Statement execution in database failed");
-	        System.out.println(statement);
+			System.out.println("Statement execution in database failed");
+			System.out.println(statement);
+			return false;
+		} finally {
+			if (connection != null) {
+				pool.release(connection);
+			}
+			metrics.record(statement, startTime, 0, succeeded);
+		}
+	}
+	
+	/**
+	 * This function executes the same statement once for every set of
+	 * parameters, as a single batch inside a single transaction. Either all
+	 * the executions are committed together, or none of them is.
+	 * 
+	 * <p>This should be used instead of calling {@link #executeStatement(String, Object...)}
+	 * in a loop, since every call of that function is committed on its own.</p>
+	 * 
+	 * @param statement  The statement in SQL format to be executed.
+	 * @param parameterRows  The values bound to the statement's placeholders,
+	 * one array per execution.
+	 * 
+	 * @return  A boolean, true if the transaction was committed, false if it failed.
+	 */
+	public boolean executeBatch(String statement, List<Object[]> parameterRows) {
+		if (parameterRows.isEmpty()) {
+			return true;
+		}
+		long startTime = System.nanoTime();
+		PooledConnection connection = null;
+		try {
+			connection = pool.acquire();
+		} catch (SQLException error) {
+			System.out.println("Batch execution in database failed");
+			System.out.println(statement);
+			metrics.record(statement, startTime, 0, false);
+			return false;
+		}
+		boolean connectionUsable = true;
+		boolean committed = false;
+		try {
+			connection.getConnection().setAutoCommit(false);
+			try {
+				PreparedStatement statementExecuter = connection.prepareStatement(statement);
+				for (Object[] parameters : parameterRows) {
+					bindParameters(statementExecuter, parameters);
+					statementExecuter.addBatch();
+				}
+				statementExecuter.executeBatch();
+				connection.getConnection().commit();
+				committed = true;
+			} catch (SQLException error) {
+				System.out.println("Batch execution in database failed");
+				System.out.println(statement);
+				connection.getConnection().rollback();
+			} finally {
+				connection.getConnection().setAutoCommit(true);
+			}
+		} catch (SQLException error) {
+			// The transaction could not be started or ended, so the connection is not reused.
+			System.out.println("Batch transaction in database failed");
+			connectionUsable = false;
+		} finally {
+			if (connectionUsable) {
+				pool.release(connection);
+			}
+			else {
+				pool.discard(connection);
+			}
+			metrics.record(statement, startTime, committed? parameterRows.size() : 0, committed);
+		}
+		return committed;
+	}
+	
+	/**
+	 * This function executes different statements inside a single
+	 * transaction. Either all of them are committed together, or none
+	 * of them is. The statements are not cached, since they are
+	 * expected to run once, such as the statements of a {@link SchemaMigration}.
+	 * 
+	 * @param statements  The statements in SQL format to be executed, in order.
+	 * 
+	 * @return  A boolean, true if the transaction was committed, false if it failed.
+	 */
+	public boolean executeTransaction(List<String> statements) {
+		long startTime = System.nanoTime();
+		PooledConnection connection = null;
+		try {
+			connection = pool.acquire();
+		} catch (SQLException error) {
+			System.out.println("Transaction execution in database failed");
+			// None of the statements could run, so the first one is recorded as failed.
+			if (!statements.isEmpty()) {
+				metrics.record(statements.get(0), startTime, 0, false);
+			}
+			return false;
+		}
+		boolean connectionUsable = true;
+		boolean committed = false;
+		try {
+			connection.getConnection().setAutoCommit(false);
+			String currentStatement = null;
+			long statementStartTime = 0;
+			try (Statement statementExecuter = connection.getConnection().createStatement()) {
+				for (String statement : statements) {
+					currentStatement = statement;
+					statementStartTime = System.nanoTime();
+					statementExecuter.execute(statement);
+					metrics.record(statement, statementStartTime, 0, true);
+				}
+				connection.getConnection().commit();
+				committed = true;
+			} catch (SQLException error) {
+				System.out.println("Transaction execution in database failed");
+				System.out.println(currentStatement);
+				if (currentStatement != null) {
+					metrics.record(currentStatement, statementStartTime, 0, false);
+				}
+				connection.getConnection().rollback();
+			} finally {
+				connection.getConnection().setAutoCommit(true);
+			}
+		} catch (SQLException error) {
+			// The transaction could not be started or ended, so the connection is not reused.
+			System.out.println("Transaction in database failed");
+			connectionUsable = false;
+		} finally {
+			if (connectionUsable) {
+				pool.release(connection);
+			}
+			else {
+				pool.discard(connection);
+			}
+		}
+		return committed;
+	}
+	
+	/**
+	 * This function returns the schema version of the database, stored
+	 * in SQLite's {@code user_version} pragma.
+	 * 
+	 * @return  The schema version, 0 for a database that was never migrated.
+	 */
+	public int getSchemaVersion() {
+		return getIntQueryResult("PRAGMA user_version;", 0);
+	}
+	
+	/**
+	 * This function applies, in version order, every migration newer than the
+	 * schema version of the database. Each migration is run in its own
+	 * transaction, along with the update of the schema version. If a migration
+	 * fails, it is rolled back, and the later ones are not applied.
+	 * 
+	 * @param migrations  The migrations of the schema, in increasing version order.
+	 * 
+	 * @return  A boolean, true if the database is at the latest version, false otherwise.
+	 */
+	public boolean migrateSchema(List<SchemaMigration> migrations) {
+		int schemaVersion = getSchemaVersion();
+		for (SchemaMigration migration : migrations) {
+			if (migration.getVersion() <= schemaVersion) {
+				continue;
+			}
+			List<String> statements = new ArrayList<>(migration.getStatements());
+			statements.add("PRAGMA user_version = " + migration.getVersion() + ";");
+			if (!executeTransaction(statements)) {
+				System.out.println("Schema migration to version " + migration.getVersion() + " failed");
+				return false;
+			}
+			System.out.println("Schema migrated to version " + migration.getVersion() + ": " + migration.getDescription());
+			schemaVersion = migration.getVersion();
 		}
+		return true;
 	}
 	
 	/**
 	 * This function takes a query in SQL format, and runs it, and
 	 * returns the result of the query. The query should NOT be a
 	 * CRUD statement (or any statement that does not return a result
-	 * when executed). For that, use {@link #executeStatement(String)}.
+	 * when executed). For that, use {@link #executeStatement(String, Object...)}.
+	 * 
+	 * <p>Values are passed as parameters, the same way they are passed
+	 * to {@link #executeStatement(String, Object...)}.</p>
 	 * 
 	 * <p><b>Note:</b> The result is returned as an {@code ArrayList}, each
 	 * element, in order, representing a row of the result. To get the value
-	 * of some column at some row, do: {@code arrayList.get(rowIndex).get(columnName)}.</p>
+	 * of some column at some row, do: {@code arrayList.get(rowIndex).get(columnName)}.
+	 * When the columns are known, {@link #getQueryResult(String, RowMapper, Object...)}
+	 * should be preferred, since it doesn't build a map for every row.</p>
 	 * 
 	 * @param query  The query in SQL format to be executed.
+	 * @param parameters  The values bound to the query's placeholders, in order.
 	 * 
 	 * @return A {@link java.util.ArrayList} object that contains the results of the query.
 	 */
-	public ArrayList<HashMap<String, Object>> getQueryResult(String query) {
+	public ArrayList<HashMap<String, Object>> getQueryResult(String query, Object... parameters) {
+		ArrayList<HashMap<String, Object>> finalResults = new ArrayList<>();
+		String[][] columnNames = new String[1][];
+		boolean succeeded = forEachRow(query, row->{
+			// Reading the column names once, from the metadata of the result.
+			if (columnNames[0] == null) {
+				ResultSetMetaData queryResultMetaData = row.getMetaData();
+				columnNames[0] = new String[queryResultMetaData.getColumnCount()];
+				for (int i = 0; i < columnNames[0].length; i++) {
+					columnNames[0][i] = queryResultMetaData.getColumnName(i + 1);
+				}
+			}
+			HashMap<String, Object> rowMap = new HashMap<>();
+			for (int i = 0; i < columnNames[0].length; i++) {
+				rowMap.put(columnNames[0][i], row.getObject(i + 1));
+			}
+			finalResults.add(rowMap);
+		}, parameters);
+		return succeeded? finalResults : null;
+	}
+	
+	/**
+	 * This function runs a query, and maps every row of its result to a
+	 * typed value using a {@link RowMapper}, such as
+	 * {@code row -> row.getString(1)}.
+	 * 
+	 * @param <T>  The type each row is mapped to.
+	 * @param query  The query in SQL format to be executed.
+	 * @param mapper  The function that maps a row.
+	 * @param parameters  The values bound to the query's placeholders, in order.
+	 * 
+	 * @return  The mapped rows in order, null if the query failed.
+	 */
+	public <T> ArrayList<T> getQueryResult(String query, RowMapper<T> mapper, Object... parameters) {
+		ArrayList<T> finalResults = new ArrayList<>();
+		boolean succeeded = forEachRow(query, row->finalResults.add(mapper.mapRow(row)), parameters);
+		return succeeded? finalResults : null;
+	}
+	
+	/**
+	 * This function runs a query, and streams the rows of its result to a
+	 * {@link RowHandler} one at a time, while they are read from the database.
+	 * Nothing is collected, so the handler decides what is kept.
+	 * 
+	 * <p>The pooled connection is held until every row is handled, so the
+	 * handler should be short, and should not run other queries.</p>
+	 * 
+	 * @param query  The query in SQL format to be executed.
+	 * @param handler  The function that handles a row.
+	 * @param parameters  The values bound to the query's placeholders, in order.
+	 * 
+	 * @return  A boolean, true if every row was handled, false if the query failed.
+	 */
+	public boolean forEachRow(String query, RowHandler handler, Object... parameters) {
+		long startTime = System.nanoTime();
+		long rowsCount = 0;
+		boolean succeeded = false;
+		PooledConnection connection = null;
+		try {
+			connection = pool.acquire();
+			PreparedStatement statementExecuter = connection.prepareStatement(query);
+			bindParameters(statementExecuter, parameters);
+			try (ResultSet queryResult = statementExecuter.executeQuery()) {
+				while (queryResult.next()) {
+					handler.handleRow(queryResult);
+					rowsCount++;
+				}
+			}
+			succeeded = true;
+			return true;
+		} catch (SQLException error) {
+			System.out.println("Statement execution in database failed");
+			System.out.println(query);
+			return false;
+		} finally {
+			// Returning the connection to the pool.
+			if (connection != null) {
+				pool.release(connection);
+			}
+			metrics.record(query, startTime, rowsCount, succeeded);
+		}
+	}
+	
+	/**
+	 * This function runs a query that returns a single integer, such as a
+	 * {@code COUNT(*)} or a single column of a single row, and returns it
+	 * without building any row.
+	 * 
+	 * @param query  The query in SQL format to be executed.
+	 * @param defaultValue  The value returned if the result is empty or the query failed.
+	 * @param parameters  The values bound to the query's placeholders, in order.
+	 * 
+	 * @return  The first column of the first row, as an {@code int}.
+	 */
+	public int getIntQueryResult(String query, int defaultValue, Object... parameters) {
+		long startTime = System.nanoTime();
+		long rowsCount = 0;
+		boolean succeeded = false;
+		PooledConnection connection = null;
 		try {
-			// Establishing connections and initializing result array.
-	        Connection connection = DriverManager.getConnection(localHostJConnectorURL);
-	        PreparedStatement statementExecuter = connection.prepareStatement(query);
-	        ArrayList<HashMap<String, Object>> finalResults = new ArrayList<>();
-	        
-	        // Getting result from database and getting its metadata (metadata is column names, count.. etc).
-	        ResultSet queryResult = statementExecuter.executeQuery();
-	        ResultSetMetaData queryResultMetaData = queryResult.getMetaData();
-	        int columnCount = queryResultMetaData.getColumnCount();
-	        
-	        // Adding results one by one to the result array.
-	        while (queryResult.next()) {
-	        	HashMap<String, Object> row = new HashMap<>();
-	        	for (int i = 1; i <= columnCount; i++) {
-	        		row.put(queryResultMetaData.getColumnName(i), queryResult.getObject(i));
-	        	}
-	        	finalResults.add(row);
-	        }
-	        
-	        // Closing connections and returning result array.
-	        statementExecuter.close();
-	        connection.close();
-	        queryResult.close();
-	        return finalResults;
+			connection = pool.acquire();
+			PreparedStatement statementExecuter = connection.prepareStatement(query);
+			bindParameters(statementExecuter, parameters);
+			try (ResultSet queryResult = statementExecuter.executeQuery()) {
+				int value = defaultValue;
+				if (queryResult.next()) {
+					value = queryResult.getInt(1);
+					rowsCount = 1;
+				}
+				succeeded = true;
+				return value;
+			}
 		} catch (SQLException error) {
 			System.out.println("Statement execution in database failed");
 			System.out.println(query);
-	        return null;
+			return defaultValue;
+		} finally {
+			if (connection != null) {
+				pool.release(connection);
+			}
+			metrics.record(query, startTime, rowsCount, succeeded);
 		}
 	}
+	
+	/**
+	 * This function binds values to the placeholders of a prepared statement.
+	 * 
+	 * @param statement  The prepared statement.
+	 * @param parameters  The values to bind, in order.
+	 * 
+	 * @throws SQLException  If a value can't be bound.
+	 */
+	private static void bindParameters(PreparedStatement statement, Object[] parameters) throws SQLException {
+		for (int i = 0; i < parameters.length; i++) {
+			statement.setObject(i + 1, parameters[i]);
+		}
+	}
+	
+	/**
+	 * Getter for {@link #pool}. It can be used to read the pool's
+	 * metrics, such as the time spent waiting for connections.
+	 * 
+	 * @return  The pool of open connections to the database.
+	 */
+	public ConnectionPool getPool() {
+		return pool;
+	}
+	
+	/**
+	 * Getter for {@link #metrics}. It can be used to read the timings
+	 * and counts of every statement, and the slow statements log.
+	 * 
+	 * @return  The metrics of the statements run by this connector.
+	 */
+	public QueryMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * This function closes all the connections kept open to the database.
+	 */
+	public void close() {
+		pool.close();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code PersistenceEngine} interface defines the storage
+ * operations used by {@link DatabaseUtilities}, so that the progress
+ * of the players can be kept either in the database file
+ * ({@link SQLitePersistenceEngine}) or in memory only
+ * ({@link InMemoryPersistenceEngine}).
+ *
+ * <p>Lookups of a single value return an {@code Optional}, which is empty
+ * when the value doesn't exist, and throw a {@link PersistenceException}
+ * when they fail, so a failure is never taken for a missing value, nor
+ * cached by {@link ReadThroughCache}. Lookups of a collection return null
+ * when they fail. Writes return whether they succeeded.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public interface PersistenceEngine {
+	/**
+	 * This function returns the password of a user from the Accounts table.
+	 *
+	 * @param username  The username of the user.
+	 *
+	 * @return  The password, empty if the user doesn't exist.
+	 *
+	 * @throws PersistenceException  If the lookup failed.
+	 */
+	Optional<String> getPassword(String username);
+
+	/**
+	 * This function returns the names of all the users in the Accounts table.
+	 *
+	 * @return  The usernames in the order they were inserted, null if the lookup failed.
+	 */
+	ArrayList<String> getUsernames();
+
+	/**
+	 * This function inserts a user in the Accounts table.
+	 *
+	 * @param username  The username of the user.
+	 * @param password  The password of the user.
+	 * @param date  The date of the user's account creation.
+	 *
+	 * @return  A boolean, true if the user was inserted, false otherwise.
+	 */
+	boolean insertAccount(String username, String password, String date);
+
+	/**
+	 * This function returns the row of a user in the Users Levels table.
+	 *
+	 * @param username  The username of the user.
+	 *
+	 * @return  The row by column name, empty if the user has none.
+	 *
+	 * @throws PersistenceException  If the lookup failed.
+	 */
+	Optional<HashMap<String, Object>> getUsersLevelsRow(String username);
+
+	/**
+	 * This function inserts the row of a user in the Users Levels table,
+	 * with 'new_game_pressed' set to 'NO'.
+	 *
+	 * @param username  The username of the user.
+	 * @param levelPath  The name of the user's JSON file.
+	 *
+	 * @return  A boolean, true if the row was inserted, false otherwise.
+	 */
+	boolean insertUsersLevelsRow(String username, String levelPath);
+
+	/**
+	 * This function sets the 'new_game_pressed' field of a user in the Users Levels table.
+	 *
+	 * @param username  The username of the user.
+	 * @param value  The new value of the field, 'YES' or 'NO'.
+	 *
+	 * @return  A boolean, true if the field was written, false otherwise.
+	 */
+	boolean setNewGamePressed(String username, String value);
+
+	/**
+	 * This function returns the value of an attribute of a user from the Game Data table.
+	 *
+	 * @param username  The username of the user.
+	 * @param attributeName  The name of the attribute.
+	 *
+	 * @return  The value, empty if the attribute doesn't exist.
+	 *
+	 * @throws PersistenceException  If the lookup failed.
+	 */
+	Optional<Integer> getGameDataAttributeValue(String username, String attributeName);
+	
+	/**
+	 * This function returns all the attribute values of a user from the Game Data table, at once.
+	 * 
+	 * @param username  The username of the user.
+	 * 
+	 * @return  The values by attribute name, empty if the user has none, null if the lookup failed.
+	 */
+	HashMap<String, Integer> getGameData(String username);
+
+	/**
+	 * This function writes attribute values of a user to the Game Data table,
+	 * inserting the missing ones and replacing the existing ones. Either all
+	 * of them are written, or none of them is.
+	 *
+	 * @param username  The username of the user.
+	 * @param attributeValues  The values to write, by attribute name.
+	 *
+	 * @return  A boolean, true if the values were written, false otherwise.
+	 */
+	boolean upsertGameData(String username, Map<String, Integer> attributeValues);
+
+	/**
+	 * This function releases the resources held by the engine.
+	 */
+	void close();
+}
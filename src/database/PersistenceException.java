@@ -0,0 +1,24 @@
+package database;
+
+/**
+ * The {@code PersistenceException} class is thrown by a {@link PersistenceEngine}
+ * when a lookup fails, such as when the database can't be reached, so that
+ * a failed lookup is never confused with a value that doesn't exist.
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class PersistenceException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * This constructor constructs a {@code PersistenceException} object.
+	 *
+	 * @param message  The description of the failed lookup.
+	 */
+	public PersistenceException(String message) {
+		super(message);
+	}
+}
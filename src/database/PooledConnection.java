@@ -0,0 +1,181 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code PooledConnection} class represents a database
+ * connection that is kept open by a {@link ConnectionPool},
+ * along with the information needed to validate it.
+ *
+ * <p>It also caches the prepared statements created on this
+ * connection, keyed by their SQL text, so that repeated statements
+ * are parsed and planned by the database only once. The least
+ * recently used statement is closed when the cache is full.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class PooledConnection {
+	/**
+	 * The open JDBC connection.
+	 */
+	private Connection connection;
+
+	/**
+	 * The maximum number of prepared statements cached per connection.
+	 */
+	public static final int STATEMENT_CACHE_SIZE = 64;
+
+	/**
+	 * The prepared statements created on this connection, keyed by their
+	 * SQL text, in least-recently-used order.
+	 */
+	private final LinkedHashMap<String, PreparedStatement> statementCache =
+		new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() <= STATEMENT_CACHE_SIZE) {
+					return false;
+				}
+				closeStatement(eldest.getValue());
+				return true;
+			}
+		};
+
+	/**
+	 * The time (from {@link System#nanoTime()}) this connection
+	 * was last returned to its pool.
+	 */
+	private long lastReleaseTime;
+
+	/**
+	 * This constructor wraps an open JDBC connection.
+	 *
+	 * @param connection  The open JDBC connection.
+	 */
+	public PooledConnection(Connection connection) {
+		this.connection = connection;
+		this.lastReleaseTime = System.nanoTime();
+	}
+
+	/**
+	 * Getter for {@link #connection}.
+	 *
+	 * @return  The open JDBC connection.
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * This function returns the cached prepared statement for some SQL
+	 * text, preparing and caching it first if needed. The returned statement
+	 * must not be closed by the caller, and its parameters are kept from
+	 * its previous use, so all of them should be set again.
+	 *
+	 * @param sql  The SQL text of the statement.
+	 *
+	 * @return  The prepared statement.
+	 *
+	 * @throws SQLException  If preparing the statement fails.
+	 */
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		PreparedStatement statement = statementCache.get(sql);
+		if (statement == null) {
+			statement = connection.prepareStatement(sql);
+			statementCache.put(sql, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * This function returns the number of prepared statements cached on this connection.
+	 *
+	 * @return  The number of cached statements.
+	 */
+	public int getCachedStatementsCount() {
+		return statementCache.size();
+	}
+
+	/**
+	 * This function returns how long this connection has been idle,
+	 * since it was last returned to its pool.
+	 *
+	 * @return  The idle time in nanoseconds.
+	 */
+	public long getIdleTime() {
+		return System.nanoTime() - lastReleaseTime;
+	}
+
+	/**
+	 * This function marks this connection as returned to its pool.
+	 */
+	void markReleased() {
+		lastReleaseTime = System.nanoTime();
+	}
+
+	/**
+	 * This function checks if this connection is still usable. A connection
+	 * that has been idle for less than {@code validationInterval} is only
+	 * checked for being open, otherwise a trivial query is run on it.
+	 *
+	 * @param validationInterval  The idle time, in nanoseconds, after which
+	 * the connection is validated with a query.
+	 *
+	 * @return  A boolean, true if the connection is usable, false otherwise.
+	 */
+	public boolean isValid(long validationInterval) {
+		try {
+			if (connection.isClosed()) {
+				return false;
+			}
+			if (getIdleTime() < validationInterval) {
+				return true;
+			}
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("SELECT 1;");
+			}
+			return true;
+		} catch (SQLException error) {
+			return false;
+		}
+	}
+
+	/**
+	 * This function closes the cached statements and the connection,
+	 * ignoring any failure.
+	 */
+	public void close() {
+		for (PreparedStatement statement : statementCache.values()) {
+			closeStatement(statement);
+		}
+		statementCache.clear();
+		try {
+			connection.close();
+		} catch (SQLException error) {
+			System.out.println("Database connection closing failed");
+		}
+	}
+
+	/**
+	 * This function closes a prepared statement, ignoring any failure.
+	 *
+	 * @param statement  The statement to close.
+	 */
+	private static void closeStatement(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException error) {
+			System.out.println("Prepared statement closing failed");
+		}
+	}
+}
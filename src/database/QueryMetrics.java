@@ -0,0 +1,178 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code QueryMetrics} class times and counts every statement run by
+ * a {@link MySQLConnector}, grouped by the shape of the statement.
+ *
+ * <p>The shape of a statement is its SQL text, with its whitespace collapsed
+ * and its literal values replaced with '?'. Since values are passed as
+ * parameters, all the runs of the same {@link DatabaseUtilities} call share
+ * the same shape.</p>
+ *
+ * <p>A run that takes longer than the slow statement threshold is printed,
+ * and kept in a log of the last {@link #SLOW_STATEMENTS_LOG_SIZE} slow runs.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class QueryMetrics {
+	/**
+	 * The default slow statement threshold, in milliseconds. It is the
+	 * length of a single frame, since a longer statement stalls a frame
+	 * when it runs on the event thread or the game thread.
+	 */
+	public static final long DEFAULT_SLOW_STATEMENT_THRESHOLD = 16;
+
+	/**
+	 * The number of slow runs kept in the slow statements log.
+	 */
+	public static final int SLOW_STATEMENTS_LOG_SIZE = 100;
+
+	/**
+	 * The system property that overrides the slow statement threshold, in
+	 * milliseconds, such as {@code -DslowStatementThreshold=5}.
+	 */
+	public static final String SLOW_STATEMENT_THRESHOLD_PROPERTY = "slowStatementThreshold";
+
+	/**
+	 * The metrics of every statement shape, by shape.
+	 */
+	private final ConcurrentHashMap<String, StatementMetrics> metricsByShape = new ConcurrentHashMap<>();
+
+	/**
+	 * The shape of every statement text seen, so the text is only normalized once.
+	 */
+	private final ConcurrentHashMap<String, String> shapesBySQL = new ConcurrentHashMap<>();
+
+	/**
+	 * The last slow runs, the oldest first.
+	 */
+	private final ArrayDeque<String> slowStatementsLog = new ArrayDeque<>();
+
+	/**
+	 * The slow statement threshold, in nanoseconds.
+	 */
+	private volatile long slowStatementThreshold =
+		Long.getLong(SLOW_STATEMENT_THRESHOLD_PROPERTY, DEFAULT_SLOW_STATEMENT_THRESHOLD) * 1_000_000;
+
+	/**
+	 * This function records one run of a statement.
+	 *
+	 * @param sql  The SQL text of the statement.
+	 * @param startTime  The time (from {@link System#nanoTime()}) the run started.
+	 * @param rows  The number of rows returned by a query, or written by a batch.
+	 * @param succeeded  Whether the run succeeded.
+	 */
+	public void record(String sql, long startTime, long rows, boolean succeeded) {
+		long time = System.nanoTime() - startTime;
+		String shape = shapesBySQL.computeIfAbsent(sql, QueryMetrics::normalize);
+		metricsByShape.computeIfAbsent(shape, StatementMetrics::new).record(time, rows, succeeded);
+		if (time >= slowStatementThreshold) {
+			String entry = String.format("Slow statement (%.3f ms, %d rows): %s", time / 1e6, rows, shape);
+			System.out.println(entry);
+			synchronized (slowStatementsLog) {
+				if (slowStatementsLog.size() == SLOW_STATEMENTS_LOG_SIZE) {
+					slowStatementsLog.removeFirst();
+				}
+				slowStatementsLog.addLast(entry);
+			}
+		}
+	}
+
+	/**
+	 * This function sets the slow statement threshold.
+	 *
+	 * @param threshold  The time, in milliseconds, from which a run is logged as slow.
+	 */
+	public void setSlowStatementThreshold(long threshold) {
+		slowStatementThreshold = threshold * 1_000_000;
+	}
+
+	/**
+	 * This function returns the slow statement threshold.
+	 *
+	 * @return  The time, in milliseconds, from which a run is logged as slow.
+	 */
+	public long getSlowStatementThreshold() {
+		return slowStatementThreshold / 1_000_000;
+	}
+
+	/**
+	 * This function returns the metrics of a statement.
+	 *
+	 * @param sql  The SQL text of the statement, normalized or not.
+	 *
+	 * @return  The metrics of the statement's shape, null if it never ran.
+	 */
+	public StatementMetrics getStatementMetrics(String sql) {
+		return metricsByShape.get(normalize(sql));
+	}
+
+	/**
+	 * This function returns the metrics of every statement shape, the
+	 * shape with the longest total time first.
+	 *
+	 * @return  An {@code ArrayList} of the metrics.
+	 */
+	public ArrayList<StatementMetrics> getAllStatementMetrics() {
+		ArrayList<StatementMetrics> allMetrics = new ArrayList<>(metricsByShape.values());
+		allMetrics.sort(Comparator.comparingLong(StatementMetrics::getTotalTime).reversed());
+		return allMetrics;
+	}
+
+	/**
+	 * This function returns the last slow runs.
+	 *
+	 * @return  An {@code ArrayList} of the slow runs, the oldest first.
+	 */
+	public ArrayList<String> getSlowStatements() {
+		synchronized (slowStatementsLog) {
+			return new ArrayList<>(slowStatementsLog);
+		}
+	}
+
+	/**
+	 * This function builds a report of the metrics of every statement shape.
+	 *
+	 * @return  A {@code String} with one line per shape, the shape with the longest total time first.
+	 */
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+		for (StatementMetrics metrics : getAllStatementMetrics()) {
+			report.append(metrics).append(System.lineSeparator());
+		}
+		return report.toString();
+	}
+
+	/**
+	 * This function clears all the metrics and the slow statements log.
+	 */
+	public void reset() {
+		metricsByShape.clear();
+		synchronized (slowStatementsLog) {
+			slowStatementsLog.clear();
+		}
+	}
+
+	/**
+	 * This function computes the shape of a statement, by collapsing its
+	 * whitespace and replacing its string and number literals with '?'.
+	 *
+	 * @param sql  The SQL text of the statement.
+	 *
+	 * @return  The shape of the statement.
+	 */
+	public static String normalize(String sql) {
+		return sql.trim()
+			.replaceAll("\\s+", " ")
+			.replaceAll("'(?:[^']|'')*'", "?")
+			.replaceAll("\\b\\d+\\b", "?");
+	}
+}
@@ -0,0 +1,151 @@
+package database;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The {@code ReadThroughCache} class keeps the results of database
+ * lookups in memory, so that repeated lookups of the same key don't
+ * reach the database.
+ *
+ * <p>On a miss, the value is loaded using the loader passed to
+ * {@link #get(Object, Function)} and kept. Absent values are kept
+ * as well, so a lookup of a missing row is also only run once. The
+ * cache is never expired; instead, every write done by this process
+ * must update it using {@link #put(Object, Object)} or
+ * {@link #invalidate(Object)}.</p>
+ *
+ * @param <K>  The type of the keys.
+ * @param <V>  The type of the cached values.
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class ReadThroughCache<K, V> {
+	/**
+	 * The name of this cache, used when reporting its statistics.
+	 */
+	private final String name;
+
+	/**
+	 * The cached values by their key. An empty {@code Optional} means
+	 * the value is known to be absent.
+	 */
+	private final ConcurrentHashMap<K, Optional<V>> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of lookups answered from the cache.
+	 */
+	private final AtomicLong hitsCount = new AtomicLong();
+
+	/**
+	 * The number of lookups that had to load the value.
+	 */
+	private final AtomicLong missesCount = new AtomicLong();
+
+	/**
+	 * This constructor constructs an empty {@code ReadThroughCache} object.
+	 *
+	 * @param name  The name of the cache.
+	 */
+	public ReadThroughCache(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * This function returns the value of a key, loading it on a miss.
+	 *
+	 * @param key  The key to look up.
+	 * @param loader  The function that loads the value of a key. It returns an
+	 * empty {@code Optional} if the value is absent, and throws if the loading
+	 * failed, in which case nothing is cached.
+	 *
+	 * @return  The value of the key, null if it is absent.
+	 */
+	public V get(K key, Function<K, Optional<V>> loader) {
+		Optional<V> entry = entries.get(key);
+		if (entry != null) {
+			hitsCount.incrementAndGet();
+			return entry.orElse(null);
+		}
+		missesCount.incrementAndGet();
+		entry = loader.apply(key);
+		entries.put(key, entry);
+		return entry.orElse(null);
+	}
+
+	/**
+	 * This function sets the value of a key, after it has been written to
+	 * the database by this process.
+	 *
+	 * @param key  The written key.
+	 * @param value  The written value, null if the value was deleted.
+	 */
+	public void put(K key, V value) {
+		entries.put(key, Optional.ofNullable(value));
+	}
+
+	/**
+	 * This function removes a key from the cache, so that its next lookup
+	 * loads it from the database again.
+	 *
+	 * @param key  The key to remove.
+	 */
+	public void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * This function removes every key from the cache.
+	 */
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	/**
+	 * This function returns the number of keys in the cache.
+	 *
+	 * @return  The number of cached keys, including the absent ones.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Getter for {@link #hitsCount}.
+	 *
+	 * @return  The number of lookups answered from the cache.
+	 */
+	public long getHitsCount() {
+		return hitsCount.get();
+	}
+
+	/**
+	 * Getter for {@link #missesCount}.
+	 *
+	 * @return  The number of lookups that had to load the value.
+	 */
+	public long getMissesCount() {
+		return missesCount.get();
+	}
+
+	/**
+	 * This function returns the fraction of lookups answered from the cache.
+	 *
+	 * @return  The hit ratio between 0 and 1, 0 if no lookup was done yet.
+	 */
+	public double getHitRatio() {
+		long hits = hitsCount.get();
+		long total = hits + missesCount.get();
+		return (total == 0)? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return name + ": " + hitsCount.get() + " hits, " + missesCount.get() + " misses, " + entries.size() + " entries";
+	}
+}
@@ -0,0 +1,29 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@code RowHandler} interface handles the rows of a query result
+ * one at a time, while they are being read from the database.
+ * 
+ * <p>It is used with {@link MySQLConnector#forEachRow(String, RowHandler, Object...)},
+ * so the rows are never collected. The handler must only read the current
+ * row, and must not move the cursor.</p>
+ * 
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ * 
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowHandler {
+	/**
+	 * This function handles the current row of a query result.
+	 * 
+	 * @param row  The query result, positioned at the row to handle.
+	 * 
+	 * @throws SQLException  If reading a column fails.
+	 */
+	void handleRow(ResultSet row) throws SQLException;
+}
@@ -0,0 +1,33 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@code RowMapper} interface maps the current row of a query
+ * result to a typed value, using the typed getters of {@link ResultSet}
+ * (such as {@link ResultSet#getInt(int)} and {@link ResultSet#getString(int)}).
+ * 
+ * <p>It is used with {@link MySQLConnector#getQueryResult(String, RowMapper, Object...)}.
+ * The mapper must only read the current row, and must not move the cursor.</p>
+ * 
+ * @param <T>  The type each row is mapped to.
+ * 
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ * 
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+	/**
+	 * This function maps the current row of a query result.
+	 * 
+	 * @param row  The query result, positioned at the row to map.
+	 * 
+	 * @return  The value the row is mapped to.
+	 * 
+	 * @throws SQLException  If reading a column fails.
+	 */
+	T mapRow(ResultSet row) throws SQLException;
+}
@@ -0,0 +1,132 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code SQLitePersistenceEngine} class keeps the progress of the
+ * players in the SQLite database file, using a {@link MySQLConnector}.
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class SQLitePersistenceEngine implements PersistenceEngine {
+	/**
+	 * The statement that inserts an attribute value of a user in the Game Data
+	 * table, or replaces it if it exists. SQLite's 'ON CONFLICT DO UPDATE' is
+	 * not available in the bundled SQLite version, and since the table has no
+	 * other columns, replacing the row is equivalent.
+	 */
+	private static final String GAME_DATA_UPSERT_STATEMENT =
+		"INSERT OR REPLACE INTO game_data(user_name, attribute_name, attribute_value) VALUES(?, ?, ?);";
+
+	/**
+	 * The connector to the database file.
+	 */
+	private final MySQLConnector connector;
+
+	/**
+	 * This constructor opens the database file, creating and migrating its tables if needed.
+	 */
+	public SQLitePersistenceEngine() {
+		this(new MySQLConnector());
+	}
+
+	/**
+	 * This constructor uses an existing connector.
+	 *
+	 * @param connector  The connector to the database file.
+	 */
+	public SQLitePersistenceEngine(MySQLConnector connector) {
+		this.connector = connector;
+	}
+
+	/**
+	 * Getter for {@link #connector}.
+	 *
+	 * @return  The connector to the database file.
+	 */
+	public MySQLConnector getConnector() {
+		return connector;
+	}
+
+	@Override
+	public Optional<String> getPassword(String username) {
+		String statement = "SELECT user_password FROM accounts WHERE user_name = ?;";
+		ArrayList<String> result = connector.getQueryResult(statement, row->row.getString(1), username);
+		if (result == null) {
+			throw new PersistenceException("The password of " + username + " couldn't be read");
+		}
+		return (result.size() == 0)? Optional.empty() : Optional.of(result.get(0));
+	}
+
+	@Override
+	public ArrayList<String> getUsernames() {
+		return connector.getQueryResult("SELECT user_name FROM accounts;", row->row.getString(1));
+	}
+
+	@Override
+	public boolean insertAccount(String username, String password, String date) {
+		String statement = "INSERT INTO ACCOUNTS VALUES (?, ?, ?);";
+		return connector.executeStatement(statement, username, password, date);
+	}
+
+	@Override
+	public Optional<HashMap<String, Object>> getUsersLevelsRow(String username) {
+		String statement = "SELECT * FROM users_levels WHERE user_name = ?;";
+		ArrayList<HashMap<String, Object>> result = connector.getQueryResult(statement, username);
+		if (result == null) {
+			throw new PersistenceException("The Users Levels row of " + username + " couldn't be read");
+		}
+		return (result.size() == 0)? Optional.empty() : Optional.of(result.get(0));
+	}
+
+	@Override
+	public boolean insertUsersLevelsRow(String username, String levelPath) {
+		String statement = "INSERT INTO users_levels(user_name, level_path) VALUES(?, ?);";
+		return connector.executeStatement(statement, username, levelPath);
+	}
+
+	@Override
+	public boolean setNewGamePressed(String username, String value) {
+		String statement = "UPDATE users_levels SET new_game_pressed = ? WHERE user_name = ?;";
+		return connector.executeStatement(statement, value, username);
+	}
+
+	@Override
+	public Optional<Integer> getGameDataAttributeValue(String username, String attributeName) {
+		String statement = "SELECT attribute_value FROM game_data WHERE (user_name = ?) AND (attribute_name = ?);";
+		ArrayList<Integer> result = connector.getQueryResult(statement, row->row.getInt(1), username, attributeName);
+		if (result == null) {
+			throw new PersistenceException("The attribute " + attributeName + " of " + username + " couldn't be read");
+		}
+		return (result.size() == 0)? Optional.empty() : Optional.of(result.get(0));
+	}
+
+	@Override
+	public HashMap<String, Integer> getGameData(String username) {
+		String statement = "SELECT attribute_name, attribute_value FROM game_data WHERE user_name = ?;";
+		HashMap<String, Integer> result = new HashMap<>();
+		boolean succeeded = connector.forEachRow(statement, row->result.put(row.getString(1), row.getInt(2)), username);
+		return succeeded? result : null;
+	}
+	
+	@Override
+	public boolean upsertGameData(String username, Map<String, Integer> attributeValues) {
+		List<Object[]> parameterRows = new ArrayList<>(attributeValues.size());
+		for (Map.Entry<String, Integer> attribute : attributeValues.entrySet()) {
+			parameterRows.add(new Object[] {username, attribute.getKey(), attribute.getValue()});
+		}
+		return connector.executeBatch(GAME_DATA_UPSERT_STATEMENT, parameterRows);
+	}
+
+	@Override
+	public void close() {
+		connector.close();
+	}
+}
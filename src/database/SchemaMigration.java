@@ -0,0 +1,100 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code SchemaMigration} class represents one versioned
+ * change of the database schema, as the statements that bring
+ * a database from the previous version to this one.
+ *
+ * <p>The version of a database is stored in SQLite's
+ * {@code user_version} pragma. Migrations are applied by
+ * {@link MySQLConnector#migrateSchema(List)}, in version order,
+ * each in its own transaction along with the version update, so a
+ * database is never left between two versions.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class SchemaMigration {
+	/**
+	 * The schema version this migration brings the database to.
+	 */
+	private int version;
+
+	/**
+	 * A short description of the change, printed when it is applied.
+	 */
+	private String description;
+
+	/**
+	 * The statements of the migration, in order.
+	 */
+	private ArrayList<String> statements = new ArrayList<>();
+
+	/**
+	 * This constructor constructs the {@code SchemaMigration} object
+	 * without any statement.
+	 *
+	 * @param version  The schema version the migration brings the database to.
+	 * @param description  A short description of the change.
+	 */
+	public SchemaMigration(int version, String description) {
+		this.version = version;
+		this.description = description;
+	}
+
+	/**
+	 * This function adds a statement to the migration.
+	 *
+	 * @param statement  The statement in SQL format.
+	 *
+	 * @return This migration, so that statements can be chained.
+	 */
+	public SchemaMigration addStatement(String statement) {
+		statements.add(statement);
+		return this;
+	}
+
+	/**
+	 * This function adds statements to the migration, in order.
+	 *
+	 * @param statements  The statements in SQL format.
+	 *
+	 * @return This migration, so that statements can be chained.
+	 */
+	public SchemaMigration addStatements(List<String> statements) {
+		this.statements.addAll(statements);
+		return this;
+	}
+
+	/**
+	 * Getter for {@link #version}.
+	 *
+	 * @return The schema version the migration brings the database to.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Getter for {@link #description}.
+	 *
+	 * @return A short description of the change.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Getter for {@link #statements}.
+	 *
+	 * @return The statements of the migration, in order.
+	 */
+	public ArrayList<String> getStatements() {
+		return statements;
+	}
+}
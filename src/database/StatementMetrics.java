@@ -0,0 +1,174 @@
+package database;
+
+import java.util.Arrays;
+
+/**
+ * The {@code StatementMetrics} class accumulates the timings of every
+ * execution of one statement shape (see {@link QueryMetrics}).
+ *
+ * <p>The count, the errors, the rows and the total and maximum times
+ * cover every execution. The percentiles are computed from the last
+ * {@link #LATENCY_SAMPLES_SIZE} executions only, so they follow the
+ * recent behavior of the statement.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class StatementMetrics {
+	/**
+	 * The number of recent execution times kept to compute the percentiles.
+	 */
+	public static final int LATENCY_SAMPLES_SIZE = 1024;
+
+	/**
+	 * The normalized SQL of the statement.
+	 */
+	private final String shape;
+
+	/**
+	 * The number of executions.
+	 */
+	private long count = 0;
+
+	/**
+	 * The number of executions that failed.
+	 */
+	private long errorsCount = 0;
+
+	/**
+	 * The number of rows returned by queries, or written by batches.
+	 */
+	private long rowsCount = 0;
+
+	/**
+	 * The total time, in nanoseconds, of all the executions.
+	 */
+	private long totalTime = 0;
+
+	/**
+	 * The longest time, in nanoseconds, of an execution.
+	 */
+	private long maximumTime = 0;
+
+	/**
+	 * The times, in nanoseconds, of the recent executions, used as a ring.
+	 */
+	private final long[] latencySamples = new long[LATENCY_SAMPLES_SIZE];
+
+	/**
+	 * This constructor constructs the {@code StatementMetrics} object of a statement shape.
+	 *
+	 * @param shape  The normalized SQL of the statement.
+	 */
+	public StatementMetrics(String shape) {
+		this.shape = shape;
+	}
+
+	/**
+	 * This function records one execution of the statement.
+	 *
+	 * @param time  The time, in nanoseconds, the execution took.
+	 * @param rows  The number of rows returned or written.
+	 * @param succeeded  Whether the execution succeeded.
+	 */
+	public synchronized void record(long time, long rows, boolean succeeded) {
+		latencySamples[(int) (count % LATENCY_SAMPLES_SIZE)] = time;
+		count++;
+		if (!succeeded) {
+			errorsCount++;
+		}
+		rowsCount += rows;
+		totalTime += time;
+		maximumTime = Math.max(maximumTime, time);
+	}
+
+	/**
+	 * Getter for {@link #shape}.
+	 *
+	 * @return  The normalized SQL of the statement.
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Getter for {@link #count}.
+	 *
+	 * @return  The number of executions.
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Getter for {@link #errorsCount}.
+	 *
+	 * @return  The number of executions that failed.
+	 */
+	public synchronized long getErrorsCount() {
+		return errorsCount;
+	}
+
+	/**
+	 * Getter for {@link #rowsCount}.
+	 *
+	 * @return  The number of rows returned by queries, or written by batches.
+	 */
+	public synchronized long getRowsCount() {
+		return rowsCount;
+	}
+
+	/**
+	 * Getter for {@link #totalTime}.
+	 *
+	 * @return  The total time, in nanoseconds, of all the executions.
+	 */
+	public synchronized long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Getter for {@link #maximumTime}.
+	 *
+	 * @return  The longest time, in nanoseconds, of an execution.
+	 */
+	public synchronized long getMaximumTime() {
+		return maximumTime;
+	}
+
+	/**
+	 * This function returns the average time of an execution.
+	 *
+	 * @return  The average time in nanoseconds, 0 if there was no execution.
+	 */
+	public synchronized long getAverageTime() {
+		return (count == 0)? 0 : totalTime / count;
+	}
+
+	/**
+	 * This function returns a percentile of the recent execution times.
+	 *
+	 * @param percentile  The percentile, between 0 and 100, such as 99.
+	 *
+	 * @return  The execution time in nanoseconds, at or under which that
+	 * percentage of the recent executions took, 0 if there was no execution.
+	 */
+	public synchronized long getLatencyPercentile(double percentile) {
+		int samplesCount = (int) Math.min(count, LATENCY_SAMPLES_SIZE);
+		if (samplesCount == 0) {
+			return 0;
+		}
+		long[] sortedSamples = Arrays.copyOf(latencySamples, samplesCount);
+		Arrays.sort(sortedSamples);
+		int index = (int) Math.ceil(percentile / 100 * samplesCount) - 1;
+		return sortedSamples[Math.max(0, Math.min(samplesCount - 1, index))];
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%6d runs %4d errors %7d rows  avg %8.3f ms  p99 %8.3f ms  max %8.3f ms  %s",
+			count, errorsCount, rowsCount, getAverageTime() / 1e6, getLatencyPercentile(99) / 1e6, maximumTime / 1e6, shape);
+	}
+}
@@ -82,6 +82,15 @@ public class Table {
 		tableConstraints.remove(constraint);
 	}
 	
+	/**
+	 * Getter for {@link #tableName}.
+	 * 
+	 * @return The name of the table.
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+	
 	/**
 	 * This function builds the CREATE statement of the table
 	 * in SQL format, then returns it as a {@code String}.
@@ -89,6 +98,18 @@ public class Table {
 	 * @return A {@code String}, the CREATE statement.
 	 */
 	public String getCreateStatement() {
+		return getCreateStatement(tableName);
+	}
+	
+	/**
+	 * This function builds the CREATE statement of a table with a
+	 * different name, that has the columns and constraints of this table.
+	 * 
+	 * @param tableName  The name of the table to create.
+	 * 
+	 * @return A {@code String}, the CREATE statement.
+	 */
+	private String getCreateStatement(String tableName) {
 		// Initializations.
 		String statement = "CREATE TABLE IF NOT EXISTS " + tableName + " (";
 		int columnsSize = tableColumns.size();
@@ -117,4 +138,35 @@ public class Table {
 		statement += ");";
 		return statement;
 	}
+	
+	/**
+	 * This function builds the statements that rebuild an existing table
+	 * so that it matches this table's columns and constraints, keeping its
+	 * rows. SQLite can't add a key or a constraint to an existing table, so
+	 * the table is copied into a new one, which then replaces it.
+	 * 
+	 * <p>The rows are copied in their insertion order, and a row that
+	 * breaks a new key replaces the earlier row it conflicts with.
+	 * The statements should be run in a single transaction.</p>
+	 * 
+	 * @return The rebuild statements in SQL format, in order.
+	 */
+	public ArrayList<String> getRebuildStatements() {
+		String rebuiltTableName = tableName + "_rebuilt";
+		String columnNames = "";
+		for (int i = 0; i < tableColumns.size(); i++) {
+			columnNames += tableColumns.get(i).getColumnName();
+			if (i < tableColumns.size() - 1) {
+				columnNames += ",";
+			}
+		}
+		ArrayList<String> statements = new ArrayList<>();
+		statements.add("DROP TABLE IF EXISTS " + rebuiltTableName + ";");
+		statements.add(getCreateStatement(rebuiltTableName));
+		statements.add("INSERT OR REPLACE INTO " + rebuiltTableName + " (" + columnNames + ") SELECT "
+			+ columnNames + " FROM " + tableName + " ORDER BY rowid;");
+		statements.add("DROP TABLE " + tableName + ";");
+		statements.add("ALTER TABLE " + rebuiltTableName + " RENAME TO " + tableName + ";");
+		return statements;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package gameObjects;
+
+import java.awt.Rectangle;
+
+import mapControls.MapUtilities;
+
+/**
+ * The {@code AIScheduler} class decides, on every update, which dynamic
+ * objects of an {@link EntityStore} run their AI (see {@link DynamicObject#updateVelocity()}),
+ * so that the cost of the AI follows what is around the player, and not
+ * the number of objects in the world.
+ *
+ * <p>Every object is put in a tier by its distance (in tiles) to the
+ * camera's viewport or to the player, whichever is closer:</p>
+ * <ul>
+ * <li>{@link #FULL_TIER}: the AI runs on every update.</li>
+ * <li>{@link #REDUCED_TIER}: the AI runs every {@link #REDUCED_TIER_PERIOD}
+ * updates. The objects are spread over the updates by their ids, so that
+ * the same number of them runs on every update. Between two runs, the
+ * object keeps its velocity.</li>
+ * <li>{@link #DORMANT_TIER}: the AI doesn't run, and the object stands still.</li>
+ * </ul>
+ *
+ * <p>An object that moves to a more active tier runs its AI on the same
+ * update, without waiting for its turn. As an object's velocity can be
+ * used for many updates, the AI is told for how many by {@link #getSteps(int)},
+ * so that it can scale what it tracks by it.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class AIScheduler {
+	/**
+	 * The tier of the objects whose AI runs on every update.
+	 */
+	public static final int FULL_TIER = 0;
+
+	/**
+	 * The tier of the objects whose AI runs every {@link #REDUCED_TIER_PERIOD} updates.
+	 */
+	public static final int REDUCED_TIER = 1;
+
+	/**
+	 * The tier of the objects whose AI doesn't run.
+	 */
+	public static final int DORMANT_TIER = 2;
+
+	/**
+	 * The number of updates between two runs of the AI of an object in {@link #REDUCED_TIER}.
+	 */
+	public static final int REDUCED_TIER_PERIOD = 4;
+
+	/**
+	 * The distance (in tiles) to the viewport or the player up to which an object is in {@link #FULL_TIER}.
+	 */
+	public static final int FULL_TIER_DISTANCE = 4;
+
+	/**
+	 * The distance (in tiles) to the viewport or the player up to which an object is in {@link #REDUCED_TIER}.
+	 */
+	public static final int REDUCED_TIER_DISTANCE = 16;
+
+	/**
+	 * The tiers of the objects, by id.
+	 */
+	private final int[] tiers;
+
+	/**
+	 * Whether the AI of the objects runs on the current update, by id.
+	 */
+	private final boolean[] due;
+
+	/**
+	 * The number of updates since the scheduler was created.
+	 */
+	private long tick = 0;
+
+	/**
+	 * This constructor constructs the {@code AIScheduler} object, with all
+	 * the objects in {@link #FULL_TIER}.
+	 *
+	 * @param capacity  The maximum number of objects in the store.
+	 */
+	public AIScheduler(int capacity) {
+		tiers = new int[capacity];
+		due = new boolean[capacity];
+	}
+
+	/**
+	 * This function computes the tiers of the alive objects of a store
+	 * for the current update, and which of them run their AI. An object
+	 * that becomes dormant is stopped. It must be called once per update,
+	 * on the updating thread, before the AI of the objects runs.
+	 *
+	 * @param store  The store of the objects.
+	 */
+	public void update(EntityStore store) {
+		Rectangle viewport = (MapUtilities.camera == null)? null : MapUtilities.camera.getBounds();
+		int playerRow = -1;
+		int playerColumn = -1;
+		if ((GameObjectUtilities.dynamicObjects.length > 0) && GameObjectUtilities.dynamicObjects[0].isAlive()) {
+			playerRow = GameObjectUtilities.dynamicObjects[0].getRowPosition();
+			playerColumn = GameObjectUtilities.dynamicObjects[0].getColumnPosition();
+		}
+		for (int id = 0; id < store.size(); id++) {
+			if (!store.isAlive(id)) {
+				due[id] = false;
+				continue;
+			}
+			int distance = getDistance(store, id, viewport, playerRow, playerColumn);
+			int tier = (distance <= FULL_TIER_DISTANCE)? FULL_TIER
+				: (distance <= REDUCED_TIER_DISTANCE)? REDUCED_TIER : DORMANT_TIER;
+			boolean promoted = tier < tiers[id];
+			tiers[id] = tier;
+			if (tier == DORMANT_TIER) {
+				due[id] = false;
+				store.setVelocity(id, 0, 0);
+			}
+			else if (tier == REDUCED_TIER) {
+				due[id] = promoted || (((tick + id) % REDUCED_TIER_PERIOD) == 0);
+			}
+			else {
+				due[id] = true;
+			}
+		}
+		tick++;
+	}
+
+	/**
+	 * This function computes the distance (in tiles) of an object to the
+	 * camera's viewport or to the player, whichever is closer. The distance
+	 * to a rectangle is 0 inside of it, and the distance between two cells
+	 * is the largest of their row and column distances.
+	 *
+	 * @param store  The store of the object.
+	 * @param id  The id of the object.
+	 * @param viewport  The bounds of the camera, in pixels, null if there is no camera.
+	 * @param playerRow  The row of the player, -1 if there is no alive player.
+	 * @param playerColumn  The column of the player, -1 if there is no alive player.
+	 *
+	 * @return  The distance of the object.
+	 */
+	private static int getDistance(EntityStore store, int id, Rectangle viewport, int playerRow, int playerColumn) {
+		int row = store.getRowPosition(id);
+		int column = store.getColumnPosition(id);
+		int distance = Integer.MAX_VALUE;
+		if (playerRow != -1) {
+			distance = Math.max(Math.abs(row - playerRow), Math.abs(column - playerColumn));
+		}
+		if (viewport != null) {
+			int tileSize = MapUtilities.level.getTileSize();
+			int firstRow = viewport.y / tileSize;
+			int lastRow = (viewport.y + viewport.height - 1) / tileSize;
+			int firstColumn = viewport.x / tileSize;
+			int lastColumn = (viewport.x + viewport.width - 1) / tileSize;
+			int rowDistance = Math.max(0, Math.max(firstRow - row, row - lastRow));
+			int columnDistance = Math.max(0, Math.max(firstColumn - column, column - lastColumn));
+			distance = Math.min(distance, Math.max(rowDistance, columnDistance));
+		}
+		return distance;
+	}
+
+	/**
+	 * This function checks whether the AI of an object runs on the current update.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  A boolean, true if the AI runs, false otherwise.
+	 */
+	public boolean isDue(int id) {
+		return due[id];
+	}
+
+	/**
+	 * This function returns the tier of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The tier of the object, one of {@link #FULL_TIER}, {@link #REDUCED_TIER}
+	 * and {@link #DORMANT_TIER}.
+	 */
+	public int getTier(int id) {
+		return tiers[id];
+	}
+
+	/**
+	 * This function returns the number of updates the velocity computed by
+	 * the AI of an object on the current update is expected to be used for,
+	 * which is the number of updates until its AI runs again.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The number of updates.
+	 */
+	public int getSteps(int id) {
+		return (tiers[id] == REDUCED_TIER)? REDUCED_TIER_PERIOD : 1;
+	}
+}
@@ -0,0 +1,93 @@
+package gameObjects;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+
+import com.sun.management.ThreadMXBean;
+
+import database.DatabaseUtilities;
+import mapControls.Level;
+import mapControls.MapUtilities;
+
+/**
+ * The {@code AllocationCheck} class checks that the update of the dynamic
+ * objects allocates nothing once it is warmed up. The objects of a level are
+ * spawned with the health of a new game, and updated a number of times; the
+ * bytes allocated by every update, on the thread running it, are measured
+ * after the warm-up updates, and the check fails if any of them allocated.
+ *
+ * <p>It is run on its own, with the name of the level's JSON file and the
+ * number of measured updates as optional arguments. It exits with a status
+ * of 1 if the check fails. The updates run on the calling thread, so
+ * {@link EntityStore#parallelUpdate} should not be set.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class AllocationCheck {
+	/**
+	 * The number of updates run before the measured ones, so that the
+	 * measured updates are compiled and the lazily built state exists.
+	 */
+	private static final int WARM_UP_TICKS = 1000;
+
+	public static void main(String[] args) {
+		String levelName = (args.length > 0)? args[0] : DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME;
+		int ticksCount = (args.length > 1)? Integer.parseInt(args[1]) : 2000;
+		MapUtilities.level = new Level(levelName);
+		HashMap<String, Integer> gameData = new HashMap<>();
+		for (EntityDeclaration declaration : GameObjectUtilities.getEntityDeclarations()) {
+			gameData.put(declaration.getName() + "Health", EntityRegistry.getDefaultHealth(declaration));
+		}
+		DatabaseUtilities.currentUserGameData = gameData;
+		GameObjectUtilities.setEntityStore(GameObjectUtilities.createEntityStore());
+		for (DynamicObject object : GameObjectUtilities.dynamicObjects) {
+			object.setAlive(object.getHealth() > 0);
+		}
+		if (!run(GameObjectUtilities.entityStore, ticksCount)) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * This function updates a store of dynamic objects {@link #WARM_UP_TICKS}
+	 * times, then a number of measured times, and prints how many of the
+	 * measured updates allocated, and how many bytes they allocated.
+	 *
+	 * @param store  The store of the dynamic objects.
+	 * @param ticksCount  The number of measured updates.
+	 *
+	 * @return  A boolean, true if no measured update allocated, false otherwise
+	 * or if the allocations of the thread can't be measured.
+	 */
+	public static boolean run(EntityStore store, int ticksCount) {
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("Thread allocations can't be measured");
+			return false;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long threadID = Thread.currentThread().getId();
+		int allocatingTicksCount = 0;
+		long allocatedBytes = 0;
+		// The warm-up updates are measured too, in the same loop, so that the measured ones run compiled code.
+		for (int tick = 0; tick < WARM_UP_TICKS + ticksCount; tick++) {
+			long startBytes = threadBean.getThreadAllocatedBytes(threadID);
+			store.update();
+			long tickBytes = threadBean.getThreadAllocatedBytes(threadID) - startBytes;
+			if ((tick >= WARM_UP_TICKS) && (tickBytes > 0)) {
+				allocatingTicksCount++;
+				allocatedBytes += tickBytes;
+			}
+		}
+		System.out.println(ticksCount + " updates, " + allocatingTicksCount + " allocating, " + allocatedBytes + " bytes allocated");
+		if (allocatingTicksCount > 0) {
+			System.out.println("Allocation check failed");
+			return false;
+		}
+		System.out.println("Allocation check passed");
+		return true;
+	}
+}
@@ -2,14 +2,15 @@ package gameObjects;
 
 import java.awt.Point;
 import java.awt.Rectangle;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 import database.DatabaseUtilities;
-import mapControls.LevelLayer;
 import mapControls.MapUtilities;
-import mapControls.TileSet;
+import physics.AnimationMechanic;
+import physics.CollisionGrid;
+import physics.PhysicsUtilities;
 
 /**
  * The {@code DynamicObject} abstract class is a special case of
@@ -17,8 +18,12 @@ import mapControls.TileSet;
  * and functionalities of an object with an <b>updatable</b>
  * state (animation or position).
  * 
- * <p>State update functionality is implemented by overriding
- * {@link #update()} in any sub-class of this class.</p>
+ * <p>The state shared by all dynamic objects (position, pixel offsets,
+ * health, velocity, animation frame and alive state) is not kept in the
+ * object, but in a slot of an {@link EntityStore}, and this object is a
+ * view over that slot. State update functionality is implemented by
+ * overriding {@link #updateVelocity()} and {@link #updateHit()} in any
+ * sub-class of this class, which are called by the systems of the store.</p>
  * 
  * @author Edward Assaf
  * @author Batoul Khaleel
@@ -27,16 +32,15 @@ import mapControls.TileSet;
  */
 public abstract class DynamicObject extends GameObject {
 	/**
-	 * Some dynamic objects may represent live objects that
-	 * can be eliminated when some condition is met, like hitpoints
-	 * reaching 0, a specific event occuring... etc.
-	 * 
-	 * <p>The health variable has a generalized purpose of
-	 * simulating that. If {@code health = 0} , the object is
-	 * dead. For dynamic objects that have no 'live' property,
-	 * set this to any non-zero value.</p>
+	 * The store that keeps the state of this object. The object is written
+	 * in it when it is constructed.
 	 */
-	protected int health;
+	final EntityStore store;
+	
+	/**
+	 * The id of this object in its {@link #store}.
+	 */
+	final int id;
 	
 	/**
 	 * A unique name that is given to every dynamic object. This
@@ -49,89 +53,166 @@ public abstract class DynamicObject extends GameObject {
 	protected String name;
 	
 	/**
-	 * For an object to be updatable with pixel-accuracy while
-	 * its parent class represents positions in a tile-based manner,
-	 * an offset is needed to measure 'the difference between the
-	 * original tile position and the real pixel position'.
-	 * 
-	 * <p>This attribute measures the offset for the row position.</p>
+	 * This is responsible of animating the movement. Its direction
+	 * is set from the velocity of the object on every update.
 	 */
-	protected int rowPixelOffset;
-	
-	/**
-	 * For an object to be updatable with pixel-accuracy while
-	 * its parent class represents positions in a tile-based manner,
-	 * an offset is needed to measure 'the difference between the
-	 * original tile position and the real pixel position'.
-	 * 
-	 * <p>This attribute measures the offset for the column position.</p>
-	 */
-	protected int columnPixelOffset;
+	protected AnimationMechanic animator;
 	
 	/**
 	 * This constructor constructs the {@code DynamicObject} by constructing
 	 * its static parent level first ({@link GameObject}), and then computing
 	 * the initial position of the object using the object's layer information.
+	 * The object is added to a store, which must have room for it.
 	 * 
+	 * @param store  The store that keeps the state of this object.
 	 * @param layerID  The index of the layer in the level's layers array.
 	 * @param tileSetName  The name of the tile set this object is drawn using.
+	 * @param spawnCell  The cell this object spawns in (see {@link EntityDeclaration#getSpawnCell()}),
+	 * x representing the row and y representing the column, or null for the first cell of the level.
+	 * @param name  A unique name that is given to every object.
 	 */
-	public DynamicObject(int layerID, String tileSetName, String name) {
+	public DynamicObject(EntityStore store, int layerID, String tileSetName, Point spawnCell, String name) {
 		super(layerID, tileSetName);
-		Point tilePosition = getTilePosition();
 		this.name = name;
-		health = DatabaseUtilities.getGameDataAttributeValueForUser(DatabaseUtilities.currentUser, name + "Health");
-		if (tilePosition == null) {
-			this.rowPosition = 0;
-			this.columnPosition = 0;
-		}
-		else {
-			this.rowPosition = tilePosition.x;
-			this.columnPosition = tilePosition.y;
-		}
-		// Getting the 'objectsOffsets' JSON Array.
-		JSONObject levelObject = MapUtilities.level.getLevelObject();
-		JSONArray layerArray = levelObject.getJSONArray("layers");
-		JSONObject dynamicObjectlayer = layerArray.getJSONObject(layerID);
-		JSONArray objectsOffsets = dynamicObjectlayer.getJSONArray("objectsOffsets");
-		
-		// Finding the 'objectsOffsets' element that has a matching name with this object.
-		for (int i = 0; i < objectsOffsets.length(); i++) {
-			if (objectsOffsets.getJSONObject(i).getString("name").equals(name)) {
-				this.rowPixelOffset = objectsOffsets.getJSONObject(i).getInt("row");
-				this.columnPixelOffset = objectsOffsets.getJSONObject(i).getInt("column");
-				break;
+		this.animator = new AnimationMechanic(10, 25, tileSet.getFirstID());
+		int health = DatabaseUtilities.getCurrentUserGameDataAttributeValue(name + "Health");
+		int rowPosition = 0;
+		int columnPosition = 0;
+		int tileValue = tileSet.getFirstID();
+		if (spawnCell != null) {
+			rowPosition = spawnCell.x;
+			columnPosition = spawnCell.y;
+			// A declared spawn cell may hold no tile of this object's tileset.
+			int spawnTileValue = MapUtilities.level.getLevelLayers()[layerID].getLayerDataElement(rowPosition, columnPosition);
+			if (tileSet.hasIndex(spawnTileValue)) {
+				tileValue = spawnTileValue;
 			}
 		}
+		// Getting the offset of this object from the layer's 'objectsOffsets' index.
+		int rowPixelOffset = 0;
+		int columnPixelOffset = 0;
+		Point objectOffset = MapUtilities.level.getLevelLayers()[layerID].getObjectOffset(name);
+		if (objectOffset != null) {
+			rowPixelOffset = objectOffset.x;
+			columnPixelOffset = objectOffset.y;
+		}
+		this.store = store;
+		id = store.add(this, rowPosition, columnPosition, rowPixelOffset, columnPixelOffset, health, tileValue);
 	}
 	
 	@Override
 	public Rectangle getBounds() {
-		return new Rectangle(
-			columnPosition * drawSize + columnPixelOffset,
-			rowPosition * drawSize + rowPixelOffset,
-			drawSize, drawSize
-		);
+		return getBounds(new Rectangle());
+	}
+	
+	/**
+	 * This function writes the bounds of this object into an existing
+	 * rectangle, so that hot paths can reuse one instead of allocating.
+	 * 
+	 * @param bounds  The rectangle to write the bounds into.
+	 * 
+	 * @return  The rectangle passed, holding the bounds of this object.
+	 */
+	public Rectangle getBounds(Rectangle bounds) {
+		bounds.setBounds(getPixelX(), getPixelY(), drawSize, drawSize);
+		return bounds;
 	}
 	
 	/**
-	 * Getter for {@link #rowPixelOffset}
+	 * This function returns the x position of this object in pixels,
+	 * which is the x of its bounds.
+	 * 
+	 * @return  The x position of this object.
+	 */
+	public int getPixelX() {
+		return PhysicsUtilities.toPixels(store.getPositionX(id));
+	}
+	
+	/**
+	 * This function returns the y position of this object in pixels,
+	 * which is the y of its bounds.
+	 * 
+	 * @return  The y position of this object.
+	 */
+	public int getPixelY() {
+		return PhysicsUtilities.toPixels(store.getPositionY(id));
+	}
+	
+	/**
+	 * This function checks if the bounds of this object intersect the
+	 * bounds of another, the same way {@link Rectangle#intersects(Rectangle)}
+	 * does, without allocating them.
+	 * 
+	 * @param other  The other object.
+	 * 
+	 * @return  A boolean, true if the bounds intersect, false otherwise.
+	 */
+	public boolean intersects(DynamicObject other) {
+		int x = getPixelX();
+		int y = getPixelY();
+		int otherX = other.getPixelX();
+		int otherY = other.getPixelY();
+		return (x < otherX + other.drawSize) && (otherX < x + drawSize)
+			&& (y < otherY + other.drawSize) && (otherY < y + drawSize);
+	}
+	
+	@Override
+	public int getRowPosition() {
+		return store.getRowPosition(id);
+	}
+	
+	@Override
+	public int getColumnPosition() {
+		return store.getColumnPosition(id);
+	}
+	
+	@Override
+	public int getCurrentTileValue() {
+		return store.getTileValue(id);
+	}
+	
+	/**
+	 * For an object to be updatable with pixel-accuracy while
+	 * its parent class represents positions in a tile-based manner,
+	 * an offset is needed to measure 'the difference between the
+	 * original tile position and the real pixel position'.
 	 * 
 	 * @return  The difference between the object's original row position
 	 * and the actual pixel position.
 	 */
 	public int getRowPixelOffset() {
-		return rowPixelOffset;
+		return store.getRowPixelOffset(id);
 	}
 	
 	/**
-	 * Getter for {@link #columnPixelOffset}
+	 * For an object to be updatable with pixel-accuracy while
+	 * its parent class represents positions in a tile-based manner,
+	 * an offset is needed to measure 'the difference between the
+	 * original tile position and the real pixel position'.
 	 * 
 	 * @return  The difference between the object's original column position
 	 * and the actual pixel position.
 	 */
 	public int getColumnPixelOffset() {
-		return columnPixelOffset;
+		return store.getColumnPixelOffset(id);
+	}
+	
+	/**
+	 * Getter for {@link #store}.
+	 * 
+	 * @return  The store that keeps the state of this object.
+	 */
+	public EntityStore getStore() {
+		return store;
+	}
+	
+	/**
+	 * Getter for {@link #id}.
+	 * 
+	 * @return  The id of this object in its store.
+	 */
+	public int getID() {
+		return id;
 	}
 	
 	/**
@@ -144,148 +225,95 @@ public abstract class DynamicObject extends GameObject {
 	}
 	
 	/**
-	 * Getter for {@link #health}.
+	 * Some dynamic objects may represent live objects that
+	 * can be eliminated when some condition is met, like hitpoints
+	 * reaching 0, a specific event occuring... etc.
+	 * 
+	 * <p>The health has a generalized purpose of simulating
+	 * that. If {@code health = 0} , the object is dead. For
+	 * dynamic objects that have no 'live' property, set this
+	 * to any non-zero value.</p>
 	 * 
 	 * @return  The health of this object.
 	 */
 	public int getHealth() {
-		return health;
+		return store.getHealth(id);
 	}
 	
 	/**
-	 * Setter for {@link #health}.
+	 * This function sets the health of this object.
 	 * 
 	 * @param health  The new value to set.
 	 */
 	public void setHealth(int health) {
-		this.health = health;
+		store.setHealth(id, health);
 	}
 	
 	/**
-	 * This function updates the position of the object by some amount,
-	 * but only if the object doesn't collide with anything.
+	 * This function checks whether this object is alive. An object
+	 * dies on the update after its health reaches 0.
 	 * 
-	 * @param changeX  The amount, in pixels, to update the x position by.
-	 * @param changeY  The amount, in pixels, to update the y position by.
+	 * @return  A boolean, true if the object is alive, false if it is dead.
 	 */
-	protected void updatePosition(int changeX, int changeY) {
-		if (getCollisionCheck(changeX, changeY)) {
-			return;
-		}
-		updateColumnPixelOffset(changeX);
-		updateRowPixelOffset(changeY);
+	public boolean isAlive() {
+		return store.isAlive(id);
 	}
 	
 	/**
-	 * This function updates the object's row position by some amount.
+	 * This function sets the state of this object.
 	 * 
-	 * @param change  The amount, in pixels, to update the y position by.
+	 * @param alive  True if the object is alive, false if it is dead.
 	 */
-	private void updateRowPixelOffset(int change) {
-		rowPixelOffset += change;
-		if (Math.abs(rowPixelOffset) > (drawSize / 2)) { // Updates when half of the tile is pressed.
-			rowPosition += (rowPixelOffset > 0)? 1 : -1;
-			rowPixelOffset = (rowPixelOffset > 0)? 
-				rowPixelOffset - drawSize : rowPixelOffset + drawSize;
-		}
+	public void setAlive(boolean alive) {
+		store.setAlive(id, alive);
 	}
 	
 	/**
-	 * This function updates the object's column position by some amount.
+	 * This function sets the velocity this object wants to move by on
+	 * this update. The object is moved by the store, as far as nothing
+	 * stops it (see {@link EntityStore#updateMovements()}).
 	 * 
-	 * @param change  The amount, in pixels, to update the x position by.
-	 */
-	private void updateColumnPixelOffset(int change) {
-		columnPixelOffset += change;
-		if (Math.abs(columnPixelOffset) > (drawSize / 2)) { // Updates when half of the tile is pressed.
-			columnPosition += (columnPixelOffset > 0)? 1 : -1;
-			columnPixelOffset = (columnPixelOffset > 0)? 
-				columnPixelOffset - drawSize : columnPixelOffset + drawSize;
-		}
-	}
-	
-	/**
-	 * This function computes the initial tile position of this object
-	 * using the layer's information. It also re-computes the {@code currentTileValue}
-	 * by searching for the tile value that represents this object in
-	 * the layer.
-	 * 
-	 * @return  A point, x representing the row tile position and
-	 * y representing the column tile position. If the object
-	 * does not exist, null is returned.
+	 * @param velocityX  The amount, in pixels, to update the x position by.
+	 * @param velocityY  The amount, in pixels, to update the y position by.
 	 */
-	private Point getTilePosition() {
-		for (int row = 0; row < MapUtilities.level.getHeight(); row++) {
-			for (int column = 0; column < MapUtilities.level.getWidth(); column++) {
-				if (tileSet.hasIndex(MapUtilities.level.getLevelLayers()[layerID].getLayerDataElement(row, column))) {
-					currentTileValue = MapUtilities.level.getLevelLayers()[layerID].getLayerDataElement(row, column);
-					return new Point(row, column);
-				}
-			}
-		}
-		return null;
+	protected void setVelocity(int velocityX, int velocityY) {
+		store.setVelocity(id, PhysicsUtilities.toSubPixels(velocityX), PhysicsUtilities.toSubPixels(velocityY));
 	}
 	
 	/**
-	 * This function is used to check if the object collides with any
-	 * other object. The parameters of {@link #updatePosition(int, int)}
-	 * are passed here to check for collision before using them to
-	 * update the position of the object.
+	 * This function sets the velocity this object wants to move by on
+	 * this update, in sub-pixels, so that it can move by a fraction of a
+	 * pixel per update (see {@link PhysicsUtilities#SUBPIXEL_BITS}).
 	 * 
-	 * @param changeX  The amount that the x position is desired to be changed by
-	 * if no collision were to occur.
-	 * @param changeY  The amount that the y position is desired to be changed by
-	 * if no collision were to occur.
-	 * 
-	 * @return A boolean, true if a collision is detected, and false otherwise.
+	 * @param velocityX  The amount, in sub-pixels, to update the x position by.
+	 * @param velocityY  The amount, in sub-pixels, to update the y position by.
 	 */
-	private boolean getCollisionCheck(int changeX, int changeY) {
-		return getStaticCollisionCheck(changeX, changeY) || getDynamicCollisionCheck(changeX, changeY);
+	protected void setSubPixelVelocity(int velocityX, int velocityY) {
+		store.setVelocity(id, velocityX, velocityY);
 	}
 	
 	/**
-	 * This function is used to check if the object collides with any
-	 * static object. The parameters of {@link #updatePosition(int, int)}
-	 * are passed here to check for collision before using them to
-	 * update the position of the object.
+	 * This function moves the bounds of this object along a displacement,
+	 * stopping them against the static layers, using a swept test against
+	 * the level's {@link CollisionGrid}. The object itself is not moved.
 	 * 
-	 * @param changeX  The amount that the x position is desired to be changed by
-	 * if no collision were to occur.
-	 * @param changeY  The amount that the y position is desired to be changed by
-	 * if no collision were to occur.
+	 * @param changeX  The displacement along x, in sub-pixels.
+	 * @param changeY  The displacement along y, in sub-pixels.
 	 * 
-	 * @return A boolean, true if a collision is detected, and false otherwise.
+	 * @return  The position, in sub-pixels, the object can move to, packed
+	 * by {@link PhysicsUtilities#pack(int, int)}.
 	 */
-	private boolean getStaticCollisionCheck(int changeX, int changeY) {
-		int columnCheck = (changeX > 0)? 1 : -1;
-		int rowCheck = (changeY > 0)? 1 : -1;
-		LevelLayer[] layers =  MapUtilities.level.getLevelLayers();
-		for (int i = 0; i < layers.length; i++) {
-			if (!layers[i].getType().equals("static")) {
-				continue;
-			}
-			if ((changeX != 0) && (changeY != 0)) {
-				if (staticCollisionInTile(i, rowPosition + rowCheck, columnPosition + columnCheck)) {
-					return true;
-				}
-			}
-			if ((changeX != 0) && staticCollisionInTile(i, rowPosition, columnPosition + columnCheck)) {
-				return true;
-			}
-			if (changeY != 0) {
-				if (staticCollisionInTile(i, rowPosition + rowCheck, columnPosition)) {
-					return true;
-				}
-			}
-		}
-		return false;
+	long sweepStatic(int changeX, int changeY) {
+		int size = PhysicsUtilities.toSubPixels(drawSize);
+		CollisionGrid collisionGrid = MapUtilities.level.getCollisionGrid();
+		return collisionGrid.sweep(store.getPositionX(id), store.getPositionY(id), size, size, changeX, changeY);
 	}
 	
 	/**
 	 * This function is used to check if the object collides with any
-	 * dynamic object. The parameters of {@link #updatePosition(int, int)}
-	 * are passed here to check for collision before using them to
-	 * update the position of the object.
+	 * dynamic object in the cells next to it, in the direction of a
+	 * movement, before the object is moved. Only the signs of the
+	 * movement are used.
 	 * 
 	 * @param changeX  The amount that the x position is desired to be changed by
 	 * if no collision were to occur.
@@ -294,88 +322,123 @@ public abstract class DynamicObject extends GameObject {
 	 * 
 	 * @return A boolean, true if a collision is detected, and false otherwise.
 	 */
-	private boolean getDynamicCollisionCheck(int changeX, int changeY) {
+	boolean getDynamicCollisionCheck(int changeX, int changeY) {
+		int rowPosition = getRowPosition();
+		int columnPosition = getColumnPosition();
 		int columnCheck = (changeX > 0)? 1 : -1;
 		int rowCheck = (changeY > 0)? 1 : -1;
-		LevelLayer[] layers =  MapUtilities.level.getLevelLayers();
-		for (int i = 0; i < layers.length; i++) {
-			if (!layers[i].getType().equals("dynamic")) {
-				continue;
-			}
-			if ((changeX != 0) && (changeY != 0)) {
-				if (dynamicCollisionInTile(i, rowPosition + rowCheck, columnPosition + columnCheck)) {
-					return true;
-				}
-			}
-			if ((changeX != 0) && dynamicCollisionInTile(i, rowPosition, columnPosition + columnCheck)) {
-				return true;
-			}
-			if ((changeY != 0) && dynamicCollisionInTile(i, rowPosition + rowCheck, columnPosition)) {
+		if ((changeX != 0) && (changeY != 0)) {
+			if (dynamicCollisionInTile(rowPosition + rowCheck, columnPosition + columnCheck)) {
 				return true;
 			}
 		}
+		if ((changeX != 0) && dynamicCollisionInTile(rowPosition, columnPosition + columnCheck)) {
+			return true;
+		}
+		if ((changeY != 0) && dynamicCollisionInTile(rowPosition + rowCheck, columnPosition)) {
+			return true;
+		}
 		return false;
 	}
 	
 	/**
-	 * This function checks if the object collides with any static object
-	 * in a specified tile of a specified layer.
+	 * This function checks if the object collides with any dynamic object
+	 * in a specified tile, going through the objects in the tile in the
+	 * occupancy grid of its store (see {@link EntityStore#getEntityAt(int, int)}).
 	 * 
-	 * @param collisionLayerID  The layer to check collision with.
 	 * @param i  The row position of the tile to check collision with.
 	 * @param j  The column position of the tile to check collision with.
 	 * 
 	 * @return  A boolean, true if a collision occures, and false otherwise.
 	 */
-	private boolean staticCollisionInTile(int collisionLayerID, int i, int j) {
+	private boolean dynamicCollisionInTile(int i, int j) {
 		if ((i < 0) || (i >= MapUtilities.level.getHeight())) {
 			return true;
 		}
 		if ((j < 0) || (j >= MapUtilities.level.getWidth())) {
 			return true;
 		}
-		LevelLayer collisionLayer = MapUtilities.level.getLevelLayers()[collisionLayerID];
-		int collisionLayerElement = collisionLayer.getLayerDataElement(i, j);
-		String collisionTileSetName = collisionLayer.getTileSetName(collisionLayerElement);
-		if (collisionTileSetName == null) {
-			return false;
+		for (int collisionID = store.getEntityAt(i, j); collisionID != -1; collisionID = store.getNextEntityInCell(collisionID)) {
+			if ((collisionID != id) && intersects(store.getEntity(collisionID))) {
+				return true;
+			}
 		}
-		TileSet collisionTileSet = collisionLayer.getTileSet(collisionTileSetName);
-		int tileID = collisionTileSet.getTileID(collisionLayerElement);
-		return collisionTileSet.getTileObject(tileID).isColliding(getBounds(), i, j, drawSize);
+		return false;
 	}
 	
 	/**
-	 * This function checks if the object collides with any dynamic object
-	 * in a specified tile of a specified layer.
+	 * This function writes the state of this object (position in
+	 * sub-pixels, health and current tile value) for a world snapshot.
+	 * Any class inheriting from {@code DynamicObject} that has its own
+	 * state should override this, and call it first.
 	 * 
-	 * @param collisionLayerID  The layer to check collision with.
-	 * @param i  The row position of the tile to check collision with.
-	 * @param j  The column position of the tile to check collision with.
+	 * @param output  The output to write the state to.
 	 * 
-	 * @return  A boolean, true if a collision occures, and false otherwise.
+	 * @throws IOException  If writing to the output fails.
+	 * 
+	 * @see mapControls.WorldSnapshot
 	 */
-	private boolean dynamicCollisionInTile(int collisionLayerID, int i, int j) {
-		if ((i < 0) || (i >= MapUtilities.level.getHeight())) {
-			return true;
-		}
-		if ((j < 0) || (j >= MapUtilities.level.getWidth())) {
-			return true;
-		}
-		LevelLayer collisionLayer = MapUtilities.level.getLevelLayers()[collisionLayerID];
-		int collisionLayerElement = collisionLayer.getLayerDataElement(i, j);
-		DynamicObject collisionObject = GameObjectUtilities.getDynamicObjectWithTileValue(collisionLayerElement);
-		if (collisionObject == null) {
-			return false;
-		}
-		return getBounds().intersects(collisionObject.getBounds());
+	public void writeState(DataOutput output) throws IOException {
+		output.writeInt(store.getPositionX(id));
+		output.writeInt(store.getPositionY(id));
+		output.writeInt(store.getHealth(id));
+		output.writeInt(store.getTileValue(id));
+	}
+	
+	/**
+	 * This function reads the state of this object from a world snapshot,
+	 * in the same order it was written by {@link #writeState(DataOutput)}.
+	 * Any class that overrides {@code writeState} should override this too.
+	 * 
+	 * @param input  The input to read the state from.
+	 * 
+	 * @throws IOException  If reading from the input fails.
+	 * 
+	 * @see mapControls.WorldSnapshot
+	 */
+	public void readState(DataInput input) throws IOException {
+		store.setPosition(id, input.readInt(), input.readInt());
+		store.setHealth(id, input.readInt());
+		store.setTileValue(id, input.readInt());
+	}
+	
+	/**
+	 * This function should be implemented by any class inheriting
+	 * from {@code DynamicObject}. It computes the velocity the object
+	 * wants to move by on this update, from its input or its AI, and
+	 * sets it using {@link #setVelocity(int, int)}.
+	 */
+	protected abstract void updateVelocity();
+	
+	/**
+	 * This function tells whether {@link #updateVelocity()} can run on
+	 * another thread, in parallel with the other objects. It can only
+	 * read the shared state, and write the state of this object. This
+	 * should be overridden by any class whose velocity depends on
+	 * state that is not safe to read from another thread.
+	 * 
+	 * @return  A boolean, true if the velocity can be updated in parallel, false otherwise.
+	 */
+	protected boolean isVelocityUpdateParallel() {
+		return true;
+	}
+	
+	/**
+	 * This function returns the number of updates the velocity computed by
+	 * {@link #updateVelocity()} is used for, as the AI of an object far from
+	 * the camera and the player doesn't run on every update (see {@link AIScheduler}).
+	 * 
+	 * @return  The number of updates, 1 when the AI runs on every update.
+	 */
+	protected int getAISteps() {
+		return store.getAISteps(id);
 	}
 	
 	/**
 	 * This function should be implemented by any class inheriting
-	 * from {@code DynamicObject}. Any animation-update-related or
-	 * position-update-related functionalities should be done here.
+	 * from {@code DynamicObject}. It updates the hits the object
+	 * gives or takes, after every object has moved.
 	 */
-	public abstract void update();
+	public abstract void updateHit();
 	
 }
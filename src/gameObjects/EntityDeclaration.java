@@ -0,0 +1,178 @@
+package gameObjects;
+
+import java.awt.Point;
+
+import org.json.JSONObject;
+
+/**
+ * The {@code EntityDeclaration} class describes a dynamic object to be
+ * spawned in a level: its type, the layer it lives in, the tileset it is
+ * drawn using, its unique name, and any parameter its type needs.
+ *
+ * <p>Declarations are read from the 'entities' JSON array of the level's
+ * JSON file, where each element looks like:
+ * {@code {"type": "monster", "tileSet": "ninjaA", "name": "monster", "layer": 2, "speed": 1}}.
+ * Only 'type', 'tileSet' and 'name' are required. Every key of the element
+ * is a parameter, which the factory of the type may read
+ * (see {@link EntityRegistry}). The 'row' and 'column' parameters name the
+ * cell the object spawns in; without them, the object takes the next free
+ * spawn cell of its tileset.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class EntityDeclaration {
+	/**
+	 * The index of the layer dynamic objects live in, when a declaration doesn't specify it.
+	 */
+	public static final int DEFAULT_LAYER_ID = 2;
+
+	/**
+	 * The type of the object, as registered in {@link EntityRegistry}.
+	 */
+	private String type;
+
+	/**
+	 * The index of the layer in the level's layers array.
+	 */
+	private int layerID;
+
+	/**
+	 * The name of the tile set the object is drawn using.
+	 */
+	private String tileSetName;
+
+	/**
+	 * The unique name of the object.
+	 */
+	private String name;
+
+	/**
+	 * The parameters of the object, such as its speed or its health.
+	 */
+	private JSONObject parameters;
+
+	/**
+	 * The cell the object spawns in, x representing the row and y representing
+	 * the column, null if it has none. It is read from the 'row' and 'column'
+	 * parameters if they are declared, and assigned when the declarations of
+	 * the level are read otherwise (see {@link GameObjectUtilities#getEntityDeclarations()}).
+	 */
+	private Point spawnCell;
+
+	/**
+	 * This constructor constructs the {@code EntityDeclaration} object.
+	 *
+	 * @param type  The type of the object.
+	 * @param layerID  The index of the layer in the level's layers array.
+	 * @param tileSetName  The name of the tile set the object is drawn using.
+	 * @param name  The unique name of the object.
+	 * @param parameters  The parameters of the object.
+	 */
+	public EntityDeclaration(String type, int layerID, String tileSetName, String name, JSONObject parameters) {
+		this.type = type;
+		this.layerID = layerID;
+		this.tileSetName = tileSetName;
+		this.name = name;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * This constructor constructs the {@code EntityDeclaration} object
+	 * from an element of the level's 'entities' JSON array.
+	 *
+	 * @param entityObject  The JSON object of the declaration.
+	 */
+	public EntityDeclaration(JSONObject entityObject) {
+		this(
+			entityObject.getString("type"),
+			entityObject.optInt("layer", DEFAULT_LAYER_ID),
+			entityObject.getString("tileSet"),
+			entityObject.getString("name"),
+			entityObject
+		);
+		if (hasParameter("row") || hasParameter("column")) {
+			spawnCell = new Point(getIntParameter("row", -1), getIntParameter("column", -1));
+		}
+	}
+
+	/**
+	 * Getter for {@link #type}.
+	 *
+	 * @return  The type of the object.
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Getter for {@link #layerID}.
+	 *
+	 * @return  The index of the layer in the level's layers array.
+	 */
+	public int getLayerID() {
+		return layerID;
+	}
+
+	/**
+	 * Getter for {@link #tileSetName}.
+	 *
+	 * @return  The name of the tile set the object is drawn using.
+	 */
+	public String getTileSetName() {
+		return tileSetName;
+	}
+
+	/**
+	 * Getter for {@link #name}.
+	 *
+	 * @return  The unique name of the object.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter for {@link #spawnCell}.
+	 *
+	 * @return  A copy of the spawn cell, x representing the row and
+	 * y representing the column, null if the object has none.
+	 */
+	public Point getSpawnCell() {
+		return (spawnCell == null)? null : new Point(spawnCell);
+	}
+
+	/**
+	 * Setter for {@link #spawnCell}.
+	 *
+	 * @param spawnCell  The spawn cell, x representing the row and y representing the column, or null.
+	 */
+	void setSpawnCell(Point spawnCell) {
+		this.spawnCell = (spawnCell == null)? null : new Point(spawnCell);
+	}
+
+	/**
+	 * This function returns an integer parameter of the object.
+	 *
+	 * @param key  The name of the parameter.
+	 * @param defaultValue  The value returned if the parameter is not declared.
+	 *
+	 * @return  The value of the parameter.
+	 */
+	public int getIntParameter(String key, int defaultValue) {
+		return parameters.optInt(key, defaultValue);
+	}
+
+	/**
+	 * This function checks whether a parameter of the object is declared.
+	 *
+	 * @param key  The name of the parameter.
+	 *
+	 * @return  A boolean, true if the parameter is declared, false otherwise.
+	 */
+	public boolean hasParameter(String key) {
+		return parameters.has(key);
+	}
+}
@@ -0,0 +1,24 @@
+package gameObjects;
+
+/**
+ * The {@code EntityFactory} interface creates the dynamic objects of
+ * a type, from their declarations (see {@link EntityRegistry}).
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface EntityFactory {
+	/**
+	 * This function creates a dynamic object, positioned according to the
+	 * current level, and writes its state in a store.
+	 *
+	 * @param declaration  The declaration of the object.
+	 * @param store  The store that keeps the state of the object, which has room for it.
+	 *
+	 * @return  The new dynamic object.
+	 */
+	DynamicObject createEntity(EntityDeclaration declaration, EntityStore store);
+}
@@ -0,0 +1,121 @@
+package gameObjects;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The {@code EntityRegistry} class keeps, for every type of dynamic
+ * object, the factory that creates its objects and its default health.
+ * It is used to spawn the dynamic objects declared by a level
+ * (see {@link EntityDeclaration}).
+ *
+ * <p>The 'player' and 'monster' types are registered by default.
+ * Other types can be added using {@link #registerEntityType(String, int, EntityFactory)}.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class EntityRegistry {
+	/**
+	 * The factories of the dynamic objects, by type.
+	 */
+	private static final HashMap<String, EntityFactory> entityFactories = new HashMap<>();
+
+	/**
+	 * The health of the dynamic objects of a new game, by type.
+	 */
+	private static final HashMap<String, Integer> defaultHealths = new HashMap<>();
+
+	static {
+		registerEntityType("player", 7, (declaration, store)->new Player(
+			store, declaration.getLayerID(), declaration.getTileSetName(), declaration.getSpawnCell(),
+			declaration.getIntParameter("speed", 1), declaration.getName()
+		));
+		registerEntityType("monster", 3, (declaration, store)->new Monster(
+			store, declaration.getLayerID(), declaration.getTileSetName(), declaration.getSpawnCell(),
+			declaration.getIntParameter("speed", 1), declaration.getName()
+		));
+	}
+
+	/**
+	 * This function registers a type of dynamic object, replacing
+	 * any previous registration of the same type.
+	 *
+	 * @param type  The type of the objects.
+	 * @param defaultHealth  The health of the objects of a new game.
+	 * @param factory  The factory that creates the objects.
+	 */
+	public static synchronized void registerEntityType(String type, int defaultHealth, EntityFactory factory) {
+		entityFactories.put(type, factory);
+		defaultHealths.put(type, defaultHealth);
+	}
+
+	/**
+	 * This function checks whether a type of dynamic object is registered.
+	 *
+	 * @param type  The type of the objects.
+	 *
+	 * @return  A boolean, true if the type is registered, false otherwise.
+	 */
+	public static synchronized boolean isEntityTypeRegistered(String type) {
+		return entityFactories.containsKey(type);
+	}
+
+	/**
+	 * This function creates the dynamic object of a declaration, using the
+	 * factory of its type, straight into a store.
+	 *
+	 * @param declaration  The declaration of the object.
+	 * @param store  The store that keeps the state of the object.
+	 *
+	 * @return  The new dynamic object, null if its type is not registered or the store is full.
+	 */
+	public static DynamicObject createEntity(EntityDeclaration declaration, EntityStore store) {
+		EntityFactory factory;
+		synchronized (EntityRegistry.class) {
+			factory = entityFactories.get(declaration.getType());
+		}
+		if (factory == null) {
+			System.out.println("Entity type " + declaration.getType() + " is not registered");
+			return null;
+		}
+		if (store.size() >= store.getCapacity()) {
+			System.out.println("Entity store is full, entity " + declaration.getName() + " skipped");
+			return null;
+		}
+		return factory.createEntity(declaration, store);
+	}
+
+	/**
+	 * This function creates the dynamic objects of many declarations at once,
+	 * into an {@link EntityStore} sized up front, which every object is written
+	 * in as it is constructed. Declarations of unregistered types are skipped.
+	 *
+	 * @param declarations  The declarations of the objects, in order.
+	 *
+	 * @return  The store of the new dynamic objects, with the ids following
+	 * the order of their declarations.
+	 */
+	public static EntityStore createEntities(List<EntityDeclaration> declarations) {
+		EntityStore store = new EntityStore(declarations.size());
+		for (EntityDeclaration declaration : declarations) {
+			createEntity(declaration, store);
+		}
+		return store;
+	}
+
+	/**
+	 * This function returns the health of the dynamic object of a declaration
+	 * in a new game. It is the declared 'health' parameter if there is one,
+	 * and the default health of the object's type otherwise.
+	 *
+	 * @param declaration  The declaration of the object.
+	 *
+	 * @return  The health of the object in a new game, 0 if its type is not registered.
+	 */
+	public static synchronized int getDefaultHealth(EntityDeclaration declaration) {
+		return declaration.getIntParameter("health", defaultHealths.getOrDefault(declaration.getType(), 0));
+	}
+}
@@ -0,0 +1,832 @@
+package gameObjects;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import mapControls.LevelLayer;
+import mapControls.MapUtilities;
+import physics.PhysicsUtilities;
+
+/**
+ * The {@code EntityStore} class keeps the state of many dynamic objects
+ * in parallel primitive arrays, one array per attribute, indexed by the
+ * id of the object in the store. The {@link DynamicObject} instances are
+ * views over a slot of the store, and only keep the state that is specific
+ * to their type.
+ *
+ * <p>The objects are updated by systems, each iterating over the arrays
+ * linearly, in order: {@link #updateAliveStates()}, {@link #updateVelocities()},
+ * {@link #updateMovements()}, {@link #updateHits()}, and {@link #updateAnimations()}.
+ * Only alive objects are updated.</p>
+ * 
+ * <p>The positions and velocities of the objects are in fixed-point sub-pixels
+ * (see {@link PhysicsUtilities#SUBPIXEL_BITS}). The tile positions and the pixel
+ * offsets are derived from them: an object is in the cell its center is in.</p>
+ * 
+ * <p>An update has two phases. In the first one, {@link #updateVelocities()}
+ * computes the intents of the objects: their velocities, and how far they can
+ * move along them before hitting the static layers, using a swept test against
+ * the level's {@link physics.CollisionGrid}. Nothing but the objects' own intents is
+ * written in that phase, so every object reads the positions and the layers
+ * as they were at the end of the previous update, and the objects can be
+ * handled in parallel. In the second one, the other systems commit the
+ * intents, in the order of the ids, on the calling thread. The result is
+ * the same whether the first phase runs in parallel or not.</p>
+ * 
+ * <p>The store keeps an occupancy grid of the level, holding the list of
+ * the alive objects in every cell, so the objects in a cell are found
+ * in constant time (see {@link #getEntityAt(int, int)}). The grid is only
+ * written when an object changes cell, or dies. The cells of the dynamic
+ * layers are not written on updates, as they are only needed to persist
+ * the objects; they are written by {@link #syncLayers()}. The latest changes
+ * of the grid are kept in a journal, so that incremental path planners
+ * only look at the cells that changed (see {@link #getOccupancyChangesCount()}).</p>
+ * 
+ * <p>The AI of the objects doesn't run on every update for all of them:
+ * the store's {@link AIScheduler} decides which objects run it, by their
+ * distance to the camera and to the player. The other objects keep moving
+ * by the velocity their AI last computed.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class EntityStore {
+	/**
+	 * The name of the system property that disables the parallel
+	 * update of the intents, when set to 'false'.
+	 */
+	public static final String PARALLEL_UPDATE_PROPERTY = "parallelUpdate";
+	
+	/**
+	 * The number of objects from which the intents are updated in parallel.
+	 * Under it, the cost of dispatching the work to other threads is higher
+	 * than the work itself.
+	 */
+	public static final int PARALLEL_UPDATE_THRESHOLD = 64;
+	
+	/**
+	 * The minimum number of the latest changes of the occupancy grid kept in its journal.
+	 */
+	public static final int OCCUPANCY_JOURNAL_SIZE = 1024;
+	
+	/**
+	 * The number of changes of the occupancy grid kept in its journal for
+	 * every object of the store. Every cell an object moves to writes two
+	 * changes (the cell it leaves and the one it enters), so the journal
+	 * keeps a few cells of movement of every object, which is what happens
+	 * between two path requests of an object.
+	 */
+	public static final int OCCUPANCY_JOURNAL_CHANGES_PER_OBJECT = 8;
+	
+	/**
+	 * Whether the intents are updated in parallel, on the threads of the
+	 * common {@code ForkJoinPool}, when there are enough objects.
+	 */
+	public static volatile boolean parallelUpdate =
+		!"false".equals(System.getProperty(PARALLEL_UPDATE_PROPERTY));
+	
+	/**
+	 * The views of the objects, by id.
+	 */
+	private final DynamicObject[] entities;
+
+	/**
+	 * The number of objects in the store.
+	 */
+	private int size = 0;
+
+	/**
+	 * The row positions (in tiles) of the objects.
+	 */
+	private final int[] rowPositions;
+
+	/**
+	 * The column positions (in tiles) of the objects.
+	 */
+	private final int[] columnPositions;
+
+	/**
+	 * The x positions (in sub-pixels) of the top-left corners of the objects.
+	 */
+	private final int[] positionsX;
+
+	/**
+	 * The y positions (in sub-pixels) of the top-left corners of the objects.
+	 */
+	private final int[] positionsY;
+
+	/**
+	 * The health of the objects.
+	 */
+	private final int[] healths;
+
+	/**
+	 * The x velocities (in sub-pixels per update) the objects want to move by.
+	 */
+	private final int[] velocitiesX;
+
+	/**
+	 * The y velocities (in sub-pixels per update) the objects want to move by.
+	 */
+	private final int[] velocitiesY;
+
+	/**
+	 * The x distances (in sub-pixels) the objects can move by on this
+	 * update before hitting the static layers.
+	 */
+	private final int[] movementsX;
+
+	/**
+	 * The y distances (in sub-pixels) the objects can move by on this
+	 * update before hitting the static layers.
+	 */
+	private final int[] movementsY;
+	
+	/**
+	 * The current tile values of the objects, which are their animation frames.
+	 */
+	private final int[] tileValues;
+
+	/**
+	 * The states of the objects. True means the object is alive and false means it is dead.
+	 */
+	private final boolean[] alive;
+	
+	/**
+	 * The row positions (in tiles) the objects were last written at in their layers.
+	 */
+	private final int[] layerRowPositions;
+	
+	/**
+	 * The column positions (in tiles) the objects were last written at in their layers.
+	 */
+	private final int[] layerColumnPositions;
+	
+	/**
+	 * The id of the first alive object in every cell of the level, -1 for the
+	 * empty cells. It is null until the store is indexed by {@link #indexOccupancy()}.
+	 */
+	private int[][] occupancy;
+
+	/**
+	 * The id of the next alive object in the cell of every object, -1 for the
+	 * last one, so that the objects sharing a cell are all kept in the grid.
+	 */
+	private final int[] nextInCell;
+
+	/**
+	 * The journal of the changes of the occupancy grid: the cells written by
+	 * the latest changes, as {@code row * width + column}, in a circular buffer.
+	 * It is sized from the capacity of the store, so that it doesn't wrap
+	 * between two requests of an object however many objects move.
+	 */
+	private final int[] occupancyJournal;
+
+	/**
+	 * The number of changes written in {@link #occupancyJournal} since the store was created.
+	 */
+	private long occupancyJournalCount = 0;
+
+	/**
+	 * The scheduler deciding which objects run their AI on every update.
+	 */
+	private final AIScheduler scheduler;
+
+	/**
+	 * This constructor constructs an empty {@code EntityStore} object, with all
+	 * its arrays sized up front.
+	 *
+	 * @param capacity  The maximum number of objects in the store.
+	 */
+	public EntityStore(int capacity) {
+		entities = new DynamicObject[capacity];
+		rowPositions = new int[capacity];
+		columnPositions = new int[capacity];
+		positionsX = new int[capacity];
+		positionsY = new int[capacity];
+		healths = new int[capacity];
+		velocitiesX = new int[capacity];
+		velocitiesY = new int[capacity];
+		movementsX = new int[capacity];
+		movementsY = new int[capacity];
+		tileValues = new int[capacity];
+		alive = new boolean[capacity];
+		layerRowPositions = new int[capacity];
+		layerColumnPositions = new int[capacity];
+		nextInCell = new int[capacity];
+		scheduler = new AIScheduler(capacity);
+		occupancyJournal = new int[Math.max(OCCUPANCY_JOURNAL_SIZE, capacity * OCCUPANCY_JOURNAL_CHANGES_PER_OBJECT)];
+	}
+
+	/**
+	 * This function adds an object to the store, as alive and not moving,
+	 * from the tile it is written at in its layer and its pixel offsets.
+	 *
+	 * @param entity  The view of the object.
+	 * @param rowPosition  The row position (in tiles) of the object.
+	 * @param columnPosition  The column position (in tiles) of the object.
+	 * @param rowPixelOffset  The row pixel offset of the object.
+	 * @param columnPixelOffset  The column pixel offset of the object.
+	 * @param health  The health of the object.
+	 * @param tileValue  The current tile value of the object.
+	 *
+	 * @return  The id of the object in the store.
+	 */
+	int add(DynamicObject entity, int rowPosition, int columnPosition,
+			int rowPixelOffset, int columnPixelOffset, int health, int tileValue) {
+		int id = add(entity,
+			PhysicsUtilities.toSubPixels(columnPosition * entity.drawSize + columnPixelOffset),
+			PhysicsUtilities.toSubPixels(rowPosition * entity.drawSize + rowPixelOffset),
+			health, tileValue);
+		layerRowPositions[id] = rowPosition;
+		layerColumnPositions[id] = columnPosition;
+		return id;
+	}
+
+	/**
+	 * This function adds an object to the store, as alive and not moving.
+	 *
+	 * @param entity  The view of the object.
+	 * @param positionX  The x position (in sub-pixels) of the top-left corner of the object.
+	 * @param positionY  The y position (in sub-pixels) of the top-left corner of the object.
+	 * @param health  The health of the object.
+	 * @param tileValue  The current tile value of the object.
+	 *
+	 * @return  The id of the object in the store.
+	 */
+	private int add(DynamicObject entity, int positionX, int positionY, int health, int tileValue) {
+		int id = size++;
+		entities[id] = entity;
+		positionsX[id] = positionX;
+		positionsY[id] = positionY;
+		rowPositions[id] = getCell(id, positionY);
+		columnPositions[id] = getCell(id, positionX);
+		healths[id] = health;
+		tileValues[id] = tileValue;
+		alive[id] = true;
+		layerRowPositions[id] = rowPositions[id];
+		layerColumnPositions[id] = columnPositions[id];
+		occupy(id);
+		return id;
+	}
+
+	/**
+	 * This function returns the views of all the objects of the store.
+	 *
+	 * @return  A new array of the views, by id.
+	 */
+	public DynamicObject[] getEntities() {
+		DynamicObject[] storedEntities = new DynamicObject[size];
+		System.arraycopy(entities, 0, storedEntities, 0, size);
+		return storedEntities;
+	}
+
+	/**
+	 * Getter for {@link #size}.
+	 *
+	 * @return  The number of objects in the store.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This function returns the maximum number of objects in the store.
+	 *
+	 * @return  The capacity of the store.
+	 */
+	public int getCapacity() {
+		return entities.length;
+	}
+
+	/**
+	 * This function builds the occupancy grid from the positions of the
+	 * alive objects, sized to the current level. It must be called once
+	 * the objects are positioned, and again whenever they are positioned
+	 * against another level. The objects are considered written in their
+	 * layers at their current positions.
+	 */
+	public void indexOccupancy() {
+		occupancy = new int[MapUtilities.level.getHeight()][MapUtilities.level.getWidth()];
+		for (int[] occupancyRow : occupancy) {
+			Arrays.fill(occupancyRow, -1);
+		}
+		for (int id = 0; id < size; id++) {
+			layerRowPositions[id] = rowPositions[id];
+			layerColumnPositions[id] = columnPositions[id];
+			occupy(id);
+		}
+		// The whole grid changed, so the readers of the journal must see they missed changes.
+		occupancyJournalCount += occupancyJournal.length + 1;
+	}
+	
+	/**
+	 * This function returns the first alive object in a cell of the level.
+	 * The other objects in the cell are found using {@link #getNextEntityInCell(int)}.
+	 * 
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 * 
+	 * @return  The id of the first object in the cell, -1 if the cell is empty,
+	 * out of the level, or if the store is not indexed.
+	 */
+	public int getEntityAt(int row, int column) {
+		if ((occupancy == null) || (row < 0) || (row >= occupancy.length)
+				|| (column < 0) || (column >= occupancy[row].length)) {
+			return -1;
+		}
+		return occupancy[row][column];
+	}
+	
+	/**
+	 * This function returns the alive object following an object in its cell.
+	 * 
+	 * @param id  The id of an object in the cell, such as the one returned
+	 * by {@link #getEntityAt(int, int)}.
+	 * 
+	 * @return  The id of the next object in the cell, -1 if there is none.
+	 */
+	public int getNextEntityInCell(int id) {
+		return nextInCell[id];
+	}
+	
+	/**
+	 * This function returns the number of changes of the occupancy grid since
+	 * the store was created. The changes from a given count on are read using
+	 * {@link #getOccupancyChange(long)}, as long as no more than {@link #getOccupancyJournalSize()}
+	 * changes happened since then; otherwise, the whole grid must be read again.
+	 * 
+	 * @return  The number of changes.
+	 */
+	public long getOccupancyChangesCount() {
+		return occupancyJournalCount;
+	}
+	
+	/**
+	 * This function returns the number of the latest changes of the occupancy
+	 * grid kept in its journal.
+	 * 
+	 * @return  The size of the journal.
+	 */
+	public int getOccupancyJournalSize() {
+		return occupancyJournal.length;
+	}
+	
+	/**
+	 * This function returns the cell written by a change of the occupancy grid.
+	 * 
+	 * @param change  The number of the change, counted from 0 (see {@link #getOccupancyChangesCount()}).
+	 * 
+	 * @return  The cell, as {@code row * width + column}, where width is the width of the level.
+	 */
+	public int getOccupancyChange(long change) {
+		return occupancyJournal[(int) (change % occupancyJournal.length)];
+	}
+	
+	/**
+	 * This function writes a change of a cell of the occupancy grid in its journal.
+	 * 
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 */
+	private void journalOccupancyChange(int row, int column) {
+		occupancyJournal[(int) (occupancyJournalCount % occupancyJournal.length)] = (row * occupancy[row].length) + column;
+		occupancyJournalCount++;
+	}
+	
+	/**
+	 * This function returns the view of an object.
+	 * 
+	 * @param id  The id of the object.
+	 * 
+	 * @return  The view of the object.
+	 */
+	public DynamicObject getEntity(int id) {
+		return entities[id];
+	}
+	
+	/**
+	 * This function writes the object first in its cell of the occupancy grid,
+	 * if it is alive. The objects already in the cell follow it.
+	 * 
+	 * @param id  The id of the object.
+	 */
+	private void occupy(int id) {
+		int row = rowPositions[id];
+		int column = columnPositions[id];
+		if (!alive[id] || (occupancy == null) || (row < 0) || (row >= occupancy.length)
+				|| (column < 0) || (column >= occupancy[row].length)) {
+			return;
+		}
+		nextInCell[id] = occupancy[row][column];
+		occupancy[row][column] = id;
+		journalOccupancyChange(row, column);
+	}
+	
+	/**
+	 * This function removes the object from its cell of the occupancy grid,
+	 * if it is written there.
+	 * 
+	 * @param id  The id of the object.
+	 */
+	private void vacate(int id) {
+		int row = rowPositions[id];
+		int column = columnPositions[id];
+		int previousID = -1;
+		int cellID = getEntityAt(row, column);
+		while ((cellID != -1) && (cellID != id)) {
+			previousID = cellID;
+			cellID = nextInCell[cellID];
+		}
+		if (cellID == -1) {
+			return;
+		}
+		if (previousID == -1) {
+			occupancy[row][column] = nextInCell[id];
+		}
+		else {
+			nextInCell[previousID] = nextInCell[id];
+		}
+		nextInCell[id] = -1;
+		journalOccupancyChange(row, column);
+	}
+	
+	/**
+	 * This function writes the alive objects in the cells of their layers at
+	 * their current positions, and empties the cells they were last written at.
+	 * It must be called before the layers are persisted.
+	 */
+	public void syncLayers() {
+		LevelLayer[] layers = MapUtilities.level.getLevelLayers();
+		// All cells are emptied first, so an object moving into the previous cell of another is kept.
+		for (int id = 0; id < size; id++) {
+			if (alive[id]) {
+				layers[entities[id].layerID].setLayerDataElement(layerRowPositions[id], layerColumnPositions[id], -1);
+			}
+		}
+		for (int id = 0; id < size; id++) {
+			if (alive[id]) {
+				layers[entities[id].layerID].setLayerDataElement(rowPositions[id], columnPositions[id], tileValues[id]);
+				layerRowPositions[id] = rowPositions[id];
+				layerColumnPositions[id] = columnPositions[id];
+			}
+		}
+	}
+
+	/**
+	 * This function marks every object with no health left as dead.
+	 */
+	public void updateAliveStates() {
+		for (int id = 0; id < size; id++) {
+			if (alive[id] && (healths[id] < 1)) {
+				setAlive(id, false);
+			}
+		}
+	}
+
+	/**
+	 * This function computes the intent of every alive object: the velocity it
+	 * wants to move by, from its input or its AI (see {@link DynamicObject#updateVelocity()}),
+	 * and how far it can move along it before hitting the static layers.
+	 * The velocity is only computed for the objects the {@link AIScheduler}
+	 * schedules on this update; the others keep their velocity.
+	 * 
+	 * <p>If {@link #parallelUpdate} is set and there are at least {@link #PARALLEL_UPDATE_THRESHOLD}
+	 * objects, the objects that allow it (see {@link DynamicObject#isVelocityUpdateParallel()})
+	 * are handled in parallel, and the others on the calling thread.</p>
+	 */
+	public void updateVelocities() {
+		scheduler.update(this);
+		if (!parallelUpdate || (size < PARALLEL_UPDATE_THRESHOLD)) {
+			for (int id = 0; id < size; id++) {
+				updateIntent(id);
+			}
+			return;
+		}
+		for (int id = 0; id < size; id++) {
+			if (!entities[id].isVelocityUpdateParallel()) {
+				updateIntent(id);
+			}
+		}
+		IntStream.range(0, size).parallel().forEach(id->{
+			if (entities[id].isVelocityUpdateParallel()) {
+				updateIntent(id);
+			}
+		});
+	}
+	
+	/**
+	 * This function computes the intent of an object, if it is alive. Only
+	 * the object's own state is written.
+	 * 
+	 * @param id  The id of the object.
+	 */
+	private void updateIntent(int id) {
+		if (!alive[id]) {
+			return;
+		}
+		if (scheduler.isDue(id)) {
+			entities[id].updateVelocity();
+		}
+		movementsX[id] = 0;
+		movementsY[id] = 0;
+		if ((velocitiesX[id] != 0) || (velocitiesY[id] != 0)) {
+			long target = entities[id].sweepStatic(velocitiesX[id], velocitiesY[id]);
+			movementsX[id] = PhysicsUtilities.unpackX(target) - positionsX[id];
+			movementsY[id] = PhysicsUtilities.unpackY(target) - positionsY[id];
+		}
+	}
+
+	/**
+	 * This function moves every alive object as far as the static layers
+	 * let it along its velocity (as computed by {@link #updateVelocities()}),
+	 * unless it collides with the objects moved before it.
+	 */
+	public void updateMovements() {
+		for (int id = 0; id < size; id++) {
+			if (!alive[id] || ((movementsX[id] == 0) && (movementsY[id] == 0))) {
+				continue;
+			}
+			if (!entities[id].getDynamicCollisionCheck(movementsX[id], movementsY[id])) {
+				setPosition(id, positionsX[id] + movementsX[id], positionsY[id] + movementsY[id]);
+			}
+		}
+	}
+
+	/**
+	 * This function updates the hits of every alive object (see {@link DynamicObject#updateHit()}).
+	 */
+	public void updateHits() {
+		for (int id = 0; id < size; id++) {
+			if (alive[id]) {
+				entities[id].updateHit();
+			}
+		}
+	}
+
+	/**
+	 * This function advances the animation frame of every alive object,
+	 * in the direction of its velocity.
+	 */
+	public void updateAnimations() {
+		for (int id = 0; id < size; id++) {
+			if (!alive[id]) {
+				continue;
+			}
+			DynamicObject entity = entities[id];
+			entity.animator.resetPositionFlags();
+			entity.animator.leftDirectionFlag = velocitiesX[id] < 0;
+			entity.animator.rightDirectionFlag = velocitiesX[id] > 0;
+			entity.animator.upDirectionFlag = velocitiesY[id] < 0;
+			entity.animator.downDirectionFlag = velocitiesY[id] > 0;
+			tileValues[id] = entity.animator.getNextTileIndex(tileValues[id]);
+		}
+	}
+
+	/**
+	 * This function runs all the systems once, in order.
+	 */
+	public void update() {
+		updateAliveStates();
+		updateVelocities();
+		updateMovements();
+		updateHits();
+		updateAnimations();
+	}
+
+	/**
+	 * This function returns the row position of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The row position (in tiles) of the object.
+	 */
+	public int getRowPosition(int id) {
+		return rowPositions[id];
+	}
+
+
+	/**
+	 * This function returns the column position of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The column position (in tiles) of the object.
+	 */
+	public int getColumnPosition(int id) {
+		return columnPositions[id];
+	}
+
+
+	/**
+	 * This function returns the row pixel offset of an object, which is the
+	 * distance in pixels between its y position and the top of its cell.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The row pixel offset of the object.
+	 */
+	public int getRowPixelOffset(int id) {
+		return PhysicsUtilities.toPixels(positionsY[id]) - rowPositions[id] * entities[id].drawSize;
+	}
+
+	/**
+	 * This function returns the column pixel offset of an object, which is the
+	 * distance in pixels between its x position and the left of its cell.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The column pixel offset of the object.
+	 */
+	public int getColumnPixelOffset(int id) {
+		return PhysicsUtilities.toPixels(positionsX[id]) - columnPositions[id] * entities[id].drawSize;
+	}
+
+	/**
+	 * This function returns the x position of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The x position (in sub-pixels) of the top-left corner of the object.
+	 */
+	public int getPositionX(int id) {
+		return positionsX[id];
+	}
+
+	/**
+	 * This function returns the y position of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The y position (in sub-pixels) of the top-left corner of the object.
+	 */
+	public int getPositionY(int id) {
+		return positionsY[id];
+	}
+
+	/**
+	 * This function sets the position of an object. If the object changes
+	 * cell, it is moved to its new cell of the occupancy grid.
+	 *
+	 * @param id  The id of the object.
+	 * @param positionX  The x position (in sub-pixels) of the top-left corner of the object.
+	 * @param positionY  The y position (in sub-pixels) of the top-left corner of the object.
+	 */
+	public void setPosition(int id, int positionX, int positionY) {
+		positionsX[id] = positionX;
+		positionsY[id] = positionY;
+		int rowPosition = getCell(id, positionY);
+		int columnPosition = getCell(id, positionX);
+		if ((rowPosition == rowPositions[id]) && (columnPosition == columnPositions[id])) {
+			return;
+		}
+		vacate(id);
+		rowPositions[id] = rowPosition;
+		columnPositions[id] = columnPosition;
+		occupy(id);
+	}
+
+	/**
+	 * This function computes the cell an object is in along an axis, which
+	 * is the cell its center is in.
+	 *
+	 * @param id  The id of the object.
+	 * @param position  The position (in sub-pixels) of the object along the axis.
+	 *
+	 * @return  The row or column of the cell.
+	 */
+	private int getCell(int id, int position) {
+		int cellSize = PhysicsUtilities.toSubPixels(entities[id].drawSize);
+		return Math.floorDiv(position + cellSize / 2, cellSize);
+	}
+
+	/**
+	 * This function returns the health of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The health of the object.
+	 */
+	public int getHealth(int id) {
+		return healths[id];
+	}
+
+	/**
+	 * This function sets the health of an object.
+	 *
+	 * @param id  The id of the object.
+	 * @param health  The health of the object.
+	 */
+	public void setHealth(int id, int health) {
+		healths[id] = health;
+	}
+
+	/**
+	 * This function returns the x velocity of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The x velocity (in sub-pixels per update) the object wants to move by.
+	 */
+	public int getVelocityX(int id) {
+		return velocitiesX[id];
+	}
+
+	/**
+	 * This function returns the y velocity of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The y velocity (in sub-pixels per update) the object wants to move by.
+	 */
+	public int getVelocityY(int id) {
+		return velocitiesY[id];
+	}
+
+	/**
+	 * This function returns the number of updates the velocity an object's
+	 * AI computes on the current update is used for (see {@link AIScheduler#getSteps(int)}).
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The number of updates.
+	 */
+	public int getAISteps(int id) {
+		return scheduler.getSteps(id);
+	}
+
+	/**
+	 * This function returns the AI tier of an object (see {@link AIScheduler}).
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The tier of the object.
+	 */
+	public int getAITier(int id) {
+		return scheduler.getTier(id);
+	}
+
+	/**
+	 * This function sets the velocity of an object.
+	 *
+	 * @param id  The id of the object.
+	 * @param velocityX  The x velocity (in sub-pixels per update) the object wants to move by.
+	 * @param velocityY  The y velocity (in sub-pixels per update) the object wants to move by.
+	 */
+	public void setVelocity(int id, int velocityX, int velocityY) {
+		velocitiesX[id] = velocityX;
+		velocitiesY[id] = velocityY;
+	}
+
+	/**
+	 * This function returns the current tile value of an object.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  The current tile value, which is the animation frame of the object.
+	 */
+	public int getTileValue(int id) {
+		return tileValues[id];
+	}
+
+	/**
+	 * This function sets the current tile value of an object.
+	 *
+	 * @param id  The id of the object.
+	 * @param tileValue  The current tile value, which is the animation frame of the object.
+	 */
+	public void setTileValue(int id, int tileValue) {
+		tileValues[id] = tileValue;
+	}
+
+	/**
+	 * This function checks whether an object is alive.
+	 *
+	 * @param id  The id of the object.
+	 *
+	 * @return  A boolean, true if the object is alive, false if it is dead.
+	 */
+	public boolean isAlive(int id) {
+		return alive[id];
+	}
+
+	/**
+	 * This function sets the state of an object. A dead object is
+	 * removed from the occupancy grid.
+	 *
+	 * @param id  The id of the object.
+	 * @param isAlive  True if the object is alive, false if it is dead.
+	 */
+	public void setAlive(int id, boolean isAlive) {
+		if (alive[id] == isAlive) {
+			return;
+		}
+		if (!isAlive) {
+			vacate(id);
+		}
+		alive[id] = isAlive;
+		occupy(id);
+	}
+}
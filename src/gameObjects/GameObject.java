@@ -22,22 +22,6 @@ public abstract class GameObject {
 	 */
 	protected TileSet tileSet;
 	
-	/**
-	 * The current tile value (within the data array of
-	 * the layer this object lives in) that represents it.
-	 */
-	protected int currentTileValue;
-	
-	/**
-	 * The current row position (in tiles) of the object.
-	 */
-	protected int rowPosition;
-	
-	/**
-	 * The current column position (in tiles) of the object.
-	 */
-	protected int columnPosition;
-	
 	/**
 	 * The size in pixels by which this object is drawn on the screen.
 	 * It is equal to the tile size of the level it belongs to.
@@ -53,7 +37,8 @@ public abstract class GameObject {
 	/**
 	 * This constructor constructs the basic structure of any
 	 * game object, identifying its layer, tileset... etc
-	 * The position is static and unsettable here.
+	 * The position is not kept here, but by the class inheriting
+	 * from this class.
 	 * 
 	 * @param layerID  The index of the layer in the level's layers array.
 	 * @param tileSetName  The name of the tile set this object is drawn using.
@@ -61,20 +46,16 @@ public abstract class GameObject {
 	public GameObject(int layerID, String tileSetName) {
 		this.layerID = layerID;
 		this.tileSet = MapUtilities.level.getLevelLayers()[this.layerID].getTileSet(tileSetName);
-		this.currentTileValue = this.tileSet.getFirstID();
-		this.rowPosition = 0;
-		this.columnPosition = 0;
 		this.drawSize = MapUtilities.level.getTileSize();
 	}
 	
 	/**
-	 * Getter for {@link #currentTileValue}
+	 * This function returns the current tile value (within the data
+	 * array of the layer this object lives in) that represents it.
 	 * 
 	 * @return  The current tile value representing this object.
 	 */
-	public int getCurrentTileValue() {
-		return currentTileValue;
-	}
+	public abstract int getCurrentTileValue();
 	
 	/**
 	 * Getter for {@link #tileSet}
@@ -86,22 +67,18 @@ public abstract class GameObject {
 	}
 	
 	/**
-	 * Getter for {@link #rowPosition}
+	 * This function returns the current row position of the object.
 	 * 
 	 * @return  The current row position (in tiles) of the object.
 	 */
-	public int getRowPosition() {
-		return rowPosition;
-	}
+	public abstract int getRowPosition();
 	
 	/**
-	 * Getter for {@link #columnPosition}
+	 * This function returns the current column position of the object.
 	 * 
 	 * @return  The current column position (in tiles) of the object.
 	 */ 
-	public int getColumnPosition() {
-		return columnPosition;
-	}
+	public abstract int getColumnPosition();
 	
 	/**
 	 * This is a general function that should be implemented by any
@@ -1,5 +1,17 @@
 package gameObjects;
 
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import mapControls.LevelLayer;
+import mapControls.MapUtilities;
+
 /**
  * The {@code GameObjectUtilities} class offers helper
  * definitions used with game objects in general.
@@ -11,60 +23,152 @@ package gameObjects;
  */
 public class GameObjectUtilities {
 	/**
-	 * An array that should store all the dynamic objects.
+	 * The store that keeps the state of all the dynamic objects.
 	 */
-	public static DynamicObject[] dynamicObjects = new DynamicObject[] {
-		new Player(2, "playerTileSet", 1, "player"),
-		new Monster(2, "ninjaA", 1, "monster"),
-		new Monster(2, "ninjaB", 1, "monster2")
-	};
+	public static EntityStore entityStore = createEntityStore();
 	
 	/**
-	 * An array of the states of all dynamic objects. True means
-	 * the object is alive and false means the object is dead.
-	 * <p>Example: {@code dynamicObjectsStates[i]} corresponds to the
-	 * state of {@code dynamicObjects[i]}.</p>
+	 * An array that should store all the dynamic objects, which are
+	 * the views of the objects of {@link #entityStore}, by id. The
+	 * player is always the first one.
 	 */
-	public static boolean[] dynamicObjectsStates = new boolean[] {
-		true, true, true
-	};
+	public static DynamicObject[] dynamicObjects = entityStore.getEntities();
 	
 	/**
-	 * This function updates all the dynamic objects by calling the 
-	 * {@code update} function on all individual objects in {@link #dynamicObjects}.
-	 * Only alive dynamic objects marked in {#link {@link #dynamicObjectsStates}
-	 * are updated.
+	 * This function creates a new store of all the dynamic objects
+	 * of the game, positioned according to the current level. The
+	 * objects are spawned in bulk from the level's declarations
+	 * (see {@link #getEntityDeclarations()}), using {@link EntityRegistry}.
+	 * 
+	 * @return  A new store of dynamic objects.
 	 */
-	public static void updateDynamicObjects() {
-		for (int i = 0; i < dynamicObjects.length; i++) {
-			if (dynamicObjectsStates[i]) {
-				dynamicObjects[i].update();
+	public static EntityStore createEntityStore() {
+		EntityStore store = EntityRegistry.createEntities(getEntityDeclarations());
+		store.indexOccupancy();
+		return store;
+	}
+	
+	/**
+	 * This function replaces {@link #entityStore}, along with
+	 * {@link #dynamicObjects}. The occupancy grid of the store is
+	 * rebuilt, as its objects may have been positioned since it
+	 * was created.
+	 * 
+	 * @param store  The new store of all the dynamic objects.
+	 */
+	public static void setEntityStore(EntityStore store) {
+		store.indexOccupancy();
+		dynamicObjects = store.getEntities();
+		entityStore = store;
+	}
+	
+	/**
+	 * This function returns the declarations of the dynamic objects of
+	 * the current level, read from the 'entities' JSON array of the level's
+	 * JSON file (see {@link EntityDeclaration}). If the level declares no
+	 * objects, the original player and monsters are declared. A declaration
+	 * whose name is already taken by a previous one is skipped, as the saved
+	 * data of the objects is found by name. Every object spawns in a cell of
+	 * its own (see {@link #assignSpawnCells(ArrayList)}); a declaration left
+	 * without one is skipped.
+	 * 
+	 * <p>The first remaining declaration must be the player's, as the player
+	 * is always the first of {@link #dynamicObjects}.</p>
+	 * 
+	 * @return  The declarations of the dynamic objects, in order.
+	 * 
+	 * @throws IllegalStateException  If the first remaining declaration is not of type 'player'.
+	 */
+	public static ArrayList<EntityDeclaration> getEntityDeclarations() {
+		ArrayList<EntityDeclaration> declarations = new ArrayList<>();
+		JSONArray entitiesArray = MapUtilities.level.getLevelObject().optJSONArray("entities");
+		if ((entitiesArray == null) || entitiesArray.isEmpty()) {
+			declarations.add(new EntityDeclaration("player", 2, "playerTileSet", "player", new JSONObject().put("speed", 1)));
+			declarations.add(new EntityDeclaration("monster", 2, "ninjaA", "monster", new JSONObject().put("speed", 1)));
+			declarations.add(new EntityDeclaration("monster", 2, "ninjaB", "monster2", new JSONObject().put("speed", 1)));
+		} else {
+			declarations.ensureCapacity(entitiesArray.length());
+			for (int i = 0; i < entitiesArray.length(); i++) {
+				declarations.add(new EntityDeclaration(entitiesArray.getJSONObject(i)));
+			}
+		}
+		HashSet<String> names = new HashSet<>();
+		Iterator<EntityDeclaration> iterator = declarations.iterator();
+		while (iterator.hasNext()) {
+			EntityDeclaration declaration = iterator.next();
+			if (!names.add(declaration.getName())) {
+				System.out.println("Entity name " + declaration.getName() + " is already declared, entity skipped");
+				iterator.remove();
 			}
 		}
+		assignSpawnCells(declarations);
+		if (declarations.isEmpty() || !declarations.get(0).getType().equals("player")) {
+			throw new IllegalStateException("The first entity of the level must be the player");
+		}
+		return declarations;
 	}
 	
 	/**
-	 * This function finds the dynamic object in {@link #dynamicObjects}
-	 * that has a specific tile value. The tile value passed does not
-	 * need to be the object's current tile value; being within the
-	 * set of tile values the object's tileset represents is enough.
+	 * This function assigns the spawn cells of the dynamic objects of the
+	 * current level, so that no two objects spawn in the same cell. The
+	 * cells named by the declarations are taken first. Every other object
+	 * then takes the next spawn cell of its tileset in its layer, in
+	 * row-major order (see {@link LevelLayer#getSpawnCell(String, int)}),
+	 * that isn't taken. The declarations whose cell is outside the level or
+	 * already taken, or for which no free cell is left, are removed.
 	 * 
-	 * @param tileValue  The tile value to search for a dynamic object that
-	 * matches.
-	 * 
-	 * @return  The dynamic object that matches the provided tile value.
-	 * If no match is found or dynamic object that matches is dead, null is returned.
+	 * @param declarations  The declarations of the objects, in order.
 	 */
-	public static DynamicObject getDynamicObjectWithTileValue(int tileValue) {
-		for (int i = 0; i < dynamicObjects.length; i++) {
-			if (!dynamicObjectsStates[i]) {
+	private static void assignSpawnCells(ArrayList<EntityDeclaration> declarations) {
+		LevelLayer[] layers = MapUtilities.level.getLevelLayers();
+		int width = MapUtilities.level.getWidth();
+		int height = MapUtilities.level.getHeight();
+		// The taken cells, by row * width + column.
+		HashSet<Integer> takenCells = new HashSet<>();
+		Iterator<EntityDeclaration> iterator = declarations.iterator();
+		while (iterator.hasNext()) {
+			EntityDeclaration declaration = iterator.next();
+			Point cell = declaration.getSpawnCell();
+			if (cell == null) {
+				continue;
+			}
+			if ((cell.x < 0) || (cell.x >= height) || (cell.y < 0) || (cell.y >= width)
+					|| !takenCells.add(cell.x * width + cell.y)) {
+				System.out.println("Spawn cell of entity " + declaration.getName() + " is not free, entity skipped");
+				iterator.remove();
+			}
+		}
+		// The index of the next spawn cell to try, by layer and tileset.
+		HashMap<String, Integer> nextCellIndices = new HashMap<>();
+		iterator = declarations.iterator();
+		while (iterator.hasNext()) {
+			EntityDeclaration declaration = iterator.next();
+			if ((declaration.getSpawnCell() != null) || (declaration.getLayerID() < 0) || (declaration.getLayerID() >= layers.length)) {
 				continue;
 			}
-			if (dynamicObjects[i].getTileSet().hasIndex(tileValue)) {
-				return dynamicObjects[i];
+			String key = declaration.getLayerID() + ":" + declaration.getTileSetName();
+			int index = nextCellIndices.getOrDefault(key, 0);
+			Point cell = layers[declaration.getLayerID()].getSpawnCell(declaration.getTileSetName(), index);
+			while ((cell != null) && !takenCells.add(cell.x * width + cell.y)) {
+				cell = layers[declaration.getLayerID()].getSpawnCell(declaration.getTileSetName(), ++index);
+			}
+			nextCellIndices.put(key, index + 1);
+			if (cell == null) {
+				System.out.println("No free spawn cell for entity " + declaration.getName() + ", entity skipped");
+				iterator.remove();
+				continue;
 			}
+			declaration.setSpawnCell(cell);
 		}
-		return null;
+	}
+	
+	/**
+	 * This function updates all the dynamic objects by running the
+	 * systems of {@link #entityStore} (see {@link EntityStore#update()}).
+	 * Only alive dynamic objects are updated.
+	 */
+	public static void updateDynamicObjects() {
+		entityStore.update();
 	}
 	
 }
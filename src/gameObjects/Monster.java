@@ -1,11 +1,15 @@
 package gameObjects;
 
 import java.awt.Point;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 import audio.AudioUtilities;
 import mapControls.MapUtilities;
-import physics.AnimationMechanic;
+import physics.IncrementalPathPlanner;
 import physics.PathFinder;
 import physics.PhysicsUtilities;
 import physics.PathFinder.Node;
@@ -28,11 +32,6 @@ public class Monster extends DynamicObject {
 	 */
 	private int speed;
 	
-	/**
-	 * This is responsible of animating the movement.
-	 */
-	private AnimationMechanic animator;
-	
 	/**
 	 * This is responsible for the wandering animation.
 	 */
@@ -68,6 +67,28 @@ public class Monster extends DynamicObject {
 	 */
 	private Point motionDestination = new Point(0,0);
 	
+	/**
+	 * The path requested to {@link PathFinder#requestService} that isn't
+	 * consumed yet, null if no path is requested.
+	 */
+	private CompletableFuture<ArrayList<Node>> pendingPath = null;
+	
+	/**
+	 * The planner of the chases, created on the first one (see {@link IncrementalPathPlanner}).
+	 * It only holds its arrays during a chase, and gives them back when the chase ends.
+	 */
+	private IncrementalPathPlanner planner = null;
+	
+	/**
+	 * The value returned by {@link #findNextCell(int, int)} while the path is being searched.
+	 */
+	private static final long PATH_PENDING = PhysicsUtilities.pack(-2, -2);
+	
+	/**
+	 * The motion returned by {@link #followTarget(int, int)}, reused on every call.
+	 */
+	private final Point motion = new Point(0,0);
+	
 	/**
 	 * The view range of the object (in tiles).
 	 */
@@ -93,135 +114,204 @@ public class Monster extends DynamicObject {
 	 * This constructor constructs the {@code Monster} object
 	 * and initializes its attributes.
 	 * 
+	 * @param store  The store that keeps the state of the object.
 	 * @param layerID  The ID of the layer the object belongs to.
 	 * @param tileSetName  The name of the tileset the object uses.
+	 * @param spawnCell  The cell the object spawns in, x representing the row and y representing the column, or null.
 	 * @param speed  The speed of the object.
 	 * @param monsterName  A unique name that is given to every object.
 	 */
-	public Monster(int layerID, String tileSetName, int speed, String monsterName) {
-		super(layerID, tileSetName, monsterName);
+	public Monster(EntityStore store, int layerID, String tileSetName, Point spawnCell, int speed, String monsterName) {
+		super(store, layerID, tileSetName, spawnCell, monsterName);
 		this.speed = speed;
-		this.animator = new AnimationMechanic(10, 25, tileSet.getFirstID());
 		this.wanderer = new WanderMechanic(120, 32, 32, this.speed);
 	}
 
 	@Override
-	public void update() {
-		animator.resetPositionFlags();
-		MapUtilities.level.getLevelLayers()[layerID].setLayerDataElement(rowPosition, columnPosition, -1);
-		updateHit();
+	protected void updateVelocity() {
+		DynamicObject player = GameObjectUtilities.dynamicObjects[0];
+		int distance = PathFinder.heuristic(
+			player.getRowPosition(), player.getColumnPosition(),
+			getRowPosition(), getColumnPosition()
+		);
 		if (wanderingFlag) {
-			if (PathFinder.heuristic(
-					new Node(
-						GameObjectUtilities.dynamicObjects[0].rowPosition, 
-						GameObjectUtilities.dynamicObjects[0].columnPosition
-					), 
-					new Node(rowPosition, columnPosition)
-				) < viewRange) {
+			// The chase only starts if the player is in range and can be seen, it then goes on around walls.
+			if ((distance < viewRange) && MapUtilities.level.getCollisionGrid().hasLineOfSight(
+					getRowPosition(), getColumnPosition(), player.getRowPosition(), player.getColumnPosition())) {
 				wanderingFlag = false;
 				needNewMotionVector = true;
+				setVelocity(0, 0);
 				return;
 			}
-			Point motion = wanderer.wander(new Point(getBounds().x, getBounds().y));
-			updatePosition(motion.x, motion.y);
-			if (motion.x < 0) {
-				animator.leftDirectionFlag = true;
-			}
-			if (motion.x > 0) {
-				animator.rightDirectionFlag = true;
-			}
-			if (motion.y < 0) {
-				animator.upDirectionFlag = true;
-			}
-			if (motion.y > 0) {
-				animator.downDirectionFlag = true;
-			}
+			Point motion = wanderer.wander(getPixelX(), getPixelY(), getAISteps());
+			setVelocity(motion.x, motion.y);
 		}
 		else {
-			if (PathFinder.heuristic(
-					new Node(
-						GameObjectUtilities.dynamicObjects[0].rowPosition, 
-						GameObjectUtilities.dynamicObjects[0].columnPosition
-					), 
-					new Node(rowPosition, columnPosition)
-				) >= viewRange) {
+			if (distance >= viewRange) {
 				wanderingFlag = true;
 				needNewMotionVector = false;
+				endChase();
+				setVelocity(0, 0);
 				return;
 			}
-			Point motion = followTarget(
-				GameObjectUtilities.dynamicObjects[0].rowPosition,
-				GameObjectUtilities.dynamicObjects[0].columnPosition
-			);
-			updatePosition(motion.x, motion.y);
-			if (motion.x < 0) {
-				animator.leftDirectionFlag = true;
-			}
-			if (motion.x > 0) {
-				animator.rightDirectionFlag = true;
-			}
-			if (motion.y < 0) {
-				animator.upDirectionFlag = true;
-			}
-			if (motion.y > 0) {
-				animator.downDirectionFlag = true;
-			}
+			Point motion = followTarget(player.getRowPosition(), player.getColumnPosition());
+			setVelocity(motion.x, motion.y);
 		}
-		currentTileValue = animator.getNextTileIndex(currentTileValue);
-		MapUtilities.level.getLevelLayers()[layerID].setLayerDataElement(rowPosition, columnPosition, currentTileValue);
+	}
+	
+	@Override
+	public void writeState(DataOutput output) throws IOException {
+		super.writeState(output);
+		output.writeBoolean(wanderingFlag);
+		output.writeBoolean(needNewMotionVector);
+		output.writeBoolean(hitWaitFlag);
+		output.writeInt(hitWaitCounter);
+		output.writeInt(motionVector.x);
+		output.writeInt(motionVector.y);
+		output.writeInt(motionTracker.x);
+		output.writeInt(motionTracker.y);
+		output.writeInt(motionAmount.x);
+		output.writeInt(motionAmount.y);
+		output.writeInt(motionDestination.x);
+		output.writeInt(motionDestination.y);
+		animator.writeState(output);
+		wanderer.writeState(output);
+	}
+	
+	@Override
+	public void readState(DataInput input) throws IOException {
+		super.readState(input);
+		wanderingFlag = input.readBoolean();
+		needNewMotionVector = input.readBoolean();
+		hitWaitFlag = input.readBoolean();
+		hitWaitCounter = input.readInt();
+		motionVector.x = input.readInt();
+		motionVector.y = input.readInt();
+		motionTracker.x = input.readInt();
+		motionTracker.y = input.readInt();
+		motionAmount.x = input.readInt();
+		motionAmount.y = input.readInt();
+		motionDestination.x = input.readInt();
+		motionDestination.y = input.readInt();
+		// A requested path and the planner are not saved, they are made again if they are still needed.
+		endChase();
+		planner = null;
+		animator.readState(input);
+		wanderer.readState(input);
 	}
 	
 	/**
-	 * This function follows a target specified by row and column.
+	 * This function follows a target specified by row and column, one
+	 * cell at a time (see {@link #findNextCell(int, int)}).
 	 * 
 	 * @param row  The row of the target.
 	 * @param column  The column of the target.
 	 * 
-	 * @return  The direction the object needs to move in.
+	 * @return  The direction the object needs to move in. The same
+	 * point is returned and overwritten by every call.
 	 */
 	private Point followTarget(int row, int column) {
 		if (needNewMotionVector) {
-			ArrayList<Node> path = PathFinder.findPath(
-				new PathFinder.Node(rowPosition, columnPosition),
-				new PathFinder.Node(row, column),
-				GameObjectUtilities.dynamicObjects[0].getTileSet()
-			);
-			if (path.size() < 2) {
+			long nextCell = findNextCell(row, column);
+			if (nextCell == PATH_PENDING) {
+				motion.setLocation(0, 0);
+				return motion;
+			}
+			if (nextCell == IncrementalPathPlanner.NO_PATH) {
 				needNewMotionVector = false;
 				wanderingFlag = true;
-				return new Point(0,0);
+				endChase();
+				motion.setLocation(0, 0);
+				return motion;
 			}
-			motionDestination = new Point(path.get(1).y * drawSize, path.get(1).x * drawSize);
-			motionVector = PhysicsUtilities.calculateMotionVector(
-				new Point(getBounds().x, getBounds().y),
-				motionDestination,
-				speed
-			);
-			motionTracker = new Point(0,0);
-			motionAmount.x = Math.abs(motionDestination.x - getBounds().x);
-			motionAmount.y = Math.abs(motionDestination.y - getBounds().y);
+			int x = getPixelX();
+			int y = getPixelY();
+			motionDestination.setLocation(PhysicsUtilities.unpackY(nextCell) * drawSize, PhysicsUtilities.unpackX(nextCell) * drawSize);
+			PhysicsUtilities.calculateMotionVector(x, y, motionDestination.x, motionDestination.y, speed, motionVector);
+			motionTracker.setLocation(0, 0);
+			motionAmount.x = Math.abs(motionDestination.x - x);
+			motionAmount.y = Math.abs(motionDestination.y - y);
 			needNewMotionVector = false;
 		}
+		// The velocity is kept until the next call, which may be a few updates away.
+		int steps = getAISteps();
 		if ((Math.abs(motionTracker.x) < motionAmount.x) && (Math.abs(motionTracker.y) < motionAmount.y)) {
-			motionTracker.x += motionVector.x;
-			motionTracker.y += motionVector.y;
-			return new Point(motionVector.x, motionVector.y);
+			motionTracker.x += motionVector.x * steps;
+			motionTracker.y += motionVector.y * steps;
+			motion.setLocation(motionVector.x, motionVector.y);
+			return motion;
 		}
 		if (Math.abs(motionTracker.x) < motionAmount.x) {
-			motionTracker.x += motionVector.x;
-			return new Point(motionVector.x, 0);
+			motionTracker.x += motionVector.x * steps;
+			motion.setLocation(motionVector.x, 0);
+			return motion;
 		}
 		if (Math.abs(motionTracker.y) < motionAmount.y) {
-			motionTracker.y += motionVector.y;
-			return new Point(0, motionVector.y);
+			motionTracker.y += motionVector.y * steps;
+			motion.setLocation(0, motionVector.y);
+			return motion;
 		}
 		needNewMotionVector = true;
-		return new Point(0, 0);
+		motion.setLocation(0, 0);
+		return motion;
 	}
 
+	/**
+	 * This function finds the next cell on the path to a target. During a
+	 * chase, the path is planned incrementally by {@link #planner}, which only
+	 * repairs what changed since the previous cell. Otherwise, the path is
+	 * requested to {@link PathFinder#requestService}, and the object stands
+	 * still until it is found, which may take a few updates.
+	 * 
+	 * @param row  The row of the target.
+	 * @param column  The column of the target.
+	 * 
+	 * @return  The next cell, packed as (row, column), {@link IncrementalPathPlanner#NO_PATH}
+	 * if there is none, or {@link #PATH_PENDING} while the path is being searched.
+	 */
+	private long findNextCell(int row, int column) {
+		if (IncrementalPathPlanner.incrementalPlanning) {
+			if ((planner == null) || !planner.isPlanningFor(MapUtilities.level.getCollisionGrid(), store)) {
+				endChase();
+				planner = new IncrementalPathPlanner(
+					MapUtilities.level.getCollisionGrid(), store, id,
+					GameObjectUtilities.dynamicObjects[0].getTileSet()
+				);
+			}
+			return planner.findNextCell(getRowPosition(), getColumnPosition(), row, column);
+		}
+		if (pendingPath == null) {
+			pendingPath = PathFinder.requestService.requestPath(
+				getRowPosition(), getColumnPosition(), row, column,
+				GameObjectUtilities.dynamicObjects[0].getTileSet()
+			);
+		}
+		if (!pendingPath.isDone()) {
+			return PATH_PENDING;
+		}
+		ArrayList<Node> path = pendingPath.join();
+		pendingPath = null;
+		if (path.size() < 2) {
+			return IncrementalPathPlanner.NO_PATH;
+		}
+		return PhysicsUtilities.pack(path.get(1).x, path.get(1).y);
+	}
+
+	/**
+	 * This function ends the chase: the requested path is dropped, and
+	 * the planner gives its arrays back.
+	 */
+	private void endChase() {
+		pendingPath = null;
+		if (planner != null) {
+			planner.release();
+		}
+	}
+	
 	/**
 	 * This function updates the hit state of the monster.
 	 */
+	@Override
 	public void updateHit() {
 		if (hitWaitFlag) {
 			if (hitWaitCounter == HIT_WAIT) {
@@ -231,7 +321,7 @@ public class Monster extends DynamicObject {
 			hitWaitCounter++;
 			return;
 		}
-		if (getBounds().intersects(GameObjectUtilities.dynamicObjects[0].getBounds())) {
+		if (intersects(GameObjectUtilities.dynamicObjects[0])) {
 			hitWaitFlag = true;
 			AudioUtilities.AUDIO_RESOURCES.get("hitPunch").playOnce();
 			int newHealth = GameObjectUtilities.dynamicObjects[0].getHealth() - 1;
@@ -1,7 +1,10 @@
 	package gameObjects;
 
+import java.awt.Point;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
 
@@ -9,9 +12,7 @@ import javax.imageio.ImageIO;
 
 import audio.AudioUtilities;
 import deviceInputs.KeyHandler;
-import mapControls.MapUtilities;
 import media.MediaResource;
-import physics.AnimationMechanic;
 
 /**
  * The {@code Player} class initializes a player
@@ -28,11 +29,6 @@ public class Player extends DynamicObject {
 	 */
 	private int speed;
 	
-	/**
-	 * This is responsible of animating the movement.
-	 */
-	private AnimationMechanic animator;
-	
 	/**
 	 * This stores the heart icon that can be used to represent health.
 	 */
@@ -58,15 +54,16 @@ public class Player extends DynamicObject {
 	 * This constructor constructs the {@code Player} object
 	 * and initializes its attributes.
 	 * 
+	 * @param store  The store that keeps the state of the object.
 	 * @param layerID  The ID of the layer the object belongs to.
 	 * @param tileSetName  The name of the tileset the object uses.
+	 * @param spawnCell  The cell the object spawns in, x representing the row and y representing the column, or null.
 	 * @param speed  The speed of the object.
 	 * @param playerName  A unique name that is given to every object.
 	 */
-	public Player(int layerID, String tileSetName, int speed, String playerName) {
-		super(layerID, tileSetName, playerName);
+	public Player(EntityStore store, int layerID, String tileSetName, Point spawnCell, int speed, String playerName) {
+		super(store, layerID, tileSetName, spawnCell, playerName);
 		this.speed = speed;
-		this.animator = new AnimationMechanic(10, 25, tileSet.getFirstID());
 		if (heart == null) {
 			try {
 				heart = ImageIO.read(new File(new MediaResource("heart.png").getResourceAbsolutePath()));
@@ -77,13 +74,32 @@ public class Player extends DynamicObject {
 	}
 
 	@Override
-	public void update() {
-		animator.resetPositionFlags();
-		MapUtilities.level.getLevelLayers()[layerID].setLayerDataElement(rowPosition, columnPosition, -1);
+	protected void updateVelocity() {
 		keyBoardInputUpdate();
-		updateHit();
-		currentTileValue = animator.getNextTileIndex(currentTileValue);
-		MapUtilities.level.getLevelLayers()[layerID].setLayerDataElement(rowPosition, columnPosition, currentTileValue);
+	}
+	
+	/**
+	 * The input of the player is read on the game thread only.
+	 */
+	@Override
+	protected boolean isVelocityUpdateParallel() {
+		return false;
+	}
+	
+	@Override
+	public void writeState(DataOutput output) throws IOException {
+		super.writeState(output);
+		output.writeBoolean(hitWaitFlag);
+		output.writeInt(hitWaitCounter);
+		animator.writeState(output);
+	}
+	
+	@Override
+	public void readState(DataInput input) throws IOException {
+		super.readState(input);
+		hitWaitFlag = input.readBoolean();
+		hitWaitCounter = input.readInt();
+		animator.readState(input);
 	}
 	
 	/**
@@ -91,50 +107,38 @@ public class Player extends DynamicObject {
 	 */
 	private void keyBoardInputUpdate() {
 		if (KeyHandler.isKeyPressed(KeyEvent.VK_W) && KeyHandler.isKeyPressed(KeyEvent.VK_D)) {
-			updatePosition(speed, -speed);
-			animator.upDirectionFlag = true;
-			animator.rightDirectionFlag = true;
-			return;
+			setVelocity(speed, -speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_W) && KeyHandler.isKeyPressed(KeyEvent.VK_A)) {
-			updatePosition(-speed, -speed);
-			animator.upDirectionFlag = true;
-			animator.leftDirectionFlag = true;
-			return;
+			setVelocity(-speed, -speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_S) && KeyHandler.isKeyPressed(KeyEvent.VK_D)) {
-			updatePosition(speed, speed);
-			animator.downDirectionFlag = true;
-			animator.rightDirectionFlag = true;
-			return;
+			setVelocity(speed, speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_S) && KeyHandler.isKeyPressed(KeyEvent.VK_A)) {
-			updatePosition(-speed, speed);
-			animator.downDirectionFlag = true;
-			animator.leftDirectionFlag = true;
-			return;
+			setVelocity(-speed, speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_W)) {
-			updatePosition(0, -speed);
-			animator.upDirectionFlag = true;
+			setVelocity(0, -speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_S)) { 
-			updatePosition(0, speed);
-			animator.downDirectionFlag = true;
+			setVelocity(0, speed);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_D)) { 
-			updatePosition(speed, 0);
-			animator.rightDirectionFlag = true;
+			setVelocity(speed, 0);
 		}
 		else if (KeyHandler.isKeyPressed(KeyEvent.VK_A)) { 
-			updatePosition(-speed, 0);
-			animator.leftDirectionFlag = true;
+			setVelocity(-speed, 0);
+		}
+		else {
+			setVelocity(0, 0);
 		}
 	}
 	
 	/**
 	 * This function updates the hit state of the player.
 	 */
+	@Override
 	public void updateHit() {
 		if (hitWaitFlag) {
 			if (hitWaitCounter == HIT_WAIT) {
@@ -148,17 +152,13 @@ public class Player extends DynamicObject {
 			return;
 		}
 		hitWaitFlag = true;
-		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-			if (equals(GameObjectUtilities.dynamicObjects[i])) {
-				continue;
-			}
-			if (!GameObjectUtilities.dynamicObjectsStates[i]) {
+		for (int i = 0; i < store.size(); i++) {
+			if ((i == id) || !store.isAlive(i)) {
 				continue;
 			}
-			if (getBounds().intersects(GameObjectUtilities.dynamicObjects[i].getBounds())) {
+			if (intersects(store.getEntity(i))) {
 				AudioUtilities.AUDIO_RESOURCES.get("hitPunch").playOnce();
-				int newHealth = GameObjectUtilities.dynamicObjects[i].getHealth() - 1;
-				GameObjectUtilities.dynamicObjects[i].setHealth(newHealth);
+				store.setHealth(i, store.getHealth(i) - 1);
 			}
 			else {
 				AudioUtilities.AUDIO_RESOURCES.get("missPunch").playOnce();
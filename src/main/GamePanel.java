@@ -9,6 +9,8 @@ import java.awt.event.KeyEvent;
 import javax.swing.JPanel;
 
 import audio.AudioUtilities;
+import database.DatabaseUtilities;
+import database.QueryMetrics;
 import deviceInputs.KeyHandler;
 import gameObjects.DynamicObject;
 import gameObjects.GameObjectUtilities;
@@ -46,17 +48,29 @@ public class GamePanel extends JPanel implements Runnable {
 	 */
 	private final int FPS = 60;
 	
+	/**
+	 * The bounds the camera follows, which are the player's bounds grown
+	 * by a tile on every side. They are reused on every update.
+	 */
+	private final Rectangle cameraReferenceBounds = new Rectangle();
+	
+	/**
+	 * Whether the FPS and the database statement metrics are printed every
+	 * second. It is enabled by running with {@code -DprintMetrics=true}.
+	 */
+	private static final boolean PRINT_METRICS = Boolean.getBoolean("printMetrics");
+	
 	/**
 	 * This variable tracks whether the game is paused or not.
 	 */
-	public static boolean gamePaused = false;
+	public static volatile boolean gamePaused = false;
 	
 	/**
 	 * This variable tracks whether the game is updatable or not.
 	 * It is set to false whenever the game is in a state of saving
 	 * the progress of the player or refreshing sensitive values.
 	 */
-	public static boolean gameUpdatable = true;
+	public static volatile boolean gameUpdatable = true;
 	
 	/**
 	 * The constructor of {@link GamePanel} class that initializes the
@@ -90,9 +104,6 @@ public class GamePanel extends JPanel implements Runnable {
 			if (window.signUpPanel != null && window.currentCardLayoutPanel == "SIGNUP") {
 				window.signUpPanel.update();
 			}
-			if (window.gameOverPanel != null && window.currentCardLayoutPanel == "GAMEOVER") {
-				window.gameOverPanel.update();
-			}
 			if(!gamePaused && KeyHandler.isKeyPressedOnce(KeyEvent.VK_ESCAPE) && window.currentCardLayoutPanel == "GAME") {
 				AudioUtilities.AUDIO_RESOURCES.get("escapeSound").playOnce();
 				gamePaused = true;
@@ -103,29 +114,21 @@ public class GamePanel extends JPanel implements Runnable {
 				gamePaused = false;
 				window.showPanel("GAME");
 			}
-			if (!gamePaused && gameUpdatable && window.currentCardLayoutPanel == "GAME") {
-				for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-					if (GameObjectUtilities.dynamicObjects[i].getHealth() < 1) {
-						GameObjectUtilities.dynamicObjectsStates[i] = false;
-					}
-				}
-			}
 			if (!gamePaused && gameUpdatable && window.currentCardLayoutPanel == "GAME") {
 				GameObjectUtilities.updateDynamicObjects();
-				MapUtilities.camera.moveInReferenceTo(new Rectangle(
-					GameObjectUtilities.dynamicObjects[0].getBounds().x - MapUtilities.level.getTileSize(),
-					GameObjectUtilities.dynamicObjects[0].getBounds().y - MapUtilities.level.getTileSize(),
-					GameObjectUtilities.dynamicObjects[0].getBounds().width + MapUtilities.level.getTileSize() * 2,
-					GameObjectUtilities.dynamicObjects[0].getBounds().height + MapUtilities.level.getTileSize() * 2
-				));
+				GameObjectUtilities.dynamicObjects[0].getBounds(cameraReferenceBounds);
+				cameraReferenceBounds.grow(MapUtilities.level.getTileSize(), MapUtilities.level.getTileSize());
+				MapUtilities.camera.moveInReferenceTo(cameraReferenceBounds);
 			}
 			if (!gamePaused && gameUpdatable && window.currentCardLayoutPanel == "GAME") {
+				// The game ends once, when the player or the last monster dies.
 				int monstersCount = GameObjectUtilities.dynamicObjects.length - 1;
 				int deadMonstersCount = 0;
+				boolean playerDead = false;
 				for (DynamicObject object : GameObjectUtilities.dynamicObjects) {
 					if (object instanceof Player) {
 						if (object.getHealth() == 0) {
-							window.showPanel("GAMEOVER");
+							playerDead = true;
 							break;
 						}
 					}
@@ -135,7 +138,8 @@ public class GamePanel extends JPanel implements Runnable {
 						}
 					}
 				}
-				if (monstersCount == deadMonstersCount) {
+				if (playerDead || (monstersCount == deadMonstersCount)) {
+					window.gameOverPanel.onGameOver(!playerDead);
 					window.showPanel("GAMEOVER");
 				}
 			}
@@ -195,13 +199,31 @@ public class GamePanel extends JPanel implements Runnable {
 	        }
 	        
 	        if (timer >= 1000000000) {
-	        	//System.out.println("FPS: " + updates);
+	        	if (PRINT_METRICS) {
+	        		printMetrics(updates);
+	        	}
 	        	updates=0;
 	        	timer = 0;
 	        }
 	    }   
 	}
 	
+	/**
+	 * This function prints the FPS of the last second, the metrics of
+	 * the database statements run so far, and the statistics of the
+	 * database caches.
+	 * 
+	 * @param updates  The number of updates done in the last second.
+	 */
+	private void printMetrics(int updates) {
+		System.out.println("FPS: " + updates);
+		QueryMetrics queryMetrics = DatabaseUtilities.getQueryMetrics();
+		if (queryMetrics != null) {
+			System.out.print(queryMetrics.getReport());
+		}
+		System.out.println(DatabaseUtilities.getCachesStatistics());
+	}
+	
 	/**
 	 * This function paints the hearts of the player.
 	 * 
@@ -3,7 +3,8 @@ package main;
 import javax.swing.SwingUtilities;
 
 import audio.AudioUtilities;
-import database.MySQLConnector;
+import database.DatabaseExecutor;
+import database.DatabaseUtilities;
 import media.MediaUtilities;
 import windows.Window;
 
@@ -18,10 +19,10 @@ import windows.Window;
  */
 public class Main {
 	/**
-	 * This object is responsible of the communication between
-	 * the program and the database.
+	 * This object runs the database work on its own thread, so that
+	 * the interface and the game loop never wait on the database.
 	 */
-	public static final MySQLConnector connector = new MySQLConnector();
+	public static final DatabaseExecutor databaseExecutor = new DatabaseExecutor();
   
 	/**
 	 * This variable specifies the run mode of the program,
@@ -30,6 +31,10 @@ public class Main {
 	public static final boolean ECLIPSE_RUN_MODE = true;
 	
 	public static void main(String[] args) {
+		Runtime.getRuntime().addShutdownHook(new Thread(()->{
+			databaseExecutor.shutdown();
+			DatabaseUtilities.closePersistenceEngine();
+		}));
 		MediaUtilities.setupMediaResources();
 		SwingUtilities.invokeLater(()->{
 			new Window().setVisible(true);
@@ -14,6 +14,8 @@ import gameObjects.GameObjectUtilities;
 import gameObjects.Monster;
 import gameObjects.Player;
 import media.MediaResource;
+import physics.CollisionGrid;
+import physics.PathHierarchy;
 
 /**
  * The {@code Level} class defines the necessary
@@ -39,6 +41,18 @@ public class Level {
 	 */
 	private BufferedImage staticMap;
 	
+	/**
+	 * This stores the collision geometry of the static part of the
+	 * sub-map, computed once.
+	 */
+	private CollisionGrid collisionGrid;
+	
+	/**
+	 * This stores the clusters and entrances used to find long paths
+	 * across the sub-map, computed from {@link #collisionGrid}.
+	 */
+	private PathHierarchy pathHierarchy;
+	
 	/**
 	 * The pixel size of every individual tile in this sub-map.
 	 */
@@ -166,6 +180,24 @@ public class Level {
 		return this.staticMap;
 	}
 	
+	/**
+	 * Getter for {@link #collisionGrid}.
+	 * 
+	 * @return  The collision geometry of the static part of the sub-map.
+	 */
+	public CollisionGrid getCollisionGrid() {
+		return collisionGrid;
+	}
+	
+	/**
+	 * Getter for {@link #pathHierarchy}.
+	 * 
+	 * @return  The hierarchy used to find long paths across the sub-map.
+	 */
+	public PathHierarchy getPathHierarchy() {
+		return pathHierarchy;
+	}
+	
 	/**
 	 * Getter for {@link #levelObject}.
 	 * 
@@ -186,7 +218,31 @@ public class Level {
 		height = levelObject.getInt("height");
 		initializeTileSets();
 		initializeLevelLayers();
+		initializeDerivedAttributes();
+	}
+	
+	/**
+	 * This function computes again everything that is derived from the data
+	 * of the layers: the spawn cells of every layer, the static map, the
+	 * collision grid and the path hierarchy. It must be called whenever the
+	 * data of the layers is replaced, such as when a world snapshot is
+	 * restored (see {@link WorldSnapshot}).
+	 */
+	void refreshLayersData() {
+		for (LevelLayer layer : layers) {
+			layer.initializeSpawnCells();
+		}
+		initializeDerivedAttributes();
+	}
+	
+	/**
+	 * This function initializes the static map, the {@link #collisionGrid}
+	 * and the {@link #pathHierarchy} from the current data of the layers.
+	 */
+	private void initializeDerivedAttributes() {
 		initializeStaticMap();
+		collisionGrid = new CollisionGrid(this);
+		pathHierarchy = new PathHierarchy(collisionGrid);
 	}
 	
 	/**
@@ -256,10 +312,10 @@ public class Level {
 		BufferedImage dynamicMap = new BufferedImage(tileSize * width, tileSize * height, BufferedImage.TYPE_INT_ARGB);
 		Graphics2D painter = dynamicMap.createGraphics();
 		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-			if (!GameObjectUtilities.dynamicObjectsStates[i]) {
+			DynamicObject object = GameObjectUtilities.dynamicObjects[i];
+			if (!object.isAlive()) {
 				continue;
 			}
-			DynamicObject object = GameObjectUtilities.dynamicObjects[i];
 			int tileID = object.getTileSet().getTileID(object.getCurrentTileValue());
 			BufferedImage tileSetImage = object.getTileSet().getImage();
 			int tileX = (tileID % (tileSetImage.getWidth() / tileSize)) * tileSize;
@@ -1,6 +1,9 @@
 package mapControls;
 
+import java.awt.Point;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -39,6 +42,21 @@ public class LevelLayer {
 	 */
 	private TileSet[] layerTileSets;
 	
+	/**
+	 * The spawn cells of the dynamic objects of this layer, by the name of the
+	 * tileset they are drawn using, in row-major order. A spawn cell is a cell
+	 * with a value from that tileset. It is built in a single pass over the
+	 * layer data when the layer is constructed, and is empty for static layers.
+	 */
+	private HashMap<String, ArrayList<Point>> spawnCells;
+	
+	/**
+	 * The pixel offsets of the dynamic objects of this layer, by object name,
+	 * read once from the layer's 'objectsOffsets' JSON array. The x of an offset
+	 * is its row offset, and its y is its column offset.
+	 */
+	private HashMap<String, Point> objectsOffsets;
+	
 	/**
 	 * This constructor constructs the {@code LevelLayer} object by providing
 	 * the JSON object for the layer, and the level it belongs to.
@@ -73,6 +91,66 @@ public class LevelLayer {
 				layerData[row][column] = data1D.getInt(index);
 			}
 		}
+		
+		// Initializing the objects offsets.
+		objectsOffsets = new HashMap<>();
+		JSONArray objectsOffsetsArray = layerObject.optJSONArray("objectsOffsets");
+		if (objectsOffsetsArray != null) {
+			for (int i = 0; i < objectsOffsetsArray.length(); i++) {
+				JSONObject objectOffset = objectsOffsetsArray.getJSONObject(i);
+				objectsOffsets.putIfAbsent(objectOffset.getString("name"),
+					new Point(objectOffset.getInt("row"), objectOffset.getInt("column")));
+			}
+		}
+		initializeSpawnCells();
+	}
+	
+	/**
+	 * This function builds {@link #spawnCells} from the current layer
+	 * data, in a single pass over it.
+	 */
+	void initializeSpawnCells() {
+		spawnCells = new HashMap<>();
+		if (!type.equals("dynamic")) {
+			return;
+		}
+		for (int row = 0; row < layerData.length; row++) {
+			for (int column = 0; column < layerData[row].length; column++) {
+				String tileSetName = getTileSetName(layerData[row][column]);
+				if (tileSetName != null) {
+					spawnCells.computeIfAbsent(tileSetName, name->new ArrayList<>()).add(new Point(row, column));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * This function returns a spawn cell of the dynamic objects drawn
+	 * using a specified tileset, by its index in row-major order. The
+	 * objects sharing a tileset take its cells one after the other.
+	 * 
+	 * @param tileSetName  The name of the tileset.
+	 * @param index  The index of the cell, 0 for the first one.
+	 * 
+	 * @return  A point, x representing the row and y representing the column,
+	 * null if the layer has no such cell from that tileset.
+	 */
+	public Point getSpawnCell(String tileSetName, int index) {
+		ArrayList<Point> cells = spawnCells.get(tileSetName);
+		return ((cells == null) || (index < 0) || (index >= cells.size()))? null : new Point(cells.get(index));
+	}
+	
+	/**
+	 * This function returns the pixel offset of a dynamic object of this layer.
+	 * 
+	 * @param objectName  The name of the object.
+	 * 
+	 * @return  A point, x representing the row offset and y representing the
+	 * column offset, null if the layer has no offset for that object.
+	 */
+	public Point getObjectOffset(String objectName) {
+		Point offset = objectsOffsets.get(objectName);
+		return (offset == null)? null : new Point(offset);
 	}
 	
 	/**
@@ -2,20 +2,22 @@ package mapControls;
 
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.io.FileWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 import camera.Perspective;
 import database.DatabaseUtilities;
 import gameObjects.DynamicObject;
+import gameObjects.EntityStore;
 import gameObjects.GameObjectUtilities;
-import gameObjects.Monster;
-import gameObjects.Player;
 import main.GamePanel;
-import main.Main;
 import media.MediaResource;
 import windows.Window;
 
@@ -109,6 +111,9 @@ public class MapUtilities {
 	 * the {@link #level} with it. It also re-initializes the array of
 	 * dynamic objects and their states.
 	 * 
+	 * <p>If the user has a saved world snapshot, the layers and the dynamic
+	 * objects are restored from it instead (see {@link WorldSnapshot}).</p>
+	 * 
 	 * <p>When this function is called, any dynamic-layer-related update
 	 * done in {@link GamePanel} is paused temporarily until the refreshing
 	 * process is complete, to ensure consistency.</p>
@@ -118,28 +123,88 @@ public class MapUtilities {
 		if (DatabaseUtilities.currentUser.equals("")) {
 			return;
 		}
-		String statement = "SELECT level_path FROM users_levels WHERE user_name = '"
-			+ DatabaseUtilities.currentUser + "';";
-		String JSONFileName = (String) Main.connector.getQueryResult(statement).get(0).get("level_path");
+		String JSONFileName = DatabaseUtilities.getLevelPathOfUser(DatabaseUtilities.currentUser);
+		// Loading all the attributes of the user at once, for the dynamic objects to read.
+		DatabaseUtilities.loadGameDataOfCurrentUser();
+		if (!restoreSnapshot(JSONFileName)) {
+			level = new Level(JSONFileName);
+			GameObjectUtilities.setEntityStore(GameObjectUtilities.createEntityStore());
+		}
+		for (DynamicObject object : GameObjectUtilities.dynamicObjects) {
+			object.setAlive(object.getHealth() > 0);
+		}
+		GamePanel.gameUpdatable = true;
+	}
+	
+	/**
+	 * This function restores the {@link #level} and the dynamic objects from
+	 * the world snapshot that belongs to a user's JSON file. The level and
+	 * the objects are built from the JSON file, so that they have its tilesets
+	 * and declarations, then every layer and object is overwritten by the
+	 * snapshot, and the state the level derives from its layers is computed again.
+	 * 
+	 * @param JSONFileName  The name of the user's JSON file.
+	 * 
+	 * @return  A boolean, true if the snapshot was restored, false if it doesn't
+	 * exist or can't be restored (the current level is kept in that case).
+	 */
+	private static boolean restoreSnapshot(String JSONFileName) {
+		Path snapshotPath = getSnapshotPath(JSONFileName);
+		if ((snapshotPath == null) || !Files.exists(snapshotPath)) {
+			return false;
+		}
+		Level previousLevel = level;
+		// Dynamic objects are constructed against the level being restored.
 		level = new Level(JSONFileName);
-		GameObjectUtilities.dynamicObjects = new DynamicObject[] {
-			new Player(2, "playerTileSet", 1, "player"),
-			new Monster(2, "ninjaA", 1, "monster"),
-			new Monster(2, "ninjaB", 1, "monster2")
-		};
-		GameObjectUtilities.dynamicObjectsStates = new boolean[GameObjectUtilities.dynamicObjects.length];
-		for (int i = 0; i < GameObjectUtilities.dynamicObjects.length; i++) {
-			int health = DatabaseUtilities.getGameDataAttributeValueForUser(
-				DatabaseUtilities.currentUser, GameObjectUtilities.dynamicObjects[i].getName() + "Health"
-			);
-			if (health > 0) {
-				GameObjectUtilities.dynamicObjectsStates[i] = true;
+		EntityStore restoredStore = GameObjectUtilities.createEntityStore();
+		try (InputStream input = new BufferedInputStream(Files.newInputStream(snapshotPath))) {
+			if (WorldSnapshot.decode(input, level, restoredStore.getEntities())) {
+				GameObjectUtilities.setEntityStore(restoredStore);
+				return true;
 			}
-			else {
-				GameObjectUtilities.dynamicObjectsStates[i] = false;
+			System.out.println("Snapshot " + snapshotPath.getFileName() + " is not valid");
+		} catch (IOException e) {
+			System.out.println("Snapshot loading failed");
+		}
+		level = previousLevel;
+		return false;
+	}
+	
+	/**
+	 * This function returns the path of the world snapshot that belongs
+	 * to a user's JSON file. The snapshot is stored next to the JSON file,
+	 * with the same name and the {@link WorldSnapshot#SNAPSHOT_EXTENSION} extension.
+	 * 
+	 * @param JSONFileName  The name of the user's JSON file.
+	 * 
+	 * @return  The path of the snapshot, null if the JSON file doesn't exist.
+	 */
+	private static Path getSnapshotPath(String JSONFileName) {
+		String JSONFilePath = new MediaResource(JSONFileName).getResourceAbsolutePath();
+		if (JSONFilePath == null) {
+			return null;
+		}
+		return Paths.get(JSONFilePath.substring(0, JSONFilePath.lastIndexOf(".")) + WorldSnapshot.SNAPSHOT_EXTENSION);
+	}
+	
+	/**
+	 * This function deletes the world snapshot of the current user, if it
+	 * exists, so that the next {@link #refreshLevelData()} loads the user's
+	 * JSON file. It is used when a new game is started.
+	 */
+	public static void discardSnapshot() {
+		if (DatabaseUtilities.currentUser.equals("")) {
+			return;
+		}
+		String JSONFileName = DatabaseUtilities.getLevelPathOfUser(DatabaseUtilities.currentUser);
+		Path snapshotPath = getSnapshotPath(JSONFileName);
+		try {
+			if (snapshotPath != null) {
+				Files.deleteIfExists(snapshotPath);
 			}
+		} catch (IOException e) {
+			System.out.println("Snapshot deleting failed");
 		}
-		GamePanel.gameUpdatable = true;
 	}
 
 	/**
@@ -156,52 +221,17 @@ public class MapUtilities {
 		);
 	}
 	
-	/**
-	 * This function returns the current layer data of the dynamic
-	 * layer in the form of a 1D array, to be written in the JSON
-	 * file in the saving progress step (using {@link #saveData()}).
-	 * 
-	 * @return  The layer data array of the dynamic layer, in 1D form.
-	 */
-	public static int[] getNewLayerData() {
-		int[][] data2D = level.getLevelLayers()[2].getLayerData();
-		int[] data1D = new int[level.getWidth() * level.getHeight()];
-		int index = 0;
-		for (int i = 0; i < level.getHeight(); i++) {
-			for(int j = 0; j<level.getWidth(); j++) {
-				data1D[index++] = data2D[i][j];
-			}
-		}
-		return data1D;
-	}
-	
-	/**
-	 * This function returns a JSONArray object representing
-	 * the updated 'objectsOffsets' JSONArray which is found
-	 * in the dynamic layer's JSONObject. It is used in
-	 * {@link #saveData()} to write the updated row and column
-	 * offsets of every dynamic object upon saving.
-	 * 
-	 * @return  The updated 'objectsOffsets' JSONArray
-	 */
-	public static JSONArray getNewLayerObjectOffsets() {
-		JSONArray objectOffsets = new JSONArray();
-		for (DynamicObject object : GameObjectUtilities.dynamicObjects) {
-			JSONObject json = new JSONObject();
-			json.put("name", object.getName());
-			json.put("row", object.getRowPixelOffset());
-			json.put("column", object.getColumnPixelOffset());
-			objectOffsets.put(json);
-		}
-		return objectOffsets;
-	}
-	
 	/**
 	 * This function is used to save the progress of the game
-	 * for the current user. When this function is called, any
+	 * for the current user, by writing a world snapshot next to
+	 * the user's JSON file. When this function is called, any
 	 * dynamic-layer-related update done in {@link GamePanel}
-	 * is paused temporarily until the writing process on the
-	 * JSON file is complete, to ensure consistency.
+	 * is paused temporarily until the snapshot is written, to
+	 * ensure consistency.
+	 * 
+	 * <p>The snapshot is written to a temporary file first, then
+	 * moved over the previous one, so a failed save never leaves
+	 * a partially written snapshot behind.</p>
 	 */
 	public static void saveData() {
 		if (DatabaseUtilities.currentUser.equals("")) {
@@ -209,24 +239,24 @@ public class MapUtilities {
 		}
 		// Game is not updatable when in saving-progress mode.
 		GamePanel.gameUpdatable = false;
-		// Updating the JSON object with new data before writing it to the JSON file.
-		JSONObject levelObject = level.getLevelObject();
-		JSONObject layerObject = levelObject.getJSONArray("layers").getJSONObject(2);
-		layerObject.remove("data");
-		layerObject.put("data", getNewLayerData());
-		layerObject.remove("objectsOffsets");
-		layerObject.put("objectsOffsets", getNewLayerObjectOffsets());
 		// Retrieving the JSON file name for the current user.
-		String statement = "SELECT level_path FROM users_levels WHERE user_name = '"
-			+ DatabaseUtilities.currentUser + "';";
-		String JSONFileName = (String) Main.connector.getQueryResult(statement).get(0).get("level_path");
-		// Writing the updated JSONObject to the JSON file, specified by the JSON file name of the user.
-		try {
-			FileWriter writer = new FileWriter(new MediaResource(JSONFileName).getResourceAbsolutePath());
-			writer.write(levelObject.toString(4));
-			writer.close();
-		} catch (IOException e) {
-			System.out.println("JSON file writing in save step failed");
+		String JSONFileName = DatabaseUtilities.getLevelPathOfUser(DatabaseUtilities.currentUser);
+		// Writing the world snapshot of the current user, with the dynamic objects written in their layers.
+		GameObjectUtilities.entityStore.syncLayers();
+		Path snapshotPath = getSnapshotPath(JSONFileName);
+		if (snapshotPath == null) {
+			System.out.println("Snapshot writing in save step failed");
+		}
+		else {
+			Path temporaryPath = Paths.get(snapshotPath.toString() + ".tmp");
+			try {
+				try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporaryPath))) {
+					WorldSnapshot.encode(output, level, GameObjectUtilities.dynamicObjects);
+				}
+				Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				System.out.println("Snapshot writing in save step failed");
+			}
 		}
 		// Saving the current values of dynamic objects to the database, then refreshing level data.
 		DatabaseUtilities.updateGameDataAttributeValueForUser(DatabaseUtilities.currentUser);
@@ -235,4 +265,4 @@ public class MapUtilities {
 		GamePanel.gameUpdatable = true;
 	}
 
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package mapControls;
 
 import java.awt.Polygon;
-import java.awt.Rectangle;
 
 import org.json.JSONObject;
 
@@ -68,47 +67,6 @@ public class Tile {
 		return null;
 	}
 	
-	/**
-	 * This function checks if this tile intersects a rectangle bound.
-	 * 
-	 * @param bounds  The rectangle bound to check.
-	 * @param tileRow  The row of this tile.
-	 * @param tileColumn  The column of this tile.
-	 * @param tileSize  The size of this tile.
-	 * 
-	 * @return  A boolean, true if colliding, false otherwise.
-	 */
-	public boolean isColliding(Rectangle bounds, int tileRow, int tileColumn, int tileSize) {
-		if(isCollision.equals("full collision")) {
-			return true;
-		}
-		else if(isCollision.equals("half collision")) {
-			if(getAbsolutePolygon(tileRow, tileColumn, tileSize).intersects(bounds)) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
-	/**
-	 * This function converts the points of the tile from tile coordinates
-	 * to absolute coordinates.
-	 * 
-	 * @param tileRow  The row of this tile.
-	 * @param tileColumn  The column of this tile.
-	 * @param tileSize  The size of this tile.
-	 * 
-	 * @return  A polygon, the points in absolute coordinates.
-	 */
-	private Polygon getAbsolutePolygon(int tileRow, int tileColumn, int tileSize) {
-		Polygon absoluteTilePolygon = new Polygon(tilePolygon.xpoints, tilePolygon.ypoints, tilePolygon.npoints);
-		for (int i = 0; i < absoluteTilePolygon.npoints; i++) {
-			absoluteTilePolygon.xpoints[i]+= tileColumn * tileSize;
-			absoluteTilePolygon.ypoints[i]+= tileRow * tileSize;
-		}
-		return absoluteTilePolygon;
-	}
-	
 	/**
 	 * Getter for {@link #tileId}.
 	 * 
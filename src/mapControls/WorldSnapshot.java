@@ -0,0 +1,168 @@
+package mapControls;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import gameObjects.DynamicObject;
+
+/**
+ * The {@code WorldSnapshot} class defines the versioned binary
+ * format that stores the full state of the world (the data arrays
+ * of every layer, and the state of every dynamic object), which is
+ * used to save the progress of a player and restore it exactly.
+ *
+ * <p>The format is written in this order:</p>
+ * <ul>
+ * <li>The {@link #MAGIC_NUMBER} and the {@link #FORMAT_VERSION}.</li>
+ * <li>The width, height and layers count of the level, followed by
+ * the data of every layer, row by row.</li>
+ * <li>The dynamic objects count, followed by the hash of every object's
+ * name and the state written by {@link DynamicObject#writeState(java.io.DataOutput)}.</li>
+ * <li>A CRC32 checksum of everything written before it.</li>
+ * </ul>
+ *
+ * <p>Both encoding and decoding are streamed, and nothing is allocated
+ * per layer element or per dynamic object.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class WorldSnapshot {
+	/**
+	 * The value every snapshot starts with, used to recognize snapshot files.
+	 */
+	public static final int MAGIC_NUMBER = 0x49534C43;
+
+	/**
+	 * The version of the format written by {@link #encode(OutputStream, Level, DynamicObject[])}.
+	 * It must be increased whenever the layout of the written data changes.
+	 */
+	public static final int FORMAT_VERSION = 2;
+
+	/**
+	 * The extension given to snapshot files.
+	 */
+	public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+	/**
+	 * This function writes the state of a level and its dynamic objects
+	 * to an output stream. The stream is flushed but not closed.
+	 *
+	 * @param output  The stream to write the snapshot to.
+	 * @param level  The level to write the layers of.
+	 * @param objects  The dynamic objects to write the state of.
+	 *
+	 * @throws IOException  If writing to the stream fails.
+	 */
+	public static void encode(OutputStream output, Level level, DynamicObject[] objects) throws IOException {
+		CheckedOutputStream checkedOutput = new CheckedOutputStream(output, new CRC32());
+		DataOutputStream dataOutput = new DataOutputStream(checkedOutput);
+
+		// Writing the header.
+		dataOutput.writeInt(MAGIC_NUMBER);
+		dataOutput.writeInt(FORMAT_VERSION);
+		dataOutput.writeInt(level.getWidth());
+		dataOutput.writeInt(level.getHeight());
+
+		// Writing the data of every layer.
+		LevelLayer[] layers = level.getLevelLayers();
+		dataOutput.writeInt(layers.length);
+		for (LevelLayer layer : layers) {
+			int[][] layerData = layer.getLayerData();
+			for (int row = 0; row < level.getHeight(); row++) {
+				for (int column = 0; column < level.getWidth(); column++) {
+					dataOutput.writeInt(layerData[row][column]);
+				}
+			}
+		}
+
+		// Writing the state of every dynamic object.
+		dataOutput.writeInt(objects.length);
+		for (DynamicObject object : objects) {
+			dataOutput.writeInt(object.getName().hashCode());
+			object.writeState(dataOutput);
+		}
+
+		// Writing the checksum, which is not part of the checksum itself.
+		dataOutput.flush();
+		new DataOutputStream(output).writeLong(checkedOutput.getChecksum().getValue());
+		output.flush();
+	}
+
+	/**
+	 * This function reads a snapshot from an input stream, and restores
+	 * it into a level and its dynamic objects.
+	 *
+	 * <p>The level and the objects are written to while the snapshot is
+	 * being read. If this function returns false, they may be partially
+	 * restored and must be discarded, so freshly built ones should be passed.
+	 * Once the layers are read, everything the level derives from them is
+	 * computed again (static map, collision grid, path hierarchy and spawn
+	 * cells), so the restored level doesn't depend on the data it had.</p>
+	 *
+	 * @param input  The stream to read the snapshot from.
+	 * @param level  The level to restore the layers of.
+	 * @param objects  The dynamic objects to restore the state of, in the same
+	 * order they were written in.
+	 *
+	 * @return  A boolean, true if the snapshot was fully restored, false if it
+	 * has a different version or shape, or if its checksum does not match.
+	 *
+	 * @throws IOException  If reading from the stream fails.
+	 */
+	public static boolean decode(InputStream input, Level level, DynamicObject[] objects) throws IOException {
+		CheckedInputStream checkedInput = new CheckedInputStream(input, new CRC32());
+		DataInputStream dataInput = new DataInputStream(checkedInput);
+
+		// Reading and checking the header.
+		if (dataInput.readInt() != MAGIC_NUMBER) {
+			return false;
+		}
+		if (dataInput.readInt() != FORMAT_VERSION) {
+			return false;
+		}
+		if ((dataInput.readInt() != level.getWidth()) || (dataInput.readInt() != level.getHeight())) {
+			return false;
+		}
+
+		// Reading the data of every layer.
+		LevelLayer[] layers = level.getLevelLayers();
+		if (dataInput.readInt() != layers.length) {
+			return false;
+		}
+		for (LevelLayer layer : layers) {
+			int[][] layerData = layer.getLayerData();
+			for (int row = 0; row < level.getHeight(); row++) {
+				for (int column = 0; column < level.getWidth(); column++) {
+					layerData[row][column] = dataInput.readInt();
+				}
+			}
+		}
+		// The static map, the collision and the spawn cells follow the restored layers.
+		level.refreshLayersData();
+
+		// Reading the state of every dynamic object.
+		if (dataInput.readInt() != objects.length) {
+			return false;
+		}
+		for (DynamicObject object : objects) {
+			if (dataInput.readInt() != object.getName().hashCode()) {
+				return false;
+			}
+			object.readState(dataInput);
+		}
+
+		// Comparing the computed checksum with the written one.
+		long checksum = checkedInput.getChecksum().getValue();
+		return new DataInputStream(input).readLong() == checksum;
+	}
+
+}
@@ -1,5 +1,6 @@
 module OurGame {
 	requires java.desktop;
 	requires java.sql;
+	requires jdk.management;
 	requires org.json;
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package physics;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * The {@code AnimationMechanic} class
  * handles movement animation mechanics.
@@ -138,6 +142,32 @@ public class AnimationMechanic {
 		rightDirectionFlag = false;
 	}
 	
+	/**
+	 * This function writes the animation counters for a world snapshot.
+	 * The direction flags are not written, as they are reset on every update.
+	 * 
+	 * @param output  The output to write the counters to.
+	 * 
+	 * @throws IOException  If writing to the output fails.
+	 */
+	public void writeState(DataOutput output) throws IOException {
+		output.writeInt(spriteCounterMoving);
+		output.writeInt(spriteCounterStanding);
+	}
+	
+	/**
+	 * This function reads the animation counters from a world snapshot,
+	 * in the same order they were written by {@link #writeState(DataOutput)}.
+	 * 
+	 * @param input  The input to read the counters from.
+	 * 
+	 * @throws IOException  If reading from the input fails.
+	 */
+	public void readState(DataInput input) throws IOException {
+		spriteCounterMoving = input.readInt();
+		spriteCounterStanding = input.readInt();
+	}
+	
 	/**
 	 * This function checks if a tile value indicates that the
 	 * object is going upwards.
@@ -0,0 +1,393 @@
+package physics;
+
+import java.awt.Rectangle;
+
+import mapControls.Level;
+import mapControls.LevelLayer;
+import mapControls.Tile;
+import mapControls.TileSet;
+
+/**
+ * The {@code CollisionGrid} class holds the static collision geometry
+ * of a level, computed once from its static layers. Every cell of the
+ * level has at most one solid box: the whole cell for tiles with full
+ * collision, and the bounding box of the polygon for tiles with half
+ * collision. Cells outside of the level are solid.
+ * 
+ * <p>The boxes are in sub-pixels (see {@link PhysicsUtilities#SUBPIXEL_BITS}),
+ * and are used to move boxes along their velocity with a swept test (see
+ * {@link #sweep(int, int, int, int, int, int)}), which finds the first
+ * solid box on the way, however fast the box moves.</p>
+ * 
+ * <p>The grid also answers visibility queries between cells, by walking
+ * the cells a ray crosses (see {@link #raycast(int, int, int, int)} and
+ * {@link #hasLineOfSight(int, int, int, int)}). The grid is never written
+ * once computed, so it can be queried from many threads.</p>
+ * 
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ * 
+ * @version 1.0
+ */
+public class CollisionGrid {
+	/**
+	 * The number of times a box is slid along the boxes it hits in a
+	 * single sweep. Once on each axis is enough to stop against a corner.
+	 */
+	private static final int SWEEP_PASSES = 3;
+	
+	/**
+	 * The value returned by {@link #raycast(int, int, int, int)} when the ray hits nothing.
+	 */
+	public static final long NO_HIT = PhysicsUtilities.pack(-1, -1);
+	
+	/**
+	 * The number of cells that span horizontally across the grid.
+	 */
+	private final int width;
+	
+	/**
+	 * The number of cells that span vertically across the grid.
+	 */
+	private final int height;
+	
+	/**
+	 * The size of a cell, in sub-pixels.
+	 */
+	private final int cellSize;
+	
+	/**
+	 * Whether every cell has a solid box, by row and column.
+	 */
+	private final boolean[][] blocked;
+	
+	/**
+	 * The left edges of the solid boxes, in sub-pixels, by row and column.
+	 */
+	private final int[][] boxLefts;
+	
+	/**
+	 * The top edges of the solid boxes, in sub-pixels, by row and column.
+	 */
+	private final int[][] boxTops;
+	
+	/**
+	 * The right edges (excluded) of the solid boxes, in sub-pixels, by row and column.
+	 */
+	private final int[][] boxRights;
+	
+	/**
+	 * The bottom edges (excluded) of the solid boxes, in sub-pixels, by row and column.
+	 */
+	private final int[][] boxBottoms;
+	
+	/**
+	 * This constructor constructs the {@code CollisionGrid} object from
+	 * the static layers of a level. If many static layers collide in the
+	 * same cell, the box of the cell bounds all of their boxes.
+	 * 
+	 * @param level  The level to compute the grid of.
+	 */
+	public CollisionGrid(Level level) {
+		width = level.getWidth();
+		height = level.getHeight();
+		cellSize = PhysicsUtilities.toSubPixels(level.getTileSize());
+		blocked = new boolean[height][width];
+		boxLefts = new int[height][width];
+		boxTops = new int[height][width];
+		boxRights = new int[height][width];
+		boxBottoms = new int[height][width];
+		for (LevelLayer layer : level.getLevelLayers()) {
+			if (!layer.getType().equals("static")) {
+				continue;
+			}
+			for (int row = 0; row < height; row++) {
+				for (int column = 0; column < width; column++) {
+					addTile(layer, row, column);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * This function adds the box of a tile of a static layer to its cell.
+	 * 
+	 * @param layer  The static layer.
+	 * @param row  The row of the tile.
+	 * @param column  The column of the tile.
+	 */
+	private void addTile(LevelLayer layer, int row, int column) {
+		int tileValue = layer.getLayerDataElement(row, column);
+		String tileSetName = layer.getTileSetName(tileValue);
+		if (tileSetName == null) {
+			return;
+		}
+		TileSet tileSet = layer.getTileSet(tileSetName);
+		Tile tile = tileSet.getTileObject(tileSet.getTileID(tileValue));
+		int left = column * cellSize;
+		int top = row * cellSize;
+		int right = left + cellSize;
+		int bottom = top + cellSize;
+		if (tile.getCollisionState().equals("half collision")) {
+			Rectangle polygonBounds = tile.getPolygon().getBounds();
+			left += PhysicsUtilities.toSubPixels(polygonBounds.x);
+			top += PhysicsUtilities.toSubPixels(polygonBounds.y);
+			right = left + PhysicsUtilities.toSubPixels(polygonBounds.width);
+			bottom = top + PhysicsUtilities.toSubPixels(polygonBounds.height);
+		}
+		else if (!tile.getCollisionState().equals("full collision")) {
+			return;
+		}
+		if (blocked[row][column]) {
+			left = Math.min(left, boxLefts[row][column]);
+			top = Math.min(top, boxTops[row][column]);
+			right = Math.max(right, boxRights[row][column]);
+			bottom = Math.max(bottom, boxBottoms[row][column]);
+		}
+		blocked[row][column] = true;
+		boxLefts[row][column] = left;
+		boxTops[row][column] = top;
+		boxRights[row][column] = right;
+		boxBottoms[row][column] = bottom;
+	}
+	
+	/**
+	 * This function checks whether a cell has a solid box.
+	 * 
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 * 
+	 * @return  A boolean, true if the cell is solid or outside of the grid, false otherwise.
+	 */
+	public boolean isBlocked(int row, int column) {
+		if ((row < 0) || (row >= height) || (column < 0) || (column >= width)) {
+			return true;
+		}
+		return blocked[row][column];
+	}
+	
+	/**
+	 * This function casts a ray from the center of a cell to the center of
+	 * another, and finds the first solid cell it crosses, walking the cells
+	 * in the order the ray enters them (DDA). The starting cell is not
+	 * checked. A ray passing exactly through the corner of two cells is
+	 * stopped by either of them, so it can't slip between diagonal walls.
+	 * 
+	 * <p>The crossings are compared with integers, so the result is exact
+	 * and nothing is allocated.</p>
+	 * 
+	 * @param fromRow  The row of the cell the ray starts from.
+	 * @param fromColumn  The column of the cell the ray starts from.
+	 * @param toRow  The row of the cell the ray ends at.
+	 * @param toColumn  The column of the cell the ray ends at.
+	 * 
+	 * @return  The first solid cell crossed, as its row and column packed by
+	 * {@link PhysicsUtilities#pack(int, int)}, or {@link #NO_HIT} if there is none.
+	 */
+	public long raycast(int fromRow, int fromColumn, int toRow, int toColumn) {
+		int rowStep = Integer.signum(toRow - fromRow);
+		int columnStep = Integer.signum(toColumn - fromColumn);
+		int rowDistance = Math.abs(toRow - fromRow);
+		int columnDistance = Math.abs(toColumn - fromColumn);
+		int row = fromRow;
+		int column = fromColumn;
+		int rowCrossings = 0;
+		int columnCrossings = 0;
+		while ((rowCrossings < rowDistance) || (columnCrossings < columnDistance)) {
+			// The ray crosses its i'th column line at (2i + 1) / (2 * columnDistance) of its length, and the same for rows.
+			long nextColumnCrossing = (long) (2 * columnCrossings + 1) * rowDistance;
+			long nextRowCrossing = (long) (2 * rowCrossings + 1) * columnDistance;
+			if ((columnCrossings < columnDistance) && ((rowCrossings == rowDistance) || (nextColumnCrossing < nextRowCrossing))) {
+				column += columnStep;
+				columnCrossings++;
+			}
+			else if ((columnCrossings == columnDistance) || (nextRowCrossing < nextColumnCrossing)) {
+				row += rowStep;
+				rowCrossings++;
+			}
+			else {
+				if (isBlocked(row, column + columnStep)) {
+					return PhysicsUtilities.pack(row, column + columnStep);
+				}
+				if (isBlocked(row + rowStep, column)) {
+					return PhysicsUtilities.pack(row + rowStep, column);
+				}
+				row += rowStep;
+				column += columnStep;
+				rowCrossings++;
+				columnCrossings++;
+			}
+			if (isBlocked(row, column)) {
+				return PhysicsUtilities.pack(row, column);
+			}
+		}
+		return NO_HIT;
+	}
+	
+	/**
+	 * This function checks whether the center of a cell can be seen from
+	 * the center of another, without any solid cell in between (see
+	 * {@link #raycast(int, int, int, int)}).
+	 * 
+	 * @param fromRow  The row of the cell to look from.
+	 * @param fromColumn  The column of the cell to look from.
+	 * @param toRow  The row of the cell to look at.
+	 * @param toColumn  The column of the cell to look at.
+	 * 
+	 * @return  A boolean, true if the line of sight is clear, false otherwise.
+	 */
+	public boolean hasLineOfSight(int fromRow, int fromColumn, int toRow, int toColumn) {
+		return raycast(fromRow, fromColumn, toRow, toColumn) == NO_HIT;
+	}
+	
+	/**
+	 * Getter for {@link #width}.
+	 * 
+	 * @return  The number of cells that span horizontally across the grid.
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * Getter for {@link #height}.
+	 * 
+	 * @return  The number of cells that span vertically across the grid.
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	/**
+	 * This function moves a box by a displacement, stopping it against the
+	 * first solid box it hits on the way and sliding it along that box for
+	 * the rest of the displacement. Every cell the box sweeps over is
+	 * checked, so the box can't pass through a solid box at any speed.
+	 * 
+	 * <p>Solid boxes that the box already overlaps are ignored, so a box
+	 * that starts inside one can get out of it. Touching a solid box is not
+	 * colliding with it.</p>
+	 * 
+	 * @param x  The x of the box, in sub-pixels.
+	 * @param y  The y of the box, in sub-pixels.
+	 * @param boxWidth  The width of the box, in sub-pixels.
+	 * @param boxHeight  The height of the box, in sub-pixels.
+	 * @param dx  The displacement along x, in sub-pixels.
+	 * @param dy  The displacement along y, in sub-pixels.
+	 * 
+	 * @return  The position the box ends at, packed by {@link PhysicsUtilities#pack(int, int)}.
+	 */
+	public long sweep(int x, int y, int boxWidth, int boxHeight, int dx, int dy) {
+		for (int pass = 0; (pass < SWEEP_PASSES) && ((dx != 0) || (dy != 0)); pass++) {
+			double firstEntry = 1;
+			boolean hitOnX = false;
+			int hitEdge = 0;
+			int firstRow = Math.floorDiv(Math.min(y, y + dy), cellSize);
+			int lastRow = Math.floorDiv(Math.max(y, y + dy) + boxHeight - 1, cellSize);
+			int firstColumn = Math.floorDiv(Math.min(x, x + dx), cellSize);
+			int lastColumn = Math.floorDiv(Math.max(x, x + dx) + boxWidth - 1, cellSize);
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					if (!isBlocked(row, column)) {
+						continue;
+					}
+					boolean inside = (row >= 0) && (row < height) && (column >= 0) && (column < width);
+					int left = inside? boxLefts[row][column] : column * cellSize;
+					int top = inside? boxTops[row][column] : row * cellSize;
+					int right = inside? boxRights[row][column] : left + cellSize;
+					int bottom = inside? boxBottoms[row][column] : top + cellSize;
+					double entryX = getEntryTime(x, boxWidth, dx, left, right);
+					double exitX = getExitTime(x, boxWidth, dx, left, right);
+					double entryY = getEntryTime(y, boxHeight, dy, top, bottom);
+					double exitY = getExitTime(y, boxHeight, dy, top, bottom);
+					double entry = Math.max(entryX, entryY);
+					if ((entry < 0) || (entry >= Math.min(exitX, exitY)) || (entry >= firstEntry)) {
+						continue;
+					}
+					firstEntry = entry;
+					hitOnX = entryX >= entryY;
+					if (hitOnX) {
+						hitEdge = (dx > 0)? left - boxWidth : right;
+					}
+					else {
+						hitEdge = (dy > 0)? top - boxHeight : bottom;
+					}
+				}
+			}
+			if (firstEntry >= 1) {
+				return PhysicsUtilities.pack(x + dx, y + dy);
+			}
+			// Stopping against the hit box, then sliding along it.
+			if (hitOnX) {
+				int movedY = (int) (dy * firstEntry);
+				x = hitEdge;
+				y += movedY;
+				dx = 0;
+				dy -= movedY;
+			}
+			else {
+				int movedX = (int) (dx * firstEntry);
+				x += movedX;
+				y = hitEdge;
+				dx -= movedX;
+				dy = 0;
+			}
+		}
+		return PhysicsUtilities.pack(x, y);
+	}
+	
+	/**
+	 * This function computes when a moving segment starts overlapping
+	 * a fixed one, along one axis.
+	 * 
+	 * @param start  The start of the moving segment.
+	 * @param length  The length of the moving segment.
+	 * @param displacement  The displacement of the moving segment.
+	 * @param fixedStart  The start of the fixed segment.
+	 * @param fixedEnd  The end (excluded) of the fixed segment.
+	 * 
+	 * @return  The time, as a fraction of the displacement, at which the
+	 * segments start overlapping. It is negative infinity if they always
+	 * overlap, and positive infinity if they never do.
+	 */
+	private static double getEntryTime(int start, int length, int displacement, int fixedStart, int fixedEnd) {
+		if (displacement > 0) {
+			return (double) (fixedStart - (start + length)) / displacement;
+		}
+		if (displacement < 0) {
+			return (double) (fixedEnd - start) / displacement;
+		}
+		if ((start + length <= fixedStart) || (start >= fixedEnd)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return Double.NEGATIVE_INFINITY;
+	}
+	
+	/**
+	 * This function computes when a moving segment stops overlapping
+	 * a fixed one, along one axis.
+	 * 
+	 * @param start  The start of the moving segment.
+	 * @param length  The length of the moving segment.
+	 * @param displacement  The displacement of the moving segment.
+	 * @param fixedStart  The start of the fixed segment.
+	 * @param fixedEnd  The end (excluded) of the fixed segment.
+	 * 
+	 * @return  The time, as a fraction of the displacement, at which the
+	 * segments stop overlapping. It is positive infinity if they always
+	 * overlap, and negative infinity if they never do.
+	 */
+	private static double getExitTime(int start, int length, int displacement, int fixedStart, int fixedEnd) {
+		if (displacement > 0) {
+			return (double) (fixedEnd - start) / displacement;
+		}
+		if (displacement < 0) {
+			return (double) (fixedStart - (start + length)) / displacement;
+		}
+		if ((start + length <= fixedStart) || (start >= fixedEnd)) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+	
+}
@@ -0,0 +1,516 @@
+package physics;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import gameObjects.EntityStore;
+import mapControls.TileSet;
+
+/**
+ * The {@code IncrementalPathPlanner} class keeps finding the next cell on
+ * a shortest path from a moving object to a moving target, using D* Lite.
+ * Every chasing object owns a planner, and asks it for its next cell every
+ * time it reaches one.
+ *
+ * <p>Instead of searching from scratch on every request, the planner keeps
+ * the distance of every cell to the target from the previous requests, and
+ * only repairs the distances that changed: when the target moves, when an
+ * object enters or leaves a cell (read from the journal of the occupancy
+ * grid, see {@link EntityStore#getOccupancyChangesCount()}), and, through
+ * the key modifier of D* Lite, when the planning object itself moves. As the
+ * target moves, the search is rooted at a virtual goal, linked to the cell
+ * of the target by an edge of cost 0; moving the target only changes that
+ * edge.</p>
+ *
+ * <p>A cell can be walked on if it has no static collision, and it is
+ * empty, or holds the planning object or an object drawn using the ignored
+ * tile set. The planner only reads the store and the grid, so it can run
+ * while the intents of the objects are computed in parallel, as long as every
+ * planner is used by a single object.</p>
+ *
+ * <p>The arrays of the distances are only held during a chase: they are taken
+ * on the first request, and given back by {@link #release()} when the chase
+ * ends, to be reused by the next planner that starts one. So only the chasing
+ * objects hold arrays, and starting a chase doesn't allocate once the game runs.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class IncrementalPathPlanner {
+	/**
+	 * The name of the system property that disables the incremental planning
+	 * of the chases, when set to 'false'.
+	 */
+	public static final String INCREMENTAL_PLANNING_PROPERTY = "incrementalPlanning";
+
+	/**
+	 * This variable determines if the chasing objects plan their paths using
+	 * a planner, or request them to {@link PathFinder#requestService}.
+	 *
+	 * <p>The planner is the default because of what a chase asks for: the next
+	 * cell towards a target that is in view range, again every time the object
+	 * reaches a cell, while the target and the other objects moved by a cell
+	 * at most. The planner repairs the few distances that changed, on the
+	 * object's own update, and answers on the same update. Through the request
+	 * service, every one of those requests snapshots the objects and copies
+	 * the grid for a whole search, and the object stands still while it runs.
+	 * The request service, with its worker threads, {@link PathHierarchy} and
+	 * {@link PathAlgorithm}, is the one for the paths requested once, across
+	 * the level, and is used by the chases when this variable is false.</p>
+	 */
+	public static volatile boolean incrementalPlanning =
+		!"false".equals(System.getProperty(INCREMENTAL_PLANNING_PROPERTY));
+
+	/**
+	 * The value returned by {@link #findNextCell(int, int, int, int)} when there
+	 * is no cell to go to.
+	 */
+	public static final long NO_PATH = PhysicsUtilities.pack(-1, -1);
+
+	/**
+	 * The cost of the paths that don't exist. It is low enough not to overflow when added to.
+	 */
+	private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+	/**
+	 * The list of the directions to the adjacent cells.
+	 */
+	private static final int[][] directions = {{-1,0}, {1,0}, {0,-1}, {0,1}};
+
+	/**
+	 * The static collision of the level.
+	 */
+	private final CollisionGrid collisionGrid;
+
+	/**
+	 * The store of the objects occupying the cells.
+	 */
+	private final EntityStore store;
+
+	/**
+	 * The id of the planning object in {@link #store}.
+	 */
+	private final int id;
+
+	/**
+	 * The tile set of the objects whose cells stay walkable.
+	 */
+	private final TileSet ignoredTiles;
+
+	/**
+	 * The number of cells that span horizontally across the level.
+	 */
+	private final int width;
+
+	/**
+	 * The index of the virtual goal, after the indices of the cells.
+	 */
+	private final int virtualGoal;
+
+	/**
+	 * The inner {@code PlanningArrays} class holds the arrays a planner
+	 * needs during a chase, so that they are reused from chase to chase.
+	 */
+	private static class PlanningArrays {
+		// The distance of every cell to the target, as of the last expansion, then looking one step ahead.
+		private final int[] distances, lookaheads;
+
+		// Whether every cell can be walked on, as last read.
+		private final boolean[] walkable;
+
+		// The constructor of the PlanningArrays object, for a number of cells.
+		private PlanningArrays(int cellsCount) {
+			distances = new int[cellsCount + 1];
+			lookaheads = new int[cellsCount + 1];
+			walkable = new boolean[cellsCount];
+		}
+	}
+
+	/**
+	 * The arrays given back by the planners whose chases ended.
+	 */
+	private static final ArrayDeque<PlanningArrays> freePlanningArrays = new ArrayDeque<>();
+
+	/**
+	 * The arrays of this planner, null while it isn't in a chase.
+	 */
+	private PlanningArrays planningArrays;
+
+	/**
+	 * The distance of every cell to the target, as of the last expansion, by index.
+	 */
+	private int[] distances;
+
+	/**
+	 * The distance of every cell to the target, looking one step ahead, by index.
+	 */
+	private int[] lookaheads;
+
+	/**
+	 * Whether every cell can be walked on, as last read, by index.
+	 */
+	private boolean[] walkable;
+
+	/**
+	 * The inconsistent cells to expand, by their keys. A cell may have stale entries.
+	 */
+	private final PathFinder.OpenList openList = new PathFinder.OpenList();
+
+	/**
+	 * The key modifier, the sum of the distances the planning object moved by.
+	 */
+	private int keyModifier;
+
+	/**
+	 * The cell of the planning object, as of the last request, -1 before the first one.
+	 */
+	private int start = -1;
+
+	/**
+	 * The cell of the target, as of the last request.
+	 */
+	private int target = -1;
+
+	/**
+	 * The number of changes of the occupancy grid read from its journal.
+	 */
+	private long occupancyChangesCount;
+
+	/**
+	 * This constructor constructs the {@code IncrementalPathPlanner} object
+	 * for an object of a store, in a level. Its arrays are taken on its first request.
+	 *
+	 * @param collisionGrid  The static collision of the level.
+	 * @param store  The store of the objects, indexed against the level.
+	 * @param id  The id of the planning object in the store.
+	 * @param ignoredTiles  The tile set of the objects whose cells stay walkable.
+	 */
+	public IncrementalPathPlanner(CollisionGrid collisionGrid, EntityStore store, int id, TileSet ignoredTiles) {
+		this.collisionGrid = collisionGrid;
+		this.store = store;
+		this.id = id;
+		this.ignoredTiles = ignoredTiles;
+		width = collisionGrid.getWidth();
+		virtualGoal = width * collisionGrid.getHeight();
+	}
+
+	/**
+	 * This function gives the arrays of the planner back, to be reused by
+	 * the next planner starting a chase. It is called when the chase ends;
+	 * the next request plans from scratch.
+	 */
+	public void release() {
+		if (planningArrays == null) {
+			return;
+		}
+		synchronized (freePlanningArrays) {
+			freePlanningArrays.push(planningArrays);
+		}
+		planningArrays = null;
+		distances = null;
+		lookaheads = null;
+		walkable = null;
+		start = -1;
+		openList.clear();
+	}
+
+	/**
+	 * This function takes the arrays of the planner, reusing the ones given
+	 * back by another planner if they fit the level. The ones that don't,
+	 * left by a previous level, are dropped.
+	 */
+	private void acquire() {
+		synchronized (freePlanningArrays) {
+			while ((planningArrays == null) && !freePlanningArrays.isEmpty()) {
+				PlanningArrays freeArrays = freePlanningArrays.pop();
+				if (freeArrays.walkable.length == virtualGoal) {
+					planningArrays = freeArrays;
+				}
+			}
+		}
+		if (planningArrays == null) {
+			planningArrays = new PlanningArrays(virtualGoal);
+		}
+		distances = planningArrays.distances;
+		lookaheads = planningArrays.lookaheads;
+		walkable = planningArrays.walkable;
+	}
+
+	/**
+	 * This function checks if the planner plans in a level, for an object of a store.
+	 *
+	 * @param otherCollisionGrid  The static collision of the level.
+	 * @param otherStore  The store of the object.
+	 *
+	 * @return  A boolean, true if the planner plans in the level and for the store, false otherwise.
+	 */
+	public boolean isPlanningFor(CollisionGrid otherCollisionGrid, EntityStore otherStore) {
+		return (collisionGrid == otherCollisionGrid) && (store == otherStore);
+	}
+
+	/**
+	 * This function returns the next cell on a shortest path from the
+	 * planning object to a target, repairing the distances kept from the
+	 * previous requests.
+	 *
+	 * @param startRow  The row of the planning object.
+	 * @param startColumn  The column of the planning object.
+	 * @param targetRow  The row of the target.
+	 * @param targetColumn  The column of the target.
+	 *
+	 * @return  The next cell, packed as (row, column) (see {@link PhysicsUtilities#pack(int, int)}),
+	 * {@link #NO_PATH} if the target can't be reached or is already reached.
+	 */
+	public long findNextCell(int startRow, int startColumn, int targetRow, int targetColumn) {
+		if (!isInLevel(startRow, startColumn) || !isInLevel(targetRow, targetColumn)) {
+			return NO_PATH;
+		}
+		int newStart = (startRow * width) + startColumn;
+		int newTarget = (targetRow * width) + targetColumn;
+		if (planningArrays == null) {
+			acquire();
+		}
+		if ((start == -1) || ((store.getOccupancyChangesCount() - occupancyChangesCount) > store.getOccupancyJournalSize())) {
+			initialize(newStart, newTarget);
+		}
+		else {
+			keyModifier += heuristic(start, newStart);
+			start = newStart;
+			readOccupancyChanges();
+			if (newTarget != target) {
+				int oldTarget = target;
+				target = newTarget;
+				updateCell(oldTarget);
+				updateCell(newTarget);
+			}
+		}
+		computeShortestPath();
+
+		// The search may stop with the planning object's cell not expanded, so its lookahead is the one to trust.
+		if ((start == target) || (lookaheads[start] >= INFINITY)) {
+			return NO_PATH;
+		}
+		int nextCell = -1;
+		int nextDistance = INFINITY;
+		for (int[] direction : directions) {
+			int row = startRow + direction[0];
+			int column = startColumn + direction[1];
+			if (!isInLevel(row, column)) {
+				continue;
+			}
+			int cell = (row * width) + column;
+			int distance = getCost(start, cell) + distances[cell];
+			if (distance < nextDistance) {
+				nextDistance = distance;
+				nextCell = cell;
+			}
+		}
+		return (nextCell == -1)? NO_PATH : PhysicsUtilities.pack(nextCell / width, nextCell % width);
+	}
+
+	/**
+	 * This function forgets every distance, and starts planning again from
+	 * the current state of the level.
+	 *
+	 * @param newStart  The cell of the planning object.
+	 * @param newTarget  The cell of the target.
+	 */
+	private void initialize(int newStart, int newTarget) {
+		start = newStart;
+		target = newTarget;
+		keyModifier = 0;
+		occupancyChangesCount = store.getOccupancyChangesCount();
+		for (int cell = 0; cell < virtualGoal; cell++) {
+			walkable[cell] = isWalkable(cell);
+		}
+		Arrays.fill(distances, INFINITY);
+		Arrays.fill(lookaheads, INFINITY);
+		lookaheads[virtualGoal] = 0;
+		openList.clear();
+		openList.push(getKey(virtualGoal), virtualGoal);
+	}
+
+	/**
+	 * This function reads the changes of the occupancy grid since the last
+	 * request, and updates the cells that can or can't be walked on anymore.
+	 */
+	private void readOccupancyChanges() {
+		long changesCount = store.getOccupancyChangesCount();
+		for (long change = occupancyChangesCount; change < changesCount; change++) {
+			int cell = store.getOccupancyChange(change);
+			boolean isWalkable = isWalkable(cell);
+			if (isWalkable == walkable[cell]) {
+				continue;
+			}
+			// The cost of every edge of the cell changed.
+			walkable[cell] = isWalkable;
+			updateCell(cell);
+			int row = cell / width;
+			int column = cell % width;
+			for (int[] direction : directions) {
+				if (isInLevel(row + direction[0], column + direction[1])) {
+					updateCell(((row + direction[0]) * width) + column + direction[1]);
+				}
+			}
+		}
+		occupancyChangesCount = changesCount;
+	}
+
+	/**
+	 * This function expands the inconsistent cells, in the order of their
+	 * keys, until the distance of the planning object's cell is known.
+	 */
+	private void computeShortestPath() {
+		while (!openList.isEmpty()
+				&& ((openList.peekKey() < getKey(start)) || (lookaheads[start] > distances[start]))) {
+			long oldKey = openList.peekKey();
+			int cell = openList.pop();
+			if (distances[cell] == lookaheads[cell]) {
+				// A stale entry of a cell that was made consistent since.
+				continue;
+			}
+			long newKey = getKey(cell);
+			if (oldKey < newKey) {
+				openList.push(newKey, cell);
+			}
+			else if (distances[cell] > lookaheads[cell]) {
+				distances[cell] = lookaheads[cell];
+				updateNeighbours(cell);
+			}
+			else {
+				distances[cell] = INFINITY;
+				updateCell(cell);
+				updateNeighbours(cell);
+			}
+		}
+	}
+
+	/**
+	 * This function updates the cells linked to a cell, which are its
+	 * adjacent cells, and the virtual goal for the target's cell.
+	 *
+	 * @param cell  The index of the cell.
+	 */
+	private void updateNeighbours(int cell) {
+		if (cell == virtualGoal) {
+			updateCell(target);
+			return;
+		}
+		int row = cell / width;
+		int column = cell % width;
+		for (int[] direction : directions) {
+			if (isInLevel(row + direction[0], column + direction[1])) {
+				updateCell(((row + direction[0]) * width) + column + direction[1]);
+			}
+		}
+	}
+
+	/**
+	 * This function computes the one step lookahead distance of a cell, from
+	 * the distances of the cells linked to it, and queues the cell if it is
+	 * inconsistent.
+	 *
+	 * @param cell  The index of the cell.
+	 */
+	private void updateCell(int cell) {
+		if (cell == virtualGoal) {
+			return;
+		}
+		int lookahead = (cell == target)? distances[virtualGoal] : INFINITY;
+		int row = cell / width;
+		int column = cell % width;
+		for (int[] direction : directions) {
+			int nextRow = row + direction[0];
+			int nextColumn = column + direction[1];
+			if (isInLevel(nextRow, nextColumn)) {
+				int nextCell = (nextRow * width) + nextColumn;
+				lookahead = Math.min(lookahead, getCost(cell, nextCell) + distances[nextCell]);
+			}
+		}
+		lookaheads[cell] = Math.min(lookahead, INFINITY);
+		if (distances[cell] != lookaheads[cell]) {
+			openList.push(getKey(cell), cell);
+		}
+	}
+
+	/**
+	 * This function computes the key of a cell, which orders the expansions:
+	 * the estimated cost of the path from the planning object through the cell,
+	 * and then the distance of the cell to the target.
+	 *
+	 * @param cell  The index of the cell.
+	 *
+	 * @return  The key, packed in a long.
+	 */
+	private long getKey(int cell) {
+		int distance = Math.min(distances[cell], lookaheads[cell]);
+		return (((long) (distance + heuristic(start, cell) + keyModifier)) << 32) | distance;
+	}
+
+	/**
+	 * This function estimates the distance between two cells, the virtual
+	 * goal being at the cell of the target.
+	 *
+	 * @param a  The index of the first cell.
+	 * @param b  The index of the second cell.
+	 *
+	 * @return  The estimated distance.
+	 */
+	private int heuristic(int a, int b) {
+		if (a == virtualGoal) {
+			a = target;
+		}
+		if (b == virtualGoal) {
+			b = target;
+		}
+		return PathFinder.heuristic(a / width, a % width, b / width, b % width);
+	}
+
+	/**
+	 * This function returns the cost of moving between two adjacent cells.
+	 *
+	 * @param a  The index of the first cell.
+	 * @param b  The index of the second cell.
+	 *
+	 * @return  The cost, {@link #INFINITY} if either of the cells can't be walked on.
+	 */
+	private int getCost(int a, int b) {
+		return (walkable[a] && walkable[b])? 1 : INFINITY;
+	}
+
+	/**
+	 * This function checks if a cell can be walked on, in the current state
+	 * of the level and of the objects.
+	 *
+	 * @param cell  The index of the cell.
+	 *
+	 * @return  A boolean, true if the cell can be walked on, false otherwise.
+	 */
+	private boolean isWalkable(int cell) {
+		int row = cell / width;
+		int column = cell % width;
+		if (collisionGrid.isBlocked(row, column)) {
+			return false;
+		}
+		for (int objectID = store.getEntityAt(row, column); objectID != -1; objectID = store.getNextEntityInCell(objectID)) {
+			if ((objectID != id) && !ignoredTiles.hasIndex(store.getTileValue(objectID))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This function checks if a cell is in the level.
+	 *
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 *
+	 * @return  A boolean, true if the cell is in the level, false otherwise.
+	 */
+	private boolean isInLevel(int row, int column) {
+		return (row >= 0) && (column >= 0) && (row < collisionGrid.getHeight()) && (column < width);
+	}
+}
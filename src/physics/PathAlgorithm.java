@@ -0,0 +1,45 @@
+package physics;
+
+/**
+ * The {@code PathAlgorithm} enum class defines the
+ * algorithms {@link PathFinder} can search the
+ * grid with.
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public enum PathAlgorithm {
+	/**
+	 * A* expanding every adjacent cell of every cell it reaches.
+	 */
+	A_STAR,
+
+	/**
+	 * A* with Jump Point Search, which jumps along straight lines over the
+	 * cells where no shortest path needs to turn. The grid having the same
+	 * cost everywhere, it finds paths as short as {@link #A_STAR}, while
+	 * expanding far fewer cells in open areas.
+	 */
+	JUMP_POINT_SEARCH;
+
+	/**
+	 * This function returns the algorithm with a given name.
+	 *
+	 * @param name  The name of the algorithm, such as 'JUMP_POINT_SEARCH', or null.
+	 *
+	 * @return  The algorithm, {@link #A_STAR} if the name is null or unknown.
+	 */
+	public static PathAlgorithm fromName(String name) {
+		if (name == null) {
+			return A_STAR;
+		}
+		try {
+			return valueOf(name);
+		} catch (IllegalArgumentException e) {
+			System.out.println("Unknown path algorithm " + name + ", using " + A_STAR);
+			return A_STAR;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package physics;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import database.DatabaseUtilities;
+import mapControls.Level;
+import physics.PathFinder.Node;
+
+/**
+ * The {@code PathBenchmark} class compares the algorithms {@link PathFinder}
+ * can search the grid with (see {@link PathAlgorithm}), on the static grid
+ * of a level. Every algorithm runs the same random queries, between walkable
+ * cells, and the time they take and the length of the paths they find are
+ * printed.
+ *
+ * <p>It is run on its own, with the name of the level's JSON file, the
+ * number of queries, and the seed of the queries as optional arguments.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class PathBenchmark {
+	/**
+	 * The number of times every algorithm runs the queries before being
+	 * timed, so that the timed runs are compiled.
+	 */
+	private static final int WARM_UP_RUNS = 3;
+
+	public static void main(String[] args) {
+		String levelName = (args.length > 0)? args[0] : DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME;
+		int queriesCount = (args.length > 1)? Integer.parseInt(args[1]) : 1000;
+		long seed = (args.length > 2)? Long.parseLong(args[2]) : 0;
+		boolean[][] grid = PathFinder.getStaticPathGrid(new Level(levelName).getCollisionGrid());
+		run(grid, queriesCount, seed);
+	}
+
+	/**
+	 * This function runs the same random queries with every algorithm on a
+	 * grid, and prints the time they take and the paths they find. The
+	 * algorithms must find paths of the same length, as they all find
+	 * the shortest ones; the queries where they don't are counted.
+	 *
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param queriesCount  The number of queries.
+	 * @param seed  The seed of the random queries.
+	 */
+	public static void run(boolean[][] grid, int queriesCount, long seed) {
+		ArrayList<int[]> walkableCells = new ArrayList<>();
+		for (int i = 0; i < grid.length; i++) {
+			for (int j = 0; j < grid[0].length; j++) {
+				if (grid[i][j]) {
+					walkableCells.add(new int[] {i, j});
+				}
+			}
+		}
+		if (walkableCells.isEmpty()) {
+			System.out.println("The grid has no walkable cell");
+			return;
+		}
+		Random random = new Random(seed);
+		int[][] queries = new int[queriesCount][];
+		for (int k = 0; k < queriesCount; k++) {
+			int[] source = walkableCells.get(random.nextInt(walkableCells.size()));
+			int[] destination = walkableCells.get(random.nextInt(walkableCells.size()));
+			queries[k] = new int[] {source[0], source[1], destination[0], destination[1]};
+		}
+
+		System.out.println("Grid " + grid.length + "x" + grid[0].length + ", " + queriesCount + " queries");
+		int[] referenceLengths = null;
+		for (PathAlgorithm pathAlgorithm : PathAlgorithm.values()) {
+			for (int run = 0; run < WARM_UP_RUNS; run++) {
+				runQueries(grid, queries, pathAlgorithm);
+			}
+			long startTime = System.nanoTime();
+			int[] lengths = runQueries(grid, queries, pathAlgorithm);
+			long time = System.nanoTime() - startTime;
+
+			int foundCount = 0;
+			long totalLength = 0;
+			int mismatchCount = 0;
+			for (int k = 0; k < queriesCount; k++) {
+				if (lengths[k] > 0) {
+					foundCount++;
+					totalLength += lengths[k];
+				}
+				if ((referenceLengths != null) && (lengths[k] != referenceLengths[k])) {
+					mismatchCount++;
+				}
+			}
+			if (referenceLengths == null) {
+				referenceLengths = lengths;
+			}
+			System.out.println(String.format("%-18s %10.3f ms  %8.1f us/query  found %d  total length %d  mismatches %d",
+				pathAlgorithm, time / 1e6, time / 1e3 / queriesCount, foundCount, totalLength, mismatchCount));
+		}
+	}
+
+	/**
+	 * This function runs queries with an algorithm.
+	 *
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param queries  The queries, each holding the row and column of the source, then of the destination.
+	 * @param pathAlgorithm  The algorithm.
+	 *
+	 * @return  The number of cells of the path of every query, 0 if the path is not found.
+	 */
+	private static int[] runQueries(boolean[][] grid, int[][] queries, PathAlgorithm pathAlgorithm) {
+		int[] lengths = new int[queries.length];
+		for (int k = 0; k < queries.length; k++) {
+			lengths[k] = PathFinder.findPath(
+				new Node(queries[k][0], queries[k][1]), new Node(queries[k][2], queries[k][3]), grid, pathAlgorithm
+			).size();
+		}
+		return lengths;
+	}
+}
@@ -1,15 +1,12 @@
 package physics;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.PriorityQueue;
 
-import gameObjects.DynamicObject;
+import gameObjects.EntityStore;
 import gameObjects.GameObjectUtilities;
-import mapControls.LevelLayer;
 import mapControls.MapUtilities;
 import mapControls.TileSet;
 
@@ -18,12 +15,34 @@ import mapControls.TileSet;
  * use A* algorithm to find the shortest path
  * between two points.
  * 
+ * <p>The grid can be searched with plain A* or with Jump Point Search
+ * (see {@link PathAlgorithm}), selected by {@link #algorithm}. Both
+ * return the same kind of paths, so they can be swapped freely.</p>
+ * 
  * @author Edward Assaf
  * @author Batoul Khaleel
  * 
  * @version 1.0
  */
 public class PathFinder {
+	/**
+	 * The service running the path searches requested by the dynamic objects
+	 * on worker threads (see {@link PathRequestService}).
+	 */
+	public static final PathRequestService requestService = new PathRequestService();
+	
+	/**
+	 * The name of the system property that selects the algorithm used to
+	 * search the grid, by the name of a {@link PathAlgorithm} constant.
+	 */
+	public static final String ALGORITHM_PROPERTY = "pathAlgorithm";
+	
+	/**
+	 * The algorithm used to search the grid, read from {@link #ALGORITHM_PROPERTY},
+	 * {@link PathAlgorithm#A_STAR} by default.
+	 */
+	public static volatile PathAlgorithm algorithm = PathAlgorithm.fromName(System.getProperty(ALGORITHM_PROPERTY));
+	
 	/**
 	 * The inner {@code Node} class defines a point
 	 * that is used in calculating the shortest path.
@@ -108,7 +127,22 @@ public class PathFinder {
 	 * @return  The estimated distance between the two nodes.
 	 */
 	public static int heuristic(Node a, Node b){
-		return (int)(Math.abs(a.x - b.x) + Math.abs(a.y - b.y));
+		return heuristic(a.x, a.y, b.x, b.y);
+	}
+	
+	/**
+	 * This function calculates the heuristic value between two cells
+	 * given by their coordinates, without allocating nodes for them.
+	 * 
+	 * @param ax  The row of the first cell.
+	 * @param ay  The column of the first cell.
+	 * @param bx  The row of the second cell.
+	 * @param by  The column of the second cell.
+	 * 
+	 * @return  The heuristic value.
+	 */
+	public static int heuristic(int ax, int ay, int bx, int by){
+		return Math.abs(ax - bx) + Math.abs(ay - by);
 	}
 	
 	/**
@@ -145,111 +179,405 @@ public class PathFinder {
 	public static ArrayList<Node> findPath(Node source, Node destination, TileSet ignoredTiles){
 		boolean[][] grid = getStaticPathGrid();
 		grid = getDynamicPathGrid(ignoredTiles, grid);
-
-		PriorityQueue<Node> openList = new PriorityQueue<Node>();
-		HashSet<Node> visitedList = new HashSet<Node>();
-		HashMap<Node, Integer> nodeDistanceValues = new HashMap<>();
-		
-		source.g = 0;
-		source.h = heuristic(source, destination);
-		openList.add(source);
-		nodeDistanceValues.put(source, source.g);
+		return findPath(source, destination, grid);
+	}
+	
+	/**
+	 * This function finds the path between a source and a destination node
+	 * in a walkable grid. It only reads the grid, so it can run on any thread.
+	 * 
+	 * @param source  The source node.
+	 * @param destination  The destination node.
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * 
+	 * @return  The path between source and destination, empty list if the path is
+	 * not found.
+	 */
+	public static ArrayList<Node> findPath(Node source, Node destination, boolean[][] grid){
+		return findPath(source, destination, grid, algorithm);
+	}
+	
+	/**
+	 * This function finds the path between a source and a destination node
+	 * in a walkable grid, using a given algorithm. Whatever the algorithm,
+	 * the path holds every cell from the source to the destination, each
+	 * adjacent to the previous one, and it is one of the shortest paths.
+	 * 
+	 * @param source  The source node.
+	 * @param destination  The destination node.
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param pathAlgorithm  The algorithm used to search the grid.
+	 * 
+	 * @return  The path between source and destination, empty list if the path is
+	 * not found.
+	 */
+	public static ArrayList<Node> findPath(Node source, Node destination, boolean[][] grid, PathAlgorithm pathAlgorithm){
+		ArrayList<Node> path = new ArrayList<Node>();
+		// The source may be marked as not walkable, as the object looking for the path stands on it.
+		if ((source.x < 0) || (source.y < 0) || (source.x >= grid.length) || (source.y >= grid[0].length)
+				|| !isValid(grid, destination.x, destination.y)) {
+			return path;
+		}
+		int width = grid[0].length;
+		int[] previous = searchGrid(grid, source.x, source.y, destination.x, destination.y,
+			pathAlgorithm == PathAlgorithm.JUMP_POINT_SEARCH);
+		if (previous == null) {
+			return path;
+		}
+		// The cells between two consecutive points of the search are on a straight line.
+		int cell = (destination.x * width) + destination.y;
+		int sourceCell = (source.x * width) + source.y;
+		path.add(new Node(destination.x, destination.y));
+		while (cell != sourceCell) {
+			int previousCell = previous[cell];
+			int row = cell / width;
+			int column = cell % width;
+			int stepRow = Integer.signum((previousCell / width) - row);
+			int stepColumn = Integer.signum((previousCell % width) - column);
+			do {
+				row += stepRow;
+				column += stepColumn;
+				path.add(new Node(row, column));
+			} while (((row * width) + column) != previousCell);
+			cell = previousCell;
+		}
+		Collections.reverse(path);
+		for (int i = 1; i < path.size(); i++) {
+			path.get(i).previous = path.get(i - 1);
+			path.get(i).g = i;
+		}
+		return path;
+	}
+	
+	/**
+	 * This function searches a walkable grid from a source to a destination
+	 * cell, with A*. The cells are identified by their index, which is
+	 * {@code row * width + column}, and the state of the search is kept in
+	 * arrays indexed by it, so that no object is allocated per cell.
+	 * 
+	 * <p>With plain A*, the successors of a cell are its walkable adjacent
+	 * cells. With Jump Point Search, the search jumps along straight lines
+	 * and only stops on the cells where the shortest paths can turn (see
+	 * {@link #jump(boolean[][], int, int, int, int, int, int)}), so the
+	 * successors of a cell are far fewer, and its previous cell in the
+	 * search is on the same row or column, but not always adjacent.</p>
+	 * 
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param sourceRow  The row of the source cell.
+	 * @param sourceColumn  The column of the source cell.
+	 * @param destinationRow  The row of the destination cell.
+	 * @param destinationColumn  The column of the destination cell.
+	 * @param jumpPoints  Whether to use Jump Point Search instead of plain A*.
+	 * 
+	 * @return  The previous cell of every reached cell, by cell index, null if
+	 * the destination is not reached.
+	 */
+	private static int[] searchGrid(boolean[][] grid, int sourceRow, int sourceColumn,
+			int destinationRow, int destinationColumn, boolean jumpPoints) {
+		int width = grid[0].length;
+		int[] costs = new int[grid.length * width];
+		int[] previous = new int[costs.length];
+		boolean[] closed = new boolean[costs.length];
+		Arrays.fill(costs, Integer.MAX_VALUE);
+		OpenList openList = new OpenList();
+		int sourceCell = (sourceRow * width) + sourceColumn;
+		int destinationCell = (destinationRow * width) + destinationColumn;
+		costs[sourceCell] = 0;
+		previous[sourceCell] = sourceCell;
+		openList.push(getSearchKey(heuristic(sourceRow, sourceColumn, destinationRow, destinationColumn), 0), sourceCell);
 		
-		while(!openList.isEmpty()) {
-			Node currentNode = openList.poll(); //least heuristic node in the queue.
-			if(currentNode.equals(destination)) {
-				return reconstructPath(currentNode);
+		while (!openList.isEmpty()) {
+			int cell = openList.pop(); // The cell with the least total cost.
+			if (closed[cell]) {
+				continue;
 			}
-			visitedList.add(currentNode);
+			if (cell == destinationCell) {
+				return previous;
+			}
+			closed[cell] = true;
+			int row = cell / width;
+			int column = cell % width;
+			// The direction the cell was reached from, none for the source.
+			int fromRow = Integer.signum(row - (previous[cell] / width));
+			int fromColumn = Integer.signum(column - (previous[cell] % width));
 			for (int[] direction : directions) {
-				int currentX = currentNode.x + direction[0];
-				int currentY = currentNode.y + direction[1];
-				if(!isValid(grid, currentX, currentY)) {
-					continue;
+				int next;
+				if (jumpPoints) {
+					if (!isNaturalOrForced(grid, row, column, fromRow, fromColumn, direction[0], direction[1])) {
+						continue;
+					}
+					next = jump(grid, row, column, direction[0], direction[1], destinationRow, destinationColumn);
 				}
-				int newG = currentNode.g + 1;
-				Node newNode = new Node(currentX, currentY);
-				if(visitedList.contains(newNode)) {
+				else {
+					next = isValid(grid, row + direction[0], column + direction[1])
+						? (((row + direction[0]) * width) + column + direction[1]) : -1;
+				}
+				if ((next == -1) || closed[next]) {
 					continue;
 				}
-				if (!openList.contains(newNode)) {
-					newNode.g = newG;
-					newNode.previous = currentNode;
-					newNode.h = heuristic(newNode, destination);
-					openList.add(newNode);
-					nodeDistanceValues.put(newNode, newNode.g);
+				int nextRow = next / width;
+				int nextColumn = next % width;
+				int cost = costs[cell] + heuristic(row, column, nextRow, nextColumn);
+				if (cost < costs[next]) {
+					costs[next] = cost;
+					previous[next] = cell;
+					openList.push(getSearchKey(cost + heuristic(nextRow, nextColumn, destinationRow, destinationColumn), cost), next);
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * This function checks whether Jump Point Search explores a direction from
+	 * a cell, given the direction the cell was reached from. The shortest
+	 * paths are taken to move vertically before moving horizontally, so:
+	 * from the source, every direction is explored; from a cell reached
+	 * vertically, the same direction and both horizontal ones are explored;
+	 * and from a cell reached horizontally, only the same direction is
+	 * explored, and a vertical one if a wall beside the previous cell ends
+	 * there (a forced neighbour).
+	 * 
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 * @param fromRow  The row step the cell was reached by, 0 if it wasn't reached vertically.
+	 * @param fromColumn  The column step the cell was reached by, 0 if it wasn't reached horizontally.
+	 * @param stepRow  The row step of the direction.
+	 * @param stepColumn  The column step of the direction.
+	 * 
+	 * @return  A boolean, true if the direction is explored, false otherwise.
+	 */
+	private static boolean isNaturalOrForced(boolean[][] grid, int row, int column,
+			int fromRow, int fromColumn, int stepRow, int stepColumn) {
+		if ((fromRow == 0) && (fromColumn == 0)) {
+			return true;
+		}
+		if (fromRow != 0) {
+			return (stepRow == fromRow) || (stepColumn != 0);
+		}
+		if (stepColumn == fromColumn) {
+			return true;
+		}
+		return (stepRow != 0) && isValid(grid, row + stepRow, column)
+			&& !isValid(grid, row + stepRow, column - fromColumn);
+	}
+	
+	/**
+	 * This function jumps from a cell along a direction, over the cells where
+	 * no shortest path needs to turn, and returns the first cell where one may:
+	 * the destination; when moving horizontally, a cell with a forced neighbour
+	 * (see {@link #isNaturalOrForced(boolean[][], int, int, int, int, int, int)});
+	 * and when moving vertically, a cell from which a horizontal jump finds
+	 * such a cell.
+	 * 
+	 * @param grid  The grid, 'true' for the walkable cells.
+	 * @param row  The row of the cell to jump from.
+	 * @param column  The column of the cell to jump from.
+	 * @param stepRow  The row step of the direction.
+	 * @param stepColumn  The column step of the direction.
+	 * @param destinationRow  The row of the destination cell.
+	 * @param destinationColumn  The column of the destination cell.
+	 * 
+	 * @return  The index of the cell jumped to, -1 if a wall is reached first.
+	 */
+	private static int jump(boolean[][] grid, int row, int column, int stepRow, int stepColumn,
+			int destinationRow, int destinationColumn) {
+		while (true) {
+			row += stepRow;
+			column += stepColumn;
+			if (!isValid(grid, row, column)) {
+				return -1;
+			}
+			int cell = (row * grid[0].length) + column;
+			if ((row == destinationRow) && (column == destinationColumn)) {
+				return cell;
+			}
+			if (stepColumn != 0) {
+				if ((isValid(grid, row - 1, column) && !isValid(grid, row - 1, column - stepColumn))
+						|| (isValid(grid, row + 1, column) && !isValid(grid, row + 1, column - stepColumn))) {
+					return cell;
+				}
+			}
+			else if ((jump(grid, row, column, 0, 1, destinationRow, destinationColumn) != -1)
+					|| (jump(grid, row, column, 0, -1, destinationRow, destinationColumn) != -1)) {
+				return cell;
+			}
+		}
+	}
+	
+	/**
+	 * This function returns the key a cell is ordered by in the open list of
+	 * {@link #searchGrid(boolean[][], int, int, int, int, boolean)}: its total
+	 * cost, and then its distance from the source, the farthest first. On a
+	 * grid, many cells have the same total cost, and going on from the
+	 * deepest one reaches the destination first.
+	 * 
+	 * @param totalCost  The total cost of the cell.
+	 * @param distance  The distance of the cell from the source.
+	 * 
+	 * @return  The key of the cell.
+	 */
+	private static long getSearchKey(int totalCost, int distance) {
+		return (((long) totalCost) << 32) | (Integer.MAX_VALUE - distance);
+	}
+	
+	/**
+	 * The inner {@code OpenList} class is a binary min-heap of the cells to
+	 * expand, ordered by a key packed in a long. The cells are kept in an
+	 * array parallel to the keys, so no object is allocated per entry.
+	 */
+	static class OpenList {
+		// The keys of the entries of the heap.
+		private long[] entries = new long[64];
+		
+		// The cells of the entries of the heap.
+		private int[] cells = new int[64];
+		
+		// The number of entries in the heap.
+		private int size = 0;
+		
+		// Returns whether the heap has no entry.
+		boolean isEmpty() {
+			return size == 0;
+		}
+		
+		// Removes all the entries.
+		void clear() {
+			size = 0;
+		}
+		
+		// Returns the least key, which must not be called on an empty heap.
+		long peekKey() {
+			return entries[0];
+		}
+		
+		// Adds a cell with its key.
+		void push(long entry, int cell) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+				cells = Arrays.copyOf(cells, size * 2);
+			}
+			int index = size++;
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (entries[parent] <= entry) {
+					break;
+				}
+				entries[index] = entries[parent];
+				cells[index] = cells[parent];
+				index = parent;
+			}
+			entries[index] = entry;
+			cells[index] = cell;
+		}
+		
+		// Removes and returns the cell with the least key.
+		int pop() {
+			int cell = cells[0];
+			long last = entries[--size];
+			int lastCell = cells[size];
+			int index = 0;
+			while (true) {
+				int child = (2 * index) + 1;
+				if (child >= size) {
+					break;
 				}
-				else if (nodeDistanceValues.containsKey(newNode) && (newG < nodeDistanceValues.get(newNode))) {
-					newNode.g = newG;
-					newNode.previous = currentNode;
-					newNode.h = heuristic(newNode, destination);
-					openList.add(newNode);
-					nodeDistanceValues.put(newNode, newNode.g);
+				if ((child + 1 < size) && (entries[child + 1] < entries[child])) {
+					child++;
 				}
-			}	
+				if (last <= entries[child]) {
+					break;
+				}
+				entries[index] = entries[child];
+				cells[index] = cells[child];
+				index = child;
+			}
+			entries[index] = last;
+			cells[index] = lastCell;
+			return cell;
 		}
-		return new ArrayList<Node>();
 	}
 	
 	/**
 	 * This function returnes a boolean grid that has value 'true'
-	 * for wherever there is a static collision.
+	 * for wherever there is no static collision, copied from the
+	 * one the level keeps in its {@link PathHierarchy}.
 	 * 
 	 * @return  The grid.
 	 */
 	public static boolean[][] getStaticPathGrid() {
-		boolean[][] grid = new boolean[MapUtilities.level.getHeight()][MapUtilities.level.getWidth()];
+		return MapUtilities.level.getPathHierarchy().getWalkableGrid();
+	}
+	
+	/**
+	 * This function returnes a boolean grid that has value 'true'
+	 * for wherever there is no static collision in a {@link CollisionGrid}.
+	 * 
+	 * @param collisionGrid  The collision geometry of a level.
+	 * 
+	 * @return  The grid.
+	 */
+	public static boolean[][] getStaticPathGrid(CollisionGrid collisionGrid) {
+		boolean[][] grid = new boolean[collisionGrid.getHeight()][collisionGrid.getWidth()];
 		for(int i = 0; i < grid.length ; i++) {
 			for(int j = 0; j < grid[0].length ; j++) {
-				grid[i][j] = true;
-			}
-		}
-		
-		LevelLayer[] levelLayers = MapUtilities.level.getLevelLayers();
-		for(LevelLayer layer : levelLayers) {	
-			if(layer.getType().equals("static")) {
-				for(int i=0;i<layer.getLayerData().length;i++) {
-					for(int j=0;j<layer.getLayerData()[0].length;j++) {
-						int tileValue = layer.getLayerDataElement(i, j);
-						String tileTileSetName = layer.getTileSetName(tileValue);
-						if (tileTileSetName == null) {
-							continue;
-						}
-						TileSet tileTileSet = layer.getTileSet(tileTileSetName);
-						int tileID = tileTileSet.getTileID(tileValue);
-						String collisionState = tileTileSet.getTileObject(tileID).getCollisionState();
-						if(collisionState.equals("half collision") || collisionState.equals("full collision")) {
-							grid[i][j] = false;
-						}
-					}
-				}
+				grid[i][j] = !collisionGrid.isBlocked(i, j);
 			}
 		}
 		return grid;
 	}
 
 	/**
-	 * This function returnes a boolean grid that has value 'true'
-	 * for wherever there is a dynamic collision.
+	 * This function marks, in a grid, every cell occupied by an alive
+	 * dynamic object as not walkable (see {@link #getOccupiedCells(TileSet)}).
+	 * 
+	 * @param ignoredTiles  The tile set of the objects whose cells stay walkable.
+	 * @param grid  The grid to mark, such as the one returned by {@link #getStaticPathGrid()}.
 	 * 
 	 * @return  The grid.
 	 */
 	public static boolean[][] getDynamicPathGrid(TileSet ignoredTiles, boolean[][] grid){
-		LevelLayer[] levelLayers = MapUtilities.level.getLevelLayers();
-		for(LevelLayer layer : levelLayers) {
-			if(layer.getType().equals("dynamic")) {
-				for(int i=0;i<layer.getLayerData().length;i++) {
-					for(int j=0;j<layer.getLayerData()[0].length;j++) {
-						int tileValue = layer.getLayerDataElement(i, j);
-						if(ignoredTiles.hasIndex(tileValue)) {
-							continue;
-						}
-						DynamicObject object = GameObjectUtilities.getDynamicObjectWithTileValue(tileValue);
-						if (object != null) {
-							grid[i][j] = false;
-						}
-					}
-				}
+		return markOccupiedCells(getOccupiedCells(ignoredTiles), grid);
+	}
+	
+	/**
+	 * This function returns the cells occupied by the alive dynamic objects,
+	 * read from their store. It only goes through the objects, not through
+	 * the cells of the level, so it is cheap enough to be called on every
+	 * path request.
+	 * 
+	 * @param ignoredTiles  The tile set of the objects whose cells are left out.
+	 * 
+	 * @return  The cells, packed by {@link PhysicsUtilities#pack(int, int)}.
+	 */
+	public static long[] getOccupiedCells(TileSet ignoredTiles) {
+		EntityStore store = GameObjectUtilities.entityStore;
+		long[] cells = new long[store.size()];
+		int count = 0;
+		for (int id = 0; id < store.size(); id++) {
+			if (store.isAlive(id) && !ignoredTiles.hasIndex(store.getTileValue(id))) {
+				cells[count++] = PhysicsUtilities.pack(store.getRowPosition(id), store.getColumnPosition(id));
+			}
+		}
+		return Arrays.copyOf(cells, count);
+	}
+	
+	/**
+	 * This function marks occupied cells in a grid as not walkable.
+	 * It only reads the cells, so it can run on any thread.
+	 * 
+	 * @param cells  The cells, such as the ones returned by {@link #getOccupiedCells(TileSet)}.
+	 * @param grid  The grid to mark.
+	 * 
+	 * @return  The grid.
+	 */
+	public static boolean[][] markOccupiedCells(long[] cells, boolean[][] grid) {
+		for (long cell : cells) {
+			int row = PhysicsUtilities.unpackX(cell);
+			int column = PhysicsUtilities.unpackY(cell);
+			if ((row >= 0) && (row < grid.length) && (column >= 0) && (column < grid[row].length)) {
+				grid[row][column] = false;
 			}
 		}
 		return grid;
@@ -0,0 +1,510 @@
+package physics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import physics.PathFinder.Node;
+
+/**
+ * The {@code PathHierarchy} class finds long paths across a level without
+ * expanding the cells one by one, using hierarchical path finding (HPA*).
+ *
+ * <p>The level is divided in square clusters of {@link #CLUSTER_SIZE} cells.
+ * Where two adjacent clusters can be crossed, along their shared border,
+ * entrances are placed: one at the middle of every crossable run of cells,
+ * or one at each end of the longer runs. The cost between every two
+ * entrances of a cluster is computed once, by a search inside the cluster.
+ * Together, they make an abstract graph, which is much smaller than the grid
+ * of the level.</p>
+ *
+ * <p>A path is found by linking the source and the destination to the
+ * entrances of their clusters, searching the abstract graph, and refining
+ * only the first segment of the abstract path into cells, which is the
+ * one being walked. The rest of the path is refined on the next queries,
+ * once the object moved. Short paths are searched on the grid directly
+ * (see {@link PathFinder#findPath(Node, Node, boolean[][])}).</p>
+ *
+ * <p>The hierarchy is computed from the static collision of the level. When
+ * a cell changes, only the cluster of the cell and its neighbours are
+ * computed again (see {@link #setWalkable(int, int, boolean)}). Queries can
+ * run on many threads at the same time.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class PathHierarchy {
+	/**
+	 * The width and height of a cluster, in cells.
+	 */
+	public static final int CLUSTER_SIZE = 10;
+
+	/**
+	 * The length from which a crossable run of border cells gets an entrance at
+	 * each of its ends, instead of a single entrance at its middle.
+	 */
+	private static final int LONG_ENTRANCE_LENGTH = 6;
+
+	/**
+	 * The list of the directions to the adjacent cells.
+	 */
+	private static final int[][] directions = {{-1,0}, {1,0}, {0,-1}, {0,1}};
+
+	/**
+	 * The number of cells that span vertically across the level.
+	 */
+	private final int height;
+
+	/**
+	 * The number of cells that span horizontally across the level.
+	 */
+	private final int width;
+
+	/**
+	 * The number of clusters that span vertically across the level.
+	 */
+	private final int clusterRows;
+
+	/**
+	 * The number of clusters that span horizontally across the level.
+	 */
+	private final int clusterColumns;
+
+	/**
+	 * Whether every cell can be walked on, by row and column.
+	 */
+	private final boolean[][] walkable;
+
+	/**
+	 * The entrances of every cluster, as cell indices (see {@link #getCell(int, int)}),
+	 * by cluster index.
+	 */
+	private final int[][] entrances;
+
+	/**
+	 * The cost between every two entrances of every cluster, -1 if one can't
+	 * be reached from the other inside the cluster, by cluster index.
+	 */
+	private final int[][][] entranceCosts;
+
+	/**
+	 * The index of every entrance in its cluster, by cell index.
+	 */
+	private final HashMap<Integer, Integer> entranceIndices = new HashMap<>();
+
+	/**
+	 * The lock letting many queries run at the same time, but not while a cell changes.
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * This constructor constructs the {@code PathHierarchy} object from the
+	 * static collision of a level, and computes all of its clusters.
+	 *
+	 * @param collisionGrid  The collision geometry of the level.
+	 */
+	public PathHierarchy(CollisionGrid collisionGrid) {
+		this(PathFinder.getStaticPathGrid(collisionGrid));
+	}
+
+	/**
+	 * This constructor constructs the {@code PathHierarchy} object from a
+	 * walkable grid, and computes all of its clusters.
+	 *
+	 * @param grid  The grid, 'true' for the walkable cells. It is copied.
+	 */
+	public PathHierarchy(boolean[][] grid) {
+		height = grid.length;
+		width = (height == 0)? 0 : grid[0].length;
+		clusterRows = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		clusterColumns = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		walkable = new boolean[height][];
+		for (int i = 0; i < height; i++) {
+			walkable[i] = grid[i].clone();
+		}
+		entrances = new int[clusterRows * clusterColumns][];
+		entranceCosts = new int[clusterRows * clusterColumns][][];
+		for (int cluster = 0; cluster < entrances.length; cluster++) {
+			computeCluster(cluster);
+		}
+	}
+
+	/**
+	 * This function changes whether a cell can be walked on, and computes
+	 * again the entrances and costs of its cluster and of the adjacent clusters.
+	 *
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 * @param isWalkable  Whether the cell can be walked on.
+	 */
+	public void setWalkable(int row, int column, boolean isWalkable) {
+		lock.writeLock().lock();
+		try {
+			if (walkable[row][column] == isWalkable) {
+				return;
+			}
+			walkable[row][column] = isWalkable;
+			int clusterRow = row / CLUSTER_SIZE;
+			int clusterColumn = column / CLUSTER_SIZE;
+			computeCluster(getCluster(row, column));
+			for (int[] direction : directions) {
+				int adjacentRow = clusterRow + direction[0];
+				int adjacentColumn = clusterColumn + direction[1];
+				if ((adjacentRow >= 0) && (adjacentRow < clusterRows) && (adjacentColumn >= 0) && (adjacentColumn < clusterColumns)) {
+					computeCluster((adjacentRow * clusterColumns) + adjacentColumn);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * This function returns a copy of the walkable grid the hierarchy is
+	 * computed from, which is the static collision of the level, so that
+	 * the grid isn't computed again from the level on every search.
+	 *
+	 * @return  A new grid, 'true' for the walkable cells.
+	 */
+	public boolean[][] getWalkableGrid() {
+		lock.readLock().lock();
+		try {
+			boolean[][] grid = new boolean[height][];
+			for (int i = 0; i < height; i++) {
+				grid[i] = walkable[i].clone();
+			}
+			return grid;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * This function finds the path between a source and a destination cell.
+	 * For cells that are close or in the same cluster, the whole path is searched
+	 * in the grid. Otherwise, only the path to the first waypoint of the
+	 * abstract path is returned, which is enough to start walking towards
+	 * the destination.
+	 *
+	 * <p>The abstract path only follows the static collision; the refined
+	 * segment follows the given grid, which may also hold the objects. If
+	 * the segment is blocked in it, the whole path is searched in the grid.</p>
+	 *
+	 * @param source  The source node.
+	 * @param destination  The destination node.
+	 * @param grid  The grid the path is refined in, 'true' for the walkable cells.
+	 *
+	 * @return  The path from the source, empty list if the destination can't be reached.
+	 */
+	public ArrayList<Node> findPath(Node source, Node destination, boolean[][] grid) {
+		if ((PathFinder.heuristic(source, destination) <= CLUSTER_SIZE)
+				|| (getCluster(source.x, source.y) == getCluster(destination.x, destination.y))) {
+			return PathFinder.findPath(source, destination, grid);
+		}
+		int waypoint;
+		lock.readLock().lock();
+		try {
+			waypoint = findFirstWaypoint(source.x, source.y, destination.x, destination.y);
+		} finally {
+			lock.readLock().unlock();
+		}
+		if (waypoint == -1) {
+			return new ArrayList<Node>();
+		}
+		Node target = new Node(waypoint / width, waypoint % width);
+		ArrayList<Node> path = PathFinder.findPath(source, target, grid);
+		if (path.isEmpty()) {
+			return PathFinder.findPath(new Node(source.x, source.y), destination, grid);
+		}
+		return path;
+	}
+
+	/**
+	 * This function searches the abstract graph between two cells, and
+	 * returns the first waypoint after the source on the abstract path.
+	 *
+	 * @param sourceRow  The row of the source cell.
+	 * @param sourceColumn  The column of the source cell.
+	 * @param destinationRow  The row of the destination cell.
+	 * @param destinationColumn  The column of the destination cell.
+	 *
+	 * @return  The cell index of the waypoint, -1 if the destination can't be reached.
+	 */
+	private int findFirstWaypoint(int sourceRow, int sourceColumn, int destinationRow, int destinationColumn) {
+		if (!isWalkable(sourceRow, sourceColumn) || !isWalkable(destinationRow, destinationColumn)) {
+			return -1;
+		}
+		int source = getCell(sourceRow, sourceColumn);
+		int destination = getCell(destinationRow, destinationColumn);
+		int sourceCluster = getCluster(sourceRow, sourceColumn);
+		int destinationCluster = getCluster(destinationRow, destinationColumn);
+		int[] sourceCosts = getCostsInCluster(sourceCluster, sourceRow, sourceColumn);
+		int[] destinationCosts = getCostsInCluster(destinationCluster, destinationRow, destinationColumn);
+
+		HashMap<Integer, Integer> costs = new HashMap<>();
+		HashMap<Integer, Integer> previous = new HashMap<>();
+		PriorityQueue<int[]> openList = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+		costs.put(source, 0);
+		openList.add(new int[] {heuristic(source, destination), source});
+		while (!openList.isEmpty()) {
+			int[] entry = openList.poll();
+			int current = entry[1];
+			int currentCost = costs.get(current);
+			if (entry[0] > currentCost + heuristic(current, destination)) {
+				continue;
+			}
+			if (current == destination) {
+				int waypoint = destination;
+				while (previous.get(waypoint) != source) {
+					waypoint = previous.get(waypoint);
+				}
+				return waypoint;
+			}
+			int row = current / width;
+			int column = current % width;
+			int cluster = getCluster(row, column);
+			// The source is linked to the entrances of its cluster.
+			if (current == source) {
+				for (int k = 0; k < entrances[sourceCluster].length; k++) {
+					relax(current, entrances[sourceCluster][k], sourceCosts[k], destination, costs, previous, openList);
+				}
+			}
+			Integer index = entranceIndices.get(current);
+			if (index != null) {
+				// The entrances of a cluster are linked to each other, and to the entrance across the border.
+				for (int k = 0; k < entrances[cluster].length; k++) {
+					relax(current, entrances[cluster][k], entranceCosts[cluster][index][k], destination, costs, previous, openList);
+				}
+				for (int[] direction : directions) {
+					int adjacentRow = row + direction[0];
+					int adjacentColumn = column + direction[1];
+					if (isWalkable(adjacentRow, adjacentColumn) && (getCluster(adjacentRow, adjacentColumn) != cluster)
+							&& entranceIndices.containsKey(getCell(adjacentRow, adjacentColumn))) {
+						relax(current, getCell(adjacentRow, adjacentColumn), 1, destination, costs, previous, openList);
+					}
+				}
+				// The entrances of the destination's cluster are linked to the destination.
+				if (cluster == destinationCluster) {
+					relax(current, destination, destinationCosts[index], destination, costs, previous, openList);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * This function lowers the cost of a node of the abstract graph, if it
+	 * can be reached for less through another node, and adds it to the open list.
+	 *
+	 * @param current  The node it is reached through.
+	 * @param next  The node to reach.
+	 * @param edgeCost  The cost between the two nodes, -1 if they are not linked.
+	 * @param destination  The destination node.
+	 * @param costs  The costs of the reached nodes.
+	 * @param previous  The node every reached node is reached through.
+	 * @param openList  The nodes to expand, with their total cost.
+	 */
+	private void relax(int current, int next, int edgeCost, int destination,
+			HashMap<Integer, Integer> costs, HashMap<Integer, Integer> previous, PriorityQueue<int[]> openList) {
+		if ((edgeCost < 0) || (next == current)) {
+			return;
+		}
+		int cost = costs.get(current) + edgeCost;
+		Integer nextCost = costs.get(next);
+		if ((nextCost != null) && (nextCost <= cost)) {
+			return;
+		}
+		costs.put(next, cost);
+		previous.put(next, current);
+		openList.add(new int[] {cost + heuristic(next, destination), next});
+	}
+
+	/**
+	 * This function calculates the heuristic value between two cells given by their indices.
+	 *
+	 * @param a  The index of the first cell.
+	 * @param b  The index of the second cell.
+	 *
+	 * @return  The heuristic value.
+	 */
+	private int heuristic(int a, int b) {
+		return PathFinder.heuristic(a / width, a % width, b / width, b % width);
+	}
+
+	/**
+	 * This function computes the entrances of a cluster, along its borders
+	 * with the adjacent clusters, and the costs between them.
+	 *
+	 * @param cluster  The index of the cluster.
+	 */
+	private void computeCluster(int cluster) {
+		if (entrances[cluster] != null) {
+			for (int entrance : entrances[cluster]) {
+				entranceIndices.remove(entrance);
+			}
+		}
+		int firstRow = (cluster / clusterColumns) * CLUSTER_SIZE;
+		int firstColumn = (cluster % clusterColumns) * CLUSTER_SIZE;
+		int lastRow = Math.min(firstRow + CLUSTER_SIZE, height) - 1;
+		int lastColumn = Math.min(firstColumn + CLUSTER_SIZE, width) - 1;
+		ArrayList<Integer> clusterEntrances = new ArrayList<>();
+		addEntrances(clusterEntrances, firstRow, firstColumn, 0, 1, lastColumn - firstColumn + 1, -1, 0);
+		addEntrances(clusterEntrances, lastRow, firstColumn, 0, 1, lastColumn - firstColumn + 1, 1, 0);
+		addEntrances(clusterEntrances, firstRow, firstColumn, 1, 0, lastRow - firstRow + 1, 0, -1);
+		addEntrances(clusterEntrances, firstRow, lastColumn, 1, 0, lastRow - firstRow + 1, 0, 1);
+
+		entrances[cluster] = new int[clusterEntrances.size()];
+		for (int k = 0; k < entrances[cluster].length; k++) {
+			entrances[cluster][k] = clusterEntrances.get(k);
+			entranceIndices.put(entrances[cluster][k], k);
+		}
+		entranceCosts[cluster] = new int[entrances[cluster].length][];
+		for (int k = 0; k < entrances[cluster].length; k++) {
+			entranceCosts[cluster][k] = getCostsInCluster(cluster,
+				entrances[cluster][k] / width, entrances[cluster][k] % width);
+		}
+	}
+
+	/**
+	 * This function adds the entrances along one border of a cluster. The
+	 * border is crossable wherever both the cell of the cluster and the cell
+	 * across it can be walked on; every run of crossable cells gets an
+	 * entrance at its middle, or at both of its ends if it is long.
+	 *
+	 * @param clusterEntrances  The entrances of the cluster.
+	 * @param row  The row of the first cell of the border.
+	 * @param column  The column of the first cell of the border.
+	 * @param stepRow  The row step along the border.
+	 * @param stepColumn  The column step along the border.
+	 * @param length  The number of cells along the border.
+	 * @param acrossRow  The row step across the border.
+	 * @param acrossColumn  The column step across the border.
+	 */
+	private void addEntrances(ArrayList<Integer> clusterEntrances, int row, int column, int stepRow, int stepColumn,
+			int length, int acrossRow, int acrossColumn) {
+		int runStart = -1;
+		for (int k = 0; k <= length; k++) {
+			int cellRow = row + (k * stepRow);
+			int cellColumn = column + (k * stepColumn);
+			boolean crossable = (k < length) && isWalkable(cellRow, cellColumn)
+				&& isWalkable(cellRow + acrossRow, cellColumn + acrossColumn);
+			if (crossable && (runStart == -1)) {
+				runStart = k;
+			}
+			else if (!crossable && (runStart != -1)) {
+				int runEnd = k - 1;
+				if ((runEnd - runStart + 1) >= LONG_ENTRANCE_LENGTH) {
+					addEntrance(clusterEntrances, row + (runStart * stepRow), column + (runStart * stepColumn));
+					addEntrance(clusterEntrances, row + (runEnd * stepRow), column + (runEnd * stepColumn));
+				}
+				else {
+					int middle = (runStart + runEnd) / 2;
+					addEntrance(clusterEntrances, row + (middle * stepRow), column + (middle * stepColumn));
+				}
+				runStart = -1;
+			}
+		}
+	}
+
+	/**
+	 * This function adds an entrance to a cluster, unless it is already one
+	 * of its entrances, as a corner cell can be on two borders.
+	 *
+	 * @param clusterEntrances  The entrances of the cluster.
+	 * @param row  The row of the entrance.
+	 * @param column  The column of the entrance.
+	 */
+	private void addEntrance(ArrayList<Integer> clusterEntrances, int row, int column) {
+		int entrance = getCell(row, column);
+		if (!clusterEntrances.contains(entrance)) {
+			clusterEntrances.add(entrance);
+		}
+	}
+
+	/**
+	 * This function computes the cost from a cell to every entrance of its
+	 * cluster, with a breadth-first search that doesn't leave the cluster.
+	 *
+	 * @param cluster  The index of the cluster.
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 *
+	 * @return  The cost to every entrance, in the order of {@link #entrances}, -1 for those not reached.
+	 */
+	private int[] getCostsInCluster(int cluster, int row, int column) {
+		int firstRow = (cluster / clusterColumns) * CLUSTER_SIZE;
+		int firstColumn = (cluster % clusterColumns) * CLUSTER_SIZE;
+		int rows = Math.min(firstRow + CLUSTER_SIZE, height) - firstRow;
+		int columns = Math.min(firstColumn + CLUSTER_SIZE, width) - firstColumn;
+		int[][] distances = new int[rows][columns];
+		for (int[] distanceRow : distances) {
+			Arrays.fill(distanceRow, -1);
+		}
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		distances[row - firstRow][column - firstColumn] = 0;
+		queue.add(((row - firstRow) * columns) + (column - firstColumn));
+		while (!queue.isEmpty()) {
+			int cell = queue.poll();
+			int cellRow = cell / columns;
+			int cellColumn = cell % columns;
+			for (int[] direction : directions) {
+				int nextRow = cellRow + direction[0];
+				int nextColumn = cellColumn + direction[1];
+				if ((nextRow < 0) || (nextRow >= rows) || (nextColumn < 0) || (nextColumn >= columns)
+						|| (distances[nextRow][nextColumn] != -1) || !walkable[firstRow + nextRow][firstColumn + nextColumn]) {
+					continue;
+				}
+				distances[nextRow][nextColumn] = distances[cellRow][cellColumn] + 1;
+				queue.add((nextRow * columns) + nextColumn);
+			}
+		}
+		int[] costs = new int[entrances[cluster].length];
+		for (int k = 0; k < costs.length; k++) {
+			costs[k] = distances[(entrances[cluster][k] / width) - firstRow]
+				[(entrances[cluster][k] % width) - firstColumn];
+		}
+		return costs;
+	}
+
+	/**
+	 * This function returns the index of a cell, which identifies it in
+	 * the abstract graph.
+	 *
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 *
+	 * @return  The index of the cell.
+	 */
+	private int getCell(int row, int column) {
+		return (row * width) + column;
+	}
+
+	/**
+	 * This function returns the index of the cluster of a cell.
+	 *
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 *
+	 * @return  The index of the cluster.
+	 */
+	private int getCluster(int row, int column) {
+		return ((row / CLUSTER_SIZE) * clusterColumns) + (column / CLUSTER_SIZE);
+	}
+
+	/**
+	 * This function checks whether a cell is in the level and can be walked on.
+	 *
+	 * @param row  The row of the cell.
+	 * @param column  The column of the cell.
+	 *
+	 * @return  A boolean, true if the cell can be walked on, false otherwise.
+	 */
+	private boolean isWalkable(int row, int column) {
+		return (row >= 0) && (row < height) && (column >= 0) && (column < width) && walkable[row][column];
+	}
+}
@@ -0,0 +1,182 @@
+package physics;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import mapControls.MapUtilities;
+import mapControls.TileSet;
+import physics.PathFinder.Node;
+
+/**
+ * The {@code PathRequestService} class runs the path searches of the
+ * dynamic objects on a pool of worker threads, so that a long search
+ * doesn't hold the update of all the other objects.
+ *
+ * <p>A path is requested using {@link #requestPath(int, int, int, int, TileSet)},
+ * and its result is delivered through a {@link CompletableFuture}, which
+ * the object polls on its next updates. Only the cells occupied by the
+ * objects are read on the calling thread when the path is requested, so the
+ * search never reads the objects while they are updated. The walkable grid
+ * is built by the search, from the static one the level's {@link PathHierarchy}
+ * keeps, with the occupied cells marked on it. Identical requests (same
+ * source, destination and ignored tile set) that are pending at the same
+ * time share one search and its result. The searches go through the
+ * level's {@link PathHierarchy}, so long paths are found on its abstract
+ * graph, and only their first segment is refined into cells.</p>
+ *
+ * <p>The number of worker threads is read from the {@link #WORKERS_PROPERTY}
+ * system property. If it is 0, the searches run on the calling thread and
+ * the futures are already complete when they are returned, which keeps the
+ * updates deterministic.</p>
+ *
+ * @author Edward Assaf
+ * @author Batoul Khaleel
+ *
+ * @version 1.0
+ */
+public class PathRequestService {
+	/**
+	 * The name of the system property that sets the number of worker threads.
+	 */
+	public static final String WORKERS_PROPERTY = "pathWorkers";
+
+	/**
+	 * The name of the worker threads.
+	 */
+	public static final String THREAD_NAME = "Path Worker";
+
+	/**
+	 * The inner {@code Request} class identifies a path request, so that
+	 * identical pending requests can be found.
+	 */
+	private static class Request {
+		// The source and destination cells of the path.
+		private final int sourceRow, sourceColumn, destinationRow, destinationColumn;
+
+		// The tile set of the objects whose cells stay walkable.
+		private final TileSet ignoredTiles;
+
+		// The constructor of the Request object.
+		private Request(int sourceRow, int sourceColumn, int destinationRow, int destinationColumn, TileSet ignoredTiles) {
+			this.sourceRow = sourceRow;
+			this.sourceColumn = sourceColumn;
+			this.destinationRow = destinationRow;
+			this.destinationColumn = destinationColumn;
+			this.ignoredTiles = ignoredTiles;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Request)) {
+				return false;
+			}
+			Request request = (Request) obj;
+			return (sourceRow == request.sourceRow) && (sourceColumn == request.sourceColumn)
+				&& (destinationRow == request.destinationRow) && (destinationColumn == request.destinationColumn)
+				&& (ignoredTiles == request.ignoredTiles);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sourceRow, sourceColumn, destinationRow, destinationColumn, System.identityHashCode(ignoredTiles));
+		}
+	}
+
+	/**
+	 * The executor that owns the worker threads, null if the searches run on the calling thread.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The pending requests, with the futures of their results.
+	 */
+	private final ConcurrentHashMap<Request, CompletableFuture<ArrayList<Node>>> pendingRequests = new ConcurrentHashMap<>();
+
+	/**
+	 * This constructor constructs the {@code PathRequestService} object and
+	 * its worker threads, as many as set by {@link #WORKERS_PROPERTY}, or
+	 * half the available processors if it isn't set. The threads are daemon
+	 * threads, so they don't keep the program running.
+	 */
+	public PathRequestService() {
+		int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		try {
+			workers = Integer.parseInt(System.getProperty(WORKERS_PROPERTY, Integer.toString(workers)));
+		} catch (NumberFormatException e) {
+			System.out.println("Invalid number of path workers, using " + workers);
+		}
+		if (workers <= 0) {
+			executor = null;
+			return;
+		}
+		executor = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * This function requests the path between a source and a destination cell,
+	 * ignoring the collision of the objects drawn using a tile set. It can be
+	 * called from any thread the objects are updated on.
+	 *
+	 * @param sourceRow  The row of the source cell.
+	 * @param sourceColumn  The column of the source cell.
+	 * @param destinationRow  The row of the destination cell.
+	 * @param destinationColumn  The column of the destination cell.
+	 * @param ignoredTiles  The tile set of the objects whose cells stay walkable.
+	 *
+	 * @return  A future that completes with the path (see {@link PathHierarchy#findPath(Node, Node, boolean[][])}),
+	 * which, for long paths, only goes to their first waypoint.
+	 * The path may be shared with other requests, so it must not be modified.
+	 */
+	public CompletableFuture<ArrayList<Node>> requestPath(int sourceRow, int sourceColumn, int destinationRow, int destinationColumn, TileSet ignoredTiles) {
+		Request request = new Request(sourceRow, sourceColumn, destinationRow, destinationColumn, ignoredTiles);
+		CompletableFuture<ArrayList<Node>> pendingPath = pendingRequests.get(request);
+		if (pendingPath != null) {
+			return pendingPath;
+		}
+		long[] occupiedCells = PathFinder.getOccupiedCells(ignoredTiles);
+		PathHierarchy hierarchy = MapUtilities.level.getPathHierarchy();
+		if (executor == null) {
+			return CompletableFuture.completedFuture(hierarchy.findPath(
+				new Node(sourceRow, sourceColumn), new Node(destinationRow, destinationColumn),
+				PathFinder.markOccupiedCells(occupiedCells, hierarchy.getWalkableGrid())
+			));
+		}
+		CompletableFuture<ArrayList<Node>> path = new CompletableFuture<>();
+		pendingPath = pendingRequests.putIfAbsent(request, path);
+		if (pendingPath != null) {
+			return pendingPath;
+		}
+		executor.execute(() -> {
+			try {
+				path.complete(hierarchy.findPath(
+					new Node(sourceRow, sourceColumn), new Node(destinationRow, destinationColumn),
+					PathFinder.markOccupiedCells(occupiedCells, hierarchy.getWalkableGrid())
+				));
+			} catch (RuntimeException error) {
+				System.out.println("Path search failed");
+				error.printStackTrace();
+				path.complete(new ArrayList<Node>());
+			} finally {
+				pendingRequests.remove(request, path);
+			}
+		});
+		return path;
+	}
+
+	/**
+	 * This function returns the number of requests whose search isn't done.
+	 *
+	 * @return  The number of pending requests.
+	 */
+	public int getPendingRequestsCount() {
+		return pendingRequests.size();
+	}
+}
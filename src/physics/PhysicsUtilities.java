@@ -12,6 +12,78 @@ import java.awt.Point;
  * @version 1.0
  */
 public class PhysicsUtilities {
+	/**
+	 * The number of fractional bits of the fixed-point positions and
+	 * velocities of the dynamic objects, which are in sub-pixels.
+	 */
+	public static final int SUBPIXEL_BITS = 8;
+	
+	/**
+	 * The number of sub-pixels in a pixel.
+	 */
+	public static final int SUBPIXELS_PER_PIXEL = 1 << SUBPIXEL_BITS;
+	
+	/**
+	 * This function converts an amount in pixels to sub-pixels.
+	 * 
+	 * @param pixels  The amount in pixels.
+	 * 
+	 * @return  The amount in sub-pixels.
+	 */
+	public static int toSubPixels(int pixels) {
+		return pixels << SUBPIXEL_BITS;
+	}
+	
+	/**
+	 * This function converts an amount in sub-pixels to whole pixels,
+	 * rounding down.
+	 * 
+	 * @param subPixels  The amount in sub-pixels.
+	 * 
+	 * @return  The amount in pixels.
+	 */
+	public static int toPixels(int subPixels) {
+		return subPixels >> SUBPIXEL_BITS;
+	}
+	
+	/**
+	 * This function packs a pair of integers, such as a position, into
+	 * a long, so that it can be returned without allocating.
+	 * 
+	 * @param x  The first integer.
+	 * @param y  The second integer.
+	 * 
+	 * @return  The packed pair.
+	 * 
+	 * @see #unpackX(long)
+	 * @see #unpackY(long)
+	 */
+	public static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * This function unpacks the first integer of a pair packed by {@link #pack(int, int)}.
+	 * 
+	 * @param pair  The packed pair.
+	 * 
+	 * @return  The first integer.
+	 */
+	public static int unpackX(long pair) {
+		return (int) (pair >> 32);
+	}
+	
+	/**
+	 * This function unpacks the second integer of a pair packed by {@link #pack(int, int)}.
+	 * 
+	 * @param pair  The packed pair.
+	 * 
+	 * @return  The second integer.
+	 */
+	public static int unpackY(long pair) {
+		return (int) pair;
+	}
+	
 	/**
 	 * This function calculates the motion vector between two points.
 	 * 
@@ -22,8 +94,25 @@ public class PhysicsUtilities {
 	 * @return The motion vector.
 	 */
 	public static Point calculateMotionVector(Point p1, Point p2, int scalar) {
-		double dx = p2.x - p1.x;
-		double dy = p2.y - p1.y;
+		return calculateMotionVector(p1.x, p1.y, p2.x, p2.y, scalar, new Point());
+	}
+	
+	/**
+	 * This function calculates the motion vector between two points,
+	 * and writes it into an existing point instead of allocating one.
+	 * 
+	 * @param x1  The x of the first point to move from.
+	 * @param y1  The y of the first point to move from.
+	 * @param x2  The x of the second point to move to.
+	 * @param y2  The y of the second point to move to.
+	 * @param scalar  The speed to move by.
+	 * @param motionVector  The point to write the motion vector into.
+	 * 
+	 * @return The point passed, holding the motion vector.
+	 */
+	public static Point calculateMotionVector(int x1, int y1, int x2, int y2, int scalar, Point motionVector) {
+		double dx = x2 - x1;
+		double dy = y2 - y1;
 		double distance = Math.sqrt(dx * dx + dy * dy);
 		double dirX = dx / distance;
 		double dirY = dy / distance;
@@ -41,7 +130,8 @@ public class PhysicsUtilities {
 		else {
 			dirY = Math.ceil(dirY);
 		}
-		return new Point((int)dirX, (int)dirY);
+		motionVector.setLocation((int)dirX, (int)dirY);
+		return motionVector;
 	}
 	
 }
@@ -1,6 +1,9 @@
 package physics;
 
 import java.awt.Point;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Random;
 
 /**
@@ -68,6 +71,11 @@ public class WanderMechanic {
 	 */
 	private Point wanderTracker = new Point(0,0);
 	
+	/**
+	 * The motion returned by {@link #wander(int, int, int)}, reused on every call.
+	 */
+	private final Point motion = new Point(0,0);
+	
 	/**
 	 * The speed at which the object wanders.
 	 */
@@ -97,47 +105,113 @@ public class WanderMechanic {
 	/**
 	 * This function is responsible of the wandering process.
 	 * 
-	 * @param currentPosition  The current position of the object
+	 * @param currentX  The current x position of the object.
+	 * @param currentY  The current y position of the object.
 	 * 
-	 * @return  A point, the motion vector to use in wandering.
+	 * @return  A point, the motion vector to use in wandering. The same
+	 * point is returned and overwritten by every call.
 	 */
-	public Point wander(Point currentPosition) {
+	public Point wander(int currentX, int currentY) {
+		return wander(currentX, currentY, 1);
+	}
+	
+	/**
+	 * This function is responsible of the wandering process, when it is only
+	 * called every few updates, and the returned motion is used on all of them.
+	 * The pause and the distance wandered advance by that number of updates.
+	 * 
+	 * @param currentX  The current x position of the object.
+	 * @param currentY  The current y position of the object.
+	 * @param steps  The number of updates the returned motion is used for.
+	 * 
+	 * @return  A point, the motion vector to use in wandering. The same
+	 * point is returned and overwritten by every call.
+	 */
+	public Point wander(int currentX, int currentY, int steps) {
 		if (wanderPauseFlag) {
-			if (wanderPauseCounter == WANDER_PAUSE) {
+			if (wanderPauseCounter >= WANDER_PAUSE) {
 				wanderPauseFlag = false;
 				newWanderNeededFlag = true;
 				wanderPauseCounter = 0;
 			}
-			wanderPauseCounter++;
-			return new Point(0, 0);
+			wanderPauseCounter += steps;
+			motion.setLocation(0, 0);
+			return motion;
 		}
 		if (newWanderNeededFlag) {
-			originalPosition = currentPosition;
+			originalPosition.setLocation(currentX, currentY);
 			wanderX = rand.nextInt(-WANDER_RANGE_X, WANDER_RANGE_X);
 			wanderY = rand.nextInt(-WANDER_RANGE_Y, WANDER_RANGE_Y);
-			motionVector = PhysicsUtilities.calculateMotionVector(
-				originalPosition,
-				new Point(originalPosition.x + wanderX, originalPosition.y + wanderY),
-				wanderRate
+			PhysicsUtilities.calculateMotionVector(
+				originalPosition.x, originalPosition.y,
+				originalPosition.x + wanderX, originalPosition.y + wanderY,
+				wanderRate, motionVector
 			);
-			wanderTracker = new Point(0,0);
+			wanderTracker.setLocation(0, 0);
 			newWanderNeededFlag = false;
 		}
 		if ((Math.abs(wanderTracker.x) < Math.abs(wanderX)) && (Math.abs(wanderTracker.y) < Math.abs(wanderY))) {
-			wanderTracker.x += motionVector.x;
-			wanderTracker.y += motionVector.y;
-			return new Point(motionVector.x, motionVector.y);
+			wanderTracker.x += motionVector.x * steps;
+			wanderTracker.y += motionVector.y * steps;
+			motion.setLocation(motionVector.x, motionVector.y);
+			return motion;
 		}
 		if (Math.abs(wanderTracker.x) < Math.abs(wanderX)) {
-			wanderTracker.x += motionVector.x;
-			return new Point(motionVector.x, 0);
+			wanderTracker.x += motionVector.x * steps;
+			motion.setLocation(motionVector.x, 0);
+			return motion;
 		}
 		if (Math.abs(wanderTracker.y) < Math.abs(wanderY)) {
-			wanderTracker.y += motionVector.y;
-			return new Point(0, motionVector.y);
+			wanderTracker.y += motionVector.y * steps;
+			motion.setLocation(0, motionVector.y);
+			return motion;
 		}
 		wanderPauseFlag = true;
-		return new Point(0, 0);
+		motion.setLocation(0, 0);
+		return motion;
+	}
+	
+	/**
+	 * This function writes the wandering state for a world snapshot.
+	 * 
+	 * @param output  The output to write the state to.
+	 * 
+	 * @throws IOException  If writing to the output fails.
+	 */
+	public void writeState(DataOutput output) throws IOException {
+		output.writeBoolean(wanderPauseFlag);
+		output.writeBoolean(newWanderNeededFlag);
+		output.writeInt(wanderPauseCounter);
+		output.writeInt(wanderX);
+		output.writeInt(wanderY);
+		output.writeInt(originalPosition.x);
+		output.writeInt(originalPosition.y);
+		output.writeInt(motionVector.x);
+		output.writeInt(motionVector.y);
+		output.writeInt(wanderTracker.x);
+		output.writeInt(wanderTracker.y);
+	}
+	
+	/**
+	 * This function reads the wandering state from a world snapshot,
+	 * in the same order it was written by {@link #writeState(DataOutput)}.
+	 * 
+	 * @param input  The input to read the state from.
+	 * 
+	 * @throws IOException  If reading from the input fails.
+	 */
+	public void readState(DataInput input) throws IOException {
+		wanderPauseFlag = input.readBoolean();
+		newWanderNeededFlag = input.readBoolean();
+		wanderPauseCounter = input.readInt();
+		wanderX = input.readInt();
+		wanderY = input.readInt();
+		originalPosition.x = input.readInt();
+		originalPosition.y = input.readInt();
+		motionVector.x = input.readInt();
+		motionVector.y = input.readInt();
+		wanderTracker.x = input.readInt();
+		wanderTracker.y = input.readInt();
 	}
 	
 }
@@ -14,10 +14,6 @@ import javax.swing.SwingConstants;
 
 import audio.AudioUtilities;
 import database.DatabaseUtilities;
-import gameObjects.DynamicObject;
-import gameObjects.GameObjectUtilities;
-import gameObjects.Monster;
-import gameObjects.Player;
 import media.MediaResource;
 import windowComponents.FontSize;
 import windowComponents.FontStyle;
@@ -235,29 +231,20 @@ public class GameOverPanel extends JPanel implements Scalable{
 	}
 	
 	/**
-	 * This function updates the state of Game Over Panel (Winning or Losing).
+	 * This function is called once when the game ends, and sets the state of
+	 * Game Over Panel (Winning or Losing). The end of the game is persisted
+	 * once, in the background, using {@link DatabaseUtilities#markGameOver(String)}.
+	 * 
+	 * @param playerWon  Whether all the monsters were killed, rather than the player.
 	 */
-	public void update() {
-		int monstersCount = GameObjectUtilities.dynamicObjects.length - 1;
-		int deadMonstersCount = 0;
-		for (DynamicObject object : GameObjectUtilities.dynamicObjects) {
-			if (object instanceof Player) {
-				if (object.getHealth() == 0) {
-					showGameOverStep();
-					DatabaseUtilities.markGameOver(DatabaseUtilities.currentUser);
-					return;
-				}
-			}
-			else if (object instanceof Monster) {
-				if (object.getHealth() == 0) {
-					deadMonstersCount += 1;
-				}
-			}
-		}
-		if (monstersCount == deadMonstersCount) {
+	public void onGameOver(boolean playerWon) {
+		if (playerWon) {
 			showWinStep();
-			DatabaseUtilities.markGameOver(DatabaseUtilities.currentUser);
 		}
+		else {
+			showGameOverStep();
+		}
+		DatabaseUtilities.markGameOver(DatabaseUtilities.currentUser);
 	}
 	
 	@Override
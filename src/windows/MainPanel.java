@@ -6,7 +6,6 @@ import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 
 import javax.swing.ImageIcon;
@@ -14,6 +13,7 @@ import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
 import audio.AudioUtilities;
 
@@ -295,17 +295,21 @@ public class MainPanel extends JPanel implements Scalable {
 				AudioUtilities.AUDIO_RESOURCES.get("backgroundMusic").terminate();
 				AudioUtilities.AUDIO_RESOURCES.get("gameMusic").playIndefinitely();
 				
-				MediaUtilities.copyResourceWithTag(
-					new MediaResource(DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME),
-					DatabaseUtilities.currentUser
-				);
-				DatabaseUtilities.markNewGameFieldPressed(DatabaseUtilities.currentUser);
-				DatabaseUtilities.resetGameDataForUser(DatabaseUtilities.currentUser);
-				MapUtilities.refreshLevelData();
-				MapUtilities.resetCamera();
-				
-				window.setTitle(window.windowName);
-				window.showPanel("GAME");
+				String username = DatabaseUtilities.currentUser;
+				Main.databaseExecutor.submitTask(()->{
+					MediaUtilities.copyResourceWithTag(
+						new MediaResource(DatabaseUtilities.ORIGINAL_LEVEL_JSON_NAME),
+						username
+					);
+					MapUtilities.discardSnapshot();
+					DatabaseUtilities.markNewGameFieldPressed(username);
+					DatabaseUtilities.resetGameDataForUser(username);
+					MapUtilities.refreshLevelData();
+					MapUtilities.resetCamera();
+				}).thenRun(()->SwingUtilities.invokeLater(()->{
+					window.setTitle(window.windowName);
+					window.showPanel("GAME");
+				}));
 			}
 		});
 		newGameButton.setForeground(new Color(255, 255, 255));
@@ -335,33 +339,35 @@ public class MainPanel extends JPanel implements Scalable {
 			public void actionPerformed(ActionEvent e) {
 				noteMessage.setText("");
 		        
-		        String checkStatement = "SELECT * FROM users_levels WHERE user_name = '"
-		          + DatabaseUtilities.currentUser + "';";
-		        ArrayList<HashMap<String, Object>> checkResult = Main.connector.getQueryResult(checkStatement);
-		        
-		        if (checkResult.size() == 0) {
-		          noteMessage.setText("Can't load game! There's no saved game!");
-		          AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		          return;
-		        }
-		        else if (!MediaUtilities.resourceExists((String) checkResult.get(0).get("level_path"))) {
-		          noteMessage.setText("Can't load game! There's no saved game!");
-		          AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		          return;
-		        }
-		        else if (checkResult.get(0).get("new_game_pressed").equals("NO")) {
-		          noteMessage.setText("Can't load game! There's no saved game!");
-		          AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		          return;
-		        }
-		        
-		        AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
-		        AudioUtilities.AUDIO_RESOURCES.get("backgroundMusic").terminate();
-		        AudioUtilities.AUDIO_RESOURCES.get("gameMusic").playIndefinitely();
-		        
-		        MapUtilities.refreshLevelData();
-		        window.setTitle(window.windowName);
-		        window.showPanel("GAME");
+		        String username = DatabaseUtilities.currentUser;
+		        Main.databaseExecutor.submitRead(()->{
+		        	HashMap<String, Object> checkResult = DatabaseUtilities.getUsersLevelsRowOfUser(username);
+		        	
+		        	if (checkResult == null) {
+		        		return false;
+		        	}
+		        	else if (!MediaUtilities.resourceExists((String) checkResult.get("level_path"))) {
+		        		return false;
+		        	}
+		        	else if (checkResult.get("new_game_pressed").equals("NO")) {
+		        		return false;
+		        	}
+		        	MapUtilities.refreshLevelData();
+		        	return true;
+		        }).thenAccept(gameLoaded->SwingUtilities.invokeLater(()->{
+		        	if (!gameLoaded) {
+		        		noteMessage.setText("Can't load game! There's no saved game!");
+		        		AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
+		        		return;
+		        	}
+		        	
+		        	AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
+		        	AudioUtilities.AUDIO_RESOURCES.get("backgroundMusic").terminate();
+		        	AudioUtilities.AUDIO_RESOURCES.get("gameMusic").playIndefinitely();
+		        	
+		        	window.setTitle(window.windowName);
+		        	window.showPanel("GAME");
+		        }));
 			}
 		});
 		loadGameButton.setForeground(new Color(255, 255, 255));
@@ -14,6 +14,7 @@ import javax.swing.SwingConstants;
 
 import audio.AudioUtilities;
 import main.GamePanel;
+import main.Main;
 import mapControls.MapUtilities;
 import media.MediaResource;
 import windowComponents.FontSize;
@@ -116,7 +117,7 @@ public class PausePanel extends JPanel implements Scalable{
 			public void actionPerformed(ActionEvent e) {
 				AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
 				GamePanel.gamePaused = false;
-				MapUtilities.saveData();
+				Main.databaseExecutor.submitTask(MapUtilities::saveData);
 				window.setTitle(window.windowName + " - Main Menu");
 				window.showPanel("MAIN");
 				AudioUtilities.AUDIO_RESOURCES.get("gameMusic").terminate();
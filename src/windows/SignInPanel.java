@@ -9,6 +9,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
 import audio.AudioUtilities;
 import database.DatabaseUtilities;
@@ -26,7 +27,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.awt.event.ActionEvent;
 
 /**
@@ -84,19 +84,24 @@ public class SignInPanel extends JPanel implements Scalable {
 	private Rectangle backgroundImageBounds;
 	
 	/**
-	 * An SQL statement that returns the names of users.
+	 * An updatable list of current users in the database. It is
+	 * empty until the list is loaded on the database thread.
 	 */
-	public static final String USERS_STATEMENT = "SELECT user_name FROM accounts;";
-	
-	/**
-	 * An updatable list of current users in the database.
-	 */
-	public static ArrayList<HashMap<String, Object>> users = Main.connector.getQueryResult(USERS_STATEMENT);
+	public static volatile ArrayList<String> users = new ArrayList<>();
 	
 	/**
 	 * A flag that is triggered (set to true) whenever users array is modified.
 	 */
-	public static boolean usersListUpdateFlag = true;
+	public static volatile boolean usersListUpdateFlag = true;
+	
+	static {
+		Main.databaseExecutor.submitRead(DatabaseUtilities::getUsernames).thenAccept(result->{
+			if (result != null) {
+				users = result;
+				usersListUpdateFlag = true;
+			}
+		});
+	}
 	
 	/**
 	 * The password box.
@@ -208,32 +213,8 @@ public class SignInPanel extends JPanel implements Scalable {
 					username = comboBox.getSelectedItem().toString();
 				}
 		        String password = passwordBox.getText().toString();
-		        if (!DatabaseUtilities.usernameExistsInDatabase(username)) {
-		        	AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		        	if (username.length() <= 18) {
-		        		noteMessage.setText("User '" + username + "' doesn't exist!");
-		        	}
-		        	else {
-		        		noteMessage.setText("User '" + username.substring(0, 15) + "...' doesn't exist!");
-		        	}
-		        	if (passwordBox.getText().trim().isEmpty()) {
-		        		passwordBox.setText(passwordBox.getPlaceHolder());
-		        	}
-		        	return;
-		        }
-		        if (!DatabaseUtilities.getPasswordOfUser(username).equals(password)) {
-		        	AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		        	noteMessage.setText("Incorrect Password! Try again!");
-		        	if (passwordBox.getText().trim().isEmpty()) {
-		        		passwordBox.setText(passwordBox.getPlaceHolder());
-		        	}
-		        	return;
-		        }
-		        DatabaseUtilities.currentUser = username;
-		        AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
-		        window.setTitle(window.windowName + " - Main Menu");
-		        passwordBox.setText(passwordBox.getPlaceHolder());
-		        window.showPanel("MAIN");
+		        Main.databaseExecutor.submitRead(()->DatabaseUtilities.getPasswordOfUser(username))
+		        	.thenAccept(userPassword->SwingUtilities.invokeLater(()->signIn(username, password, userPassword)));
 			}
 		});
 		signInButton.setBounds(210, 390, 100, 25);
@@ -322,6 +303,43 @@ public class SignInPanel extends JPanel implements Scalable {
 		repaint();
 	}
 	
+	/**
+	 * This function completes a sign-in attempt on the event thread, once
+	 * the password of the user has been read from the database.
+	 * 
+	 * @param username  The selected username.
+	 * @param password  The entered password.
+	 * @param userPassword  The password of the user, null if the user doesn't exist.
+	 */
+	private void signIn(String username, String password, String userPassword) {
+		if (userPassword == null) {
+			AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
+			if (username.length() <= 18) {
+				noteMessage.setText("User '" + username + "' doesn't exist!");
+			}
+			else {
+				noteMessage.setText("User '" + username.substring(0, 15) + "...' doesn't exist!");
+			}
+			if (passwordBox.getText().trim().isEmpty()) {
+				passwordBox.setText(passwordBox.getPlaceHolder());
+			}
+			return;
+		}
+		if (!userPassword.equals(password)) {
+			AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
+			noteMessage.setText("Incorrect Password! Try again!");
+			if (passwordBox.getText().trim().isEmpty()) {
+				passwordBox.setText(passwordBox.getPlaceHolder());
+			}
+			return;
+		}
+		DatabaseUtilities.currentUser = username;
+		AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
+		window.setTitle(window.windowName + " - Main Menu");
+		passwordBox.setText(passwordBox.getPlaceHolder());
+		window.showPanel("MAIN");
+	}
+	
 	/**
 	 * This function gets the current users' names from the database.
 	 * It extracts them from the {@code users} ArrayList.
@@ -329,11 +347,7 @@ public class SignInPanel extends JPanel implements Scalable {
 	 * @return A {@code String[]} array that contains the users' names.
 	 */
 	String[] getUsernames() {
-		String[] usernames = new String[users.size()];
-	    for (int i = 0; i < users.size(); i++) {
-	    	usernames[i] = (String) users.get(i).get("user_name");
-	    }
-	    return usernames;
+		return users.toArray(new String[0]);
 	}
 	
 	/**
@@ -8,10 +8,12 @@ import java.awt.Rectangle;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
 import audio.AudioUtilities;
 import database.DatabaseUtilities;
 import deviceInputs.KeyHandler;
+import main.Main;
 import media.MediaResource;
 import windowComponents.FontSize;
 import windowComponents.FontStyle;
@@ -272,21 +274,24 @@ public class SignUpPanel extends JPanel implements Scalable {
 				noteMessage.setText("");
 				noteMessage2.setText("");
 				String username = usernameBox.getText().toString();
-				if (DatabaseUtilities.usernameExistsInDatabase(username)) {
-					AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-					noteMessage.setText("Username already exists! Try another one!");
-					return;
-				}
-		        if (DatabaseUtilities.isValidUsername(username)) {
-		        	AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
-		        	showPasswordStep();
-		        }
-		        else {
-		        	AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
-		        	noteMessage.setText("Only 3-20 characters long usernames are allowed");
-		        	noteMessage2.setText("and usernames can only contain letters & numbers");
-		        	usernameBox.setText(usernameBox.getPlaceHolder());
-		        }
+				Main.databaseExecutor.submitRead(()->DatabaseUtilities.usernameExistsInDatabase(username))
+					.thenAccept(usernameExists->SwingUtilities.invokeLater(()->{
+					if (usernameExists) {
+						AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
+						noteMessage.setText("Username already exists! Try another one!");
+						return;
+					}
+			        if (DatabaseUtilities.isValidUsername(username)) {
+			        	AudioUtilities.AUDIO_RESOURCES.get("clickSound").playOnce();
+			        	showPasswordStep();
+			        }
+			        else {
+			        	AudioUtilities.AUDIO_RESOURCES.get("cancelSound").playOnce();
+			        	noteMessage.setText("Only 3-20 characters long usernames are allowed");
+			        	noteMessage2.setText("and usernames can only contain letters & numbers");
+			        	usernameBox.setText(usernameBox.getPlaceHolder());
+			        }
+				}));
 			}
 		});
 		usernameBox_nextButton_bounds = usernameBox_nextButton.getBounds();